@@ -25,14 +25,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.core.env.Environment;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.example.taskmanager.config.DefaultProfileUtil;
 
 @SpringBootApplication
-@EnableJpaRepositories
-@EnableTransactionManagement
+@EnableScheduling
 public class TaskManagerApplication {
 
     private static final Logger log = LoggerFactory.getLogger(TaskManagerApplication.class);
@@ -0,0 +1,15 @@
+package com.example.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * JPA repositories and transactions. Kept off the application class so that test
+ * slices without JPA, such as {@code @WebMvcTest}, do not try to create repositories.
+ */
+@Configuration
+@EnableJpaRepositories(basePackages = "com.example.taskmanager.repository")
+@EnableTransactionManagement
+public class PersistenceConfig {
+}
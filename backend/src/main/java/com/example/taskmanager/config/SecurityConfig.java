@@ -88,7 +88,10 @@ package com.example.taskmanager.config;
 import java.util.Arrays;
 import java.util.List;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -99,7 +102,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -109,6 +111,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.example.taskmanager.security.AuthEntryPointJwt;
 import com.example.taskmanager.security.AuthTokenFilter;
+import com.example.taskmanager.security.BulkheadPasswordEncoder;
+import com.example.taskmanager.security.CalibratedBCryptPasswordEncoder;
 import com.example.taskmanager.service.UserDetailsServiceImpl;
 
 @Configuration
@@ -122,6 +126,30 @@ public class SecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
     
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    @Value("${app.security.hashing.threads:0}")
+    private int hashingThreads;
+    
+    @Value("${app.security.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+    
+    @Value("${app.security.hashing.timeout-ms:5000}")
+    private long hashingTimeoutMs;
+    
+    @Value("${app.security.bcrypt.cost:0}")
+    private int bcryptCost;
+    
+    @Value("${app.security.bcrypt.target-ms:250}")
+    private long bcryptTargetMs;
+    
+    @Value("${app.security.bcrypt.min-cost:10}")
+    private int bcryptMinCost;
+    
+    @Value("${app.security.bcrypt.max-cost:14}")
+    private int bcryptMaxCost;
+    
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -132,6 +160,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehash on successful login whenever the stored cost differs from the calibrated one
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
     
@@ -140,9 +170,26 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
     
+    /**
+     * BCrypt on a dedicated bounded pool; defaults to half the cores so hashing
+     * bursts always leave CPU for the task endpoints. The cost is calibrated at
+     * startup against the target latency unless app.security.bcrypt.cost pins it.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = hashingThreads > 0
+                ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int cost = bcryptCost > 0
+                ? bcryptCost
+                : CalibratedBCryptPasswordEncoder.calibrate(bcryptTargetMs, bcryptMinCost, bcryptMaxCost);
+        return new BulkheadPasswordEncoder(
+            new CalibratedBCryptPasswordEncoder(cost),
+            threads,
+            hashingQueueCapacity,
+            hashingTimeoutMs,
+            meterRegistry.getIfAvailable()
+        );
     }
     
     @Bean
@@ -154,7 +201,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> 
                 auth.requestMatchers("/auth/**").permitAll()
                     .requestMatchers("/h2-console/**").permitAll()
-                    .requestMatchers("/actuator/**").permitAll()
+                    // Liveness probes only; metrics and any other endpoint need a signed-in user
+                    .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                     .anyRequest().authenticated()
             );
         
@@ -173,8 +221,10 @@ public class SecurityConfig {
             "http://localhost:3000", 
             "http://127.0.0.1:3000"
         ));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // Scripts read the ETag to send it back as If-Match or If-None-Match
+        configuration.setExposedHeaders(List.of("ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -2,25 +2,35 @@ package com.example.taskmanager.controller;
 
 import com.example.taskmanager.dto.JwtResponse;
 import com.example.taskmanager.dto.LoginRequest;
+import com.example.taskmanager.dto.RefreshTokenRequest;
 import com.example.taskmanager.dto.SignupRequest;
 import com.example.taskmanager.entity.User;
 import com.example.taskmanager.security.JwtUtils;
+import com.example.taskmanager.security.LoginRateLimiter;
+import com.example.taskmanager.security.TooManyRequestsException;
 import com.example.taskmanager.security.UserPrincipal;
+import com.example.taskmanager.security.VerifiedJwt;
+import com.example.taskmanager.service.AvailabilityService;
+import com.example.taskmanager.service.TokenRevocationService;
 import com.example.taskmanager.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/auth")
@@ -32,24 +42,36 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtUtils jwtUtils;
+    private final LoginRateLimiter loginRateLimiter;
+    private final TokenRevocationService tokenRevocationService;
+    private final AvailabilityService availabilityService;
     
     @Autowired
     public AuthController(AuthenticationManager authenticationManager, 
                          UserService userService, 
-                         JwtUtils jwtUtils) {
+                         JwtUtils jwtUtils,
+                         LoginRateLimiter loginRateLimiter,
+                         TokenRevocationService tokenRevocationService,
+                         AvailabilityService availabilityService) {
         this.authenticationManager = authenticationManager;
         this.userService = userService;
         this.jwtUtils = jwtUtils;
+        this.loginRateLimiter = loginRateLimiter;
+        this.tokenRevocationService = tokenRevocationService;
+        this.availabilityService = availabilityService;
     }
     
     /**
      * User login
      */
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
         try {
             logger.debug("Login attempt for user: {}", loginRequest.getUsernameOrEmail());
             
+            loginRateLimiter.checkAttempt(request.getRemoteAddr(), loginRequest.getUsernameOrEmail());
+            
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginRequest.getUsernameOrEmail(), 
@@ -70,6 +92,7 @@ public class AuthController {
                 null, // firstName - will be loaded from database if needed
                 null  // lastName - will be loaded from database if needed
             );
+            withRefreshToken(jwtResponse, userPrincipal.getTokenEpoch());
             
             // Load full user details for response
             User user = userService.findById(userPrincipal.getId()).orElse(null);
@@ -86,6 +109,9 @@ public class AuthController {
             logger.info("User logged in successfully: {}", userPrincipal.getUsername());
             return ResponseEntity.ok(response);
             
+        } catch (TooManyRequestsException e) {
+            // Answered with 429 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Login failed for user: {}", loginRequest.getUsernameOrEmail(), e);
             
@@ -101,17 +127,21 @@ public class AuthController {
      * User registration
      */
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signupRequest) {
+    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signupRequest,
+                                          HttpServletRequest request) {
         try {
             logger.debug("Registration attempt for username: {}", signupRequest.getUsername());
             
+            loginRateLimiter.checkAttempt(request.getRemoteAddr(), null);
+            
             User user = userService.createUser(signupRequest);
             
             // Generate JWT token for the new user
             String jwt = jwtUtils.generateTokenFromUsername(
                 user.getUsername(), 
                 user.getId(), 
-                user.getEmail()
+                user.getEmail(),
+                user.getTokenEpoch()
             );
             
             JwtResponse jwtResponse = new JwtResponse(
@@ -122,6 +152,7 @@ public class AuthController {
                 user.getFirstName(),
                 user.getLastName()
             );
+            withRefreshToken(jwtResponse, user.getTokenEpoch());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -131,6 +162,9 @@ public class AuthController {
             logger.info("User registered successfully: {}", user.getUsername());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (TooManyRequestsException e) {
+            // Answered with 429 by GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Registration failed for username: {}", signupRequest.getUsername(), e);
             
@@ -150,6 +184,44 @@ public class AuthController {
         }
     }
     
+    /**
+     * Check whether a username and/or email is free, for the signup form.
+     * Answered from memory once the availability filters are built; "taken" is
+     * occasionally a false positive, and registration remains the final word.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email,
+                                               HttpServletRequest request) {
+        if (!StringUtils.hasText(username) && !StringUtils.hasText(email)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Provide a username or an email to check");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        loginRateLimiter.checkAvailabilityLookup(request.getRemoteAddr());
+        
+        Map<String, Object> availability = new HashMap<>();
+        if (StringUtils.hasText(username)) {
+            Boolean available = availabilityService.isUsernameAvailable(username);
+            availability.put("username", username);
+            availability.put("usernameAvailable", available != null ? available : !userService.existsByUsername(username));
+        }
+        if (StringUtils.hasText(email)) {
+            Boolean available = availabilityService.isEmailAvailable(email);
+            availability.put("email", email);
+            availability.put("emailAvailable", available != null ? available : !userService.existsByEmail(email));
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", availability);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Get current user profile
      */
@@ -188,15 +260,111 @@ public class AuthController {
     }
     
     /**
-     * Logout user (client-side token removal)
+     * Exchange a refresh token for a new access and refresh token pair.
+     * The presented refresh token is revoked, so each one can be used only once.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        VerifiedJwt refreshJwt = jwtUtils.verifyJwtToken(refreshRequest.getRefreshToken())
+                .filter(VerifiedJwt::isRefreshToken)
+                .orElse(null);
+        
+        if (refreshJwt == null || refreshJwt.getTokenId() == null
+                || refreshJwt.getUserId() == null || refreshJwt.getTokenEpoch() == null) {
+            return unauthorized("Invalid refresh token");
+        }
+        
+        User user = userService.findById(refreshJwt.getUserId()).orElse(null);
+        if (user == null || user.getTokenEpoch() != refreshJwt.getTokenEpoch()) {
+            return unauthorized("Refresh token is no longer valid");
+        }
+        
+        if (!tokenRevocationService.revoke(refreshJwt.getTokenId(), user.getId(), refreshJwt.getExpirationMillis())) {
+            logger.warn("Revoked refresh token presented again for user: {}", user.getUsername());
+            return unauthorized("Refresh token is no longer valid");
+        }
+        
+        String jwt = jwtUtils.generateTokenFromUsername(
+            user.getUsername(),
+            user.getId(),
+            user.getEmail(),
+            user.getTokenEpoch()
+        );
+        
+        JwtResponse jwtResponse = new JwtResponse(
+            jwt,
+            user.getId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName()
+        );
+        withRefreshToken(jwtResponse, user.getTokenEpoch());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Token refreshed successfully");
+        response.put("data", jwtResponse);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Logout user: revoke the bearer access token and, when supplied, the refresh token
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser() {
+    public ResponseEntity<?> logoutUser(HttpServletRequest request,
+                                        @RequestBody(required = false) RefreshTokenRequest logoutRequest) {
+        String accessToken = parseBearerToken(request);
+        VerifiedJwt accessJwt = accessToken == null ? null : jwtUtils.verifyJwtToken(accessToken)
+                .filter(jwt -> !jwt.isRefreshToken())
+                .orElse(null);
+        if (accessJwt != null) {
+            tokenRevocationService.revoke(accessJwt.getTokenId(), accessJwt.getUserId(), accessJwt.getExpirationMillis());
+        }
+        
+        if (logoutRequest != null && StringUtils.hasText(logoutRequest.getRefreshToken())) {
+            jwtUtils.verifyJwtToken(logoutRequest.getRefreshToken())
+                .filter(VerifiedJwt::isRefreshToken)
+                .filter(jwt -> accessJwt == null || Objects.equals(jwt.getUserId(), accessJwt.getUserId()))
+                .ifPresent(jwt -> tokenRevocationService.revoke(jwt.getTokenId(), jwt.getUserId(), jwt.getExpirationMillis()));
+        }
+        
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("message", "Logout successful");
         
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * Attach a refresh token and the access token lifetime to a login response
+     */
+    private void withRefreshToken(JwtResponse jwtResponse, int tokenEpoch) {
+        jwtResponse.setRefreshToken(jwtUtils.generateRefreshToken(
+            jwtResponse.getUsername(),
+            jwtResponse.getId(),
+            jwtResponse.getEmail(),
+            tokenEpoch
+        ));
+        jwtResponse.setExpiresIn(jwtUtils.getJwtExpirationMs() / 1000);
+    }
+    
+    private String parseBearerToken(HttpServletRequest request) {
+        String headerAuth = request.getHeader(HttpHeaders.AUTHORIZATION);
+        
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            return headerAuth.substring(7);
+        }
+        
+        return null;
+    }
+    
+    private ResponseEntity<?> unauthorized(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+    }
 }
-
@@ -1,28 +1,69 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.TaskBulkRequest;
 import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskImportReport;
+import com.example.taskmanager.dto.TaskPatchRequest;
 import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskSuggestion;
 import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.repository.TaskCursor;
+import com.example.taskmanager.repository.TaskFilter;
+import com.example.taskmanager.repository.TaskSortField;
 import com.example.taskmanager.security.UserPrincipal;
+import com.example.taskmanager.service.TaskCsvFormat;
+import com.example.taskmanager.service.TaskImportService;
 import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.service.TaskSuggestionService;
+import com.example.taskmanager.service.TaskVersionService;
+import com.example.taskmanager.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/tasks")
@@ -31,11 +72,35 @@ public class TaskController {
     
     private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
     
+    /**
+     * Read responses may be kept by the browser but must be revalidated on every use
+     */
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+    
+    private static final int STREAM_BUFFER_SIZE = 16 * 1024;
+    
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    
     private final TaskService taskService;
+    private final TaskSuggestionService taskSuggestionService;
+    private final TaskVersionService taskVersionService;
+    private final TaskImportService taskImportService;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final long maxImportBytes;
     
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskSuggestionService taskSuggestionService,
+                          TaskVersionService taskVersionService, TaskImportService taskImportService,
+                          ObjectMapper objectMapper, @Value("${app.tasks.max-page-size:100}") int maxPageSize,
+                          @Value("${app.tasks.import.max-bytes:67108864}") long maxImportBytes) {
         this.taskService = taskService;
+        this.taskSuggestionService = taskSuggestionService;
+        this.taskVersionService = taskVersionService;
+        this.taskImportService = taskImportService;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.maxImportBytes = maxImportBytes;
     }
     
     /**
@@ -44,8 +109,10 @@ public class TaskController {
     @PostMapping
     public ResponseEntity<?> createTask(@Valid @RequestBody TaskCreateRequest request) {
         try {
-            Long userId = getCurrentUserId();
-            TaskResponse task = taskService.createTask(request, userId);
+            UserPrincipal user = getCurrentUser();
+            TaskResponse task = taskService.createTask(request, user.getId());
+            // The service attaches the owner by reference; the principal already knows its name
+            task.setUserUsername(user.getUsername());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -61,7 +128,12 @@ public class TaskController {
     }
     
     /**
-     * Get all tasks for the current user
+     * Get the current user's tasks, optionally filtered by any combination of
+     * status, priority, due-date range and keyword.
+     *
+     * Listings are seek-paginated: every page returns a {@code nextCursor} to pass
+     * back for the following one. A numbered page without a cursor falls back to
+     * offset pagination.
      */
     @GetMapping
     public ResponseEntity<?> getAllTasks(
@@ -71,39 +143,47 @@ public class TaskController {
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) TaskStatus status,
             @RequestParam(required = false) TaskPriority priority,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            ServletWebRequest webRequest) {
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        TaskSortField sortField;
+        TaskCursor after = null;
+        try {
+            sortField = TaskSortField.fromProperty(sortBy);
+            if (cursor != null && !cursor.isBlank()) {
+                after = TaskCursor.decode(cursor, sortField, descending);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        TaskFilter filter = new TaskFilter(status, priority, dueDateFrom, dueDateTo, search);
+        
         try {
             Long userId = getCurrentUserId();
-            
-            // Create sort object
-            Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-                    Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-            Pageable pageable = PageRequest.of(page, size, sort);
-            
-            List<TaskResponse> tasks;
-            
-            if (search != null && !search.trim().isEmpty()) {
-                tasks = taskService.searchTasks(search.trim(), userId);
-            } else if (status != null) {
-                tasks = taskService.getTasksByStatus(status, userId);
-            } else if (priority != null) {
-                tasks = taskService.getTasksByPriority(priority, userId);
-            } else {
-                Page<TaskResponse> taskPage = taskService.getTasksByUserWithPagination(userId, pageable);
-                
-                Map<String, Object> response = new HashMap<>();
-                response.put("success", true);
-                response.put("data", taskPage.getContent());
-                response.put("currentPage", taskPage.getNumber());
-                response.put("totalItems", taskPage.getTotalElements());
-                response.put("totalPages", taskPage.getTotalPages());
-                
-                return ResponseEntity.ok(response);
+            if (isNotModified(webRequest, userId)) {
+                return null;
             }
+            CursorPage<TaskResponse> taskPage = taskService.findTasks(
+                    userId, filter, sortField, descending, after, Math.max(page, 0), pageSize, includeTotal);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", tasks);
+            response.put("data", taskPage.getContent());
+            response.put("nextCursor", taskPage.getNextCursor());
+            response.put("hasNext", taskPage.hasNext());
+            if (taskPage.getTotalElements() != null) {
+                long totalItems = taskPage.getTotalElements();
+                response.put("totalItems", totalItems);
+                response.put("totalPages", (totalItems + pageSize - 1) / pageSize);
+            }
+            if (after == null) {
+                response.put("currentPage", Math.max(page, 0));
+            }
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -114,19 +194,248 @@ public class TaskController {
     }
     
     /**
-     * Get task by ID
+     * Get every task of the current user matching the filters in a single response.
+     *
+     * Rows are written to the response page by page as they are read, so memory
+     * stays flat however many tasks the user has and the first bytes leave before
+     * the last page is read. Written on the request thread, which keeps the security
+     * context and needs no async dispatch.
+     */
+    @GetMapping("/stream")
+    public void streamTasks(
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(required = false) String search,
+            ServletWebRequest webRequest) throws IOException {
+        HttpServletResponse response = webRequest.getResponse();
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        TaskSortField sortField;
+        try {
+            sortField = TaskSortField.fromProperty(sortBy);
+        } catch (IllegalArgumentException e) {
+            writeJson(response, HttpStatus.BAD_REQUEST, createErrorResponse(e.getMessage()));
+            return;
+        }
+        TaskFilter filter = new TaskFilter(status, priority, dueDateFrom, dueDateTo, search);
+        
+        Long userId = getCurrentUserId();
+        if (isNotModified(webRequest, userId)) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        writeStreamed(response, "stream tasks", out -> {
+            JsonGenerator json = objectMapper.createGenerator(out);
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeArrayFieldStart("data");
+            long count = taskService.streamTasks(userId, filter, sortField, descending, unchecked(json::writeObject));
+            json.writeEndArray();
+            json.writeNumberField("totalItems", count);
+            json.writeEndObject();
+            json.close();
+        });
+    }
+    
+    /**
+     * Export every task of the current user matching the filters, as NDJSON (one task
+     * object per line) or CSV, gzip-compressed when the client accepts it.
+     *
+     * Reads the same seek pages as {@link #streamTasks}, so an account of any size
+     * exports in one request, in constant memory and without offset scans.
+     */
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(required = false) String search,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            ServletWebRequest webRequest) throws IOException {
+        HttpServletResponse response = webRequest.getResponse();
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            writeJson(response, HttpStatus.BAD_REQUEST, createErrorResponse("Unsupported export format: " + format));
+            return;
+        }
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        TaskSortField sortField;
+        try {
+            sortField = TaskSortField.fromProperty(sortBy);
+        } catch (IllegalArgumentException e) {
+            writeJson(response, HttpStatus.BAD_REQUEST, createErrorResponse(e.getMessage()));
+            return;
+        }
+        TaskFilter filter = new TaskFilter(status, priority, dueDateFrom, dueDateTo, search);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        
+        Long userId = getCurrentUserId();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (isNotModified(webRequest, userId)) {
+            return;
+        }
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(csv ? "tasks.csv" : "tasks.ndjson").build().toString());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        writeStreamed(response, "export tasks", out -> {
+            OutputStream body = gzip ? new GZIPOutputStream(out, STREAM_BUFFER_SIZE) : out;
+            long count = csv
+                    ? exportCsv(body, userId, filter, sortField, descending)
+                    : exportNdjson(body, userId, filter, sortField, descending);
+            body.close();
+            logger.info("Exported {} tasks as {} for user ID: {}", count, csv ? "CSV" : "NDJSON", userId);
+        });
+    }
+    
+    /**
+     * Import tasks from an NDJSON or CSV body, in the formats GET /tasks/export writes.
+     *
+     * Every row is validated like a POST /tasks body. Valid rows are saved in batches
+     * even when others are rejected, and the response lists the rejected rows by line.
+     * The import stops once the body, after decompression, exceeds {@code maxImportBytes}.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            HttpServletRequest request) {
+        TaskImportService.Format importFormat;
+        try {
+            importFormat = TaskImportService.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
+        
+        try {
+            Long userId = getCurrentUserId();
+            InputStream body = "gzip".equalsIgnoreCase(contentEncoding)
+                    ? new GZIPInputStream(request.getInputStream(), STREAM_BUFFER_SIZE)
+                    : request.getInputStream();
+            TaskImportReport report = taskImportService.importTasks(userId, importFormat, new BufferedReader(
+                    new InputStreamReader(new LimitedInputStream(body, maxImportBytes), StandardCharsets.UTF_8),
+                    STREAM_BUFFER_SIZE));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", report.getAbortedReason() == null);
+            response.put("message", "Imported " + report.getImported() + " tasks, rejected " + report.getFailed());
+            response.put("data", report);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error importing tasks: ", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse("Failed to import tasks: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Search the current user's tasks, ranked by relevance with matches highlighted
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            ServletWebRequest webRequest) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(createErrorResponse("Search query must not be empty"));
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        
+        try {
+            Long userId = getCurrentUserId();
+            if (isNotModified(webRequest, userId)) {
+                return null;
+            }
+            Slice<TaskSearchHit> hits = taskService.searchTasksRanked(
+                    q.trim(), userId, PageRequest.of(Math.max(page, 0), pageSize));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", hits.getContent());
+            response.put("currentPage", hits.getNumber());
+            response.put("hasNext", hits.hasNext());
+            if (includeTotal) {
+                long totalItems = taskService.countSearchMatches(q.trim(), userId);
+                response.put("totalItems", totalItems);
+                response.put("totalPages", (totalItems + pageSize - 1) / pageSize);
+            }
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error searching tasks: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Failed to search tasks: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Suggest the current user's tasks whose title words start with the typed text.
+     * Served from memory without a transaction, so it is cheap enough to call per keystroke.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestTasks(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit,
+            ServletWebRequest webRequest) {
+        try {
+            Long userId = getCurrentUserId();
+            if (isNotModified(webRequest, userId)) {
+                return null;
+            }
+            List<TaskSuggestion> suggestions = q.isBlank()
+                    ? List.of()
+                    : taskSuggestionService.suggest(userId, q, Math.max(1, Math.min(limit, 20)));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", suggestions);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error suggesting tasks: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Failed to suggest tasks: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get task by ID, tagged with the task's own version so that the ETag can be sent
+     * back as If-Match, followed by the version of the user's tasks. While the latter is
+     * unchanged so is the task, and If-None-Match is answered before querying it.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<?> getTaskById(@PathVariable Long id, ServletWebRequest webRequest) {
         try {
             Long userId = getCurrentUserId();
+            String stamp = taskVersionService.stamp(userId);
+            if (webRequest.getResponse() != null) {
+                webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+            }
+            String cached = cachedTaskEtag(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), stamp);
+            if (cached != null && webRequest.checkNotModified(cached)) {
+                return null;
+            }
             TaskResponse task = taskService.getTaskById(id, userId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("data", task);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(taskEtag(task, stamp)).body(response);
         } catch (Exception e) {
             logger.error("Error fetching task with ID {}: ", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -135,20 +444,32 @@ public class TaskController {
     }
     
     /**
-     * Update task
+     * Update task, replacing every field. With If-Match the update applies only while the
+     * task is still at that version.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateTask(@PathVariable Long id, @Valid @RequestBody TaskCreateRequest request) {
+    public ResponseEntity<?> updateTask(@PathVariable Long id, @Valid @RequestBody TaskCreateRequest request,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
         try {
-            Long userId = getCurrentUserId();
-            TaskResponse task = taskService.updateTask(id, request, userId);
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
+        
+        try {
+            UserPrincipal user = getCurrentUser();
+            TaskResponse task = taskService.updateTask(id, request, expectedVersion, user.getId());
+            task.setUserUsername(user.getUsername());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Task updated successfully");
             response.put("data", task);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(taskEtag(task)).body(response);
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(id, expectedVersion);
         } catch (Exception e) {
             logger.error("Error updating task with ID {}: ", id, e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -156,6 +477,43 @@ public class TaskController {
         }
     }
     
+    /**
+     * Change only the fields present in a JSON Merge Patch (RFC 7396); null removes the
+     * description or due date. With If-Match the patch applies only while the task is
+     * still at that version.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchTask(@PathVariable Long id, @Valid @RequestBody TaskPatchRequest request,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
+        
+        try {
+            UserPrincipal user = getCurrentUser();
+            TaskResponse task = taskService.patchTask(id, request, expectedVersion, user.getId());
+            task.setUserUsername(user.getUsername());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Task updated successfully");
+            response.put("data", task);
+            
+            return ResponseEntity.ok().eTag(taskEtag(task)).body(response);
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(id, expectedVersion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error patching task with ID {}: ", id, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse("Failed to update task: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Delete task
      */
@@ -178,17 +536,77 @@ public class TaskController {
     }
     
     /**
-     * Get overdue tasks
+     * Set the status, priority or due date of many tasks at once, selected by id or by
+     * the listing filters, e.g. "mark all as complete"
+     */
+    @PatchMapping("/bulk")
+    public ResponseEntity<?> updateTasks(@Valid @RequestBody TaskBulkRequest request) {
+        try {
+            Long userId = getCurrentUserId();
+            int updated = taskService.updateTasks(request, userId);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Updated " + updated + " tasks");
+            response.put("data", Map.of("updated", updated));
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error bulk updating tasks: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Failed to update tasks: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Delete many tasks at once, selected by id or by the listing filters, e.g. "clear completed"
+     */
+    @DeleteMapping("/bulk")
+    public ResponseEntity<?> deleteTasks(@Valid @RequestBody TaskBulkRequest request) {
+        try {
+            Long userId = getCurrentUserId();
+            int deleted = taskService.deleteTasks(request, userId);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Deleted " + deleted + " tasks");
+            response.put("data", Map.of("deleted", deleted));
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error bulk deleting tasks: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Failed to delete tasks: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get overdue tasks, most overdue first, one page at a time
      */
     @GetMapping("/overdue")
-    public ResponseEntity<?> getOverdueTasks() {
+    public ResponseEntity<?> getOverdueTasks(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            ServletWebRequest webRequest) {
         try {
             Long userId = getCurrentUserId();
-            List<TaskResponse> tasks = taskService.getOverdueTasks(userId);
+            if (isNotModified(webRequest, userId)) {
+                return null;
+            }
+            Page<TaskResponse> tasks = taskService.getOverdueTasks(
+                    userId, PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, maxPageSize))));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", tasks);
+            response.put("data", tasks.getContent());
+            response.put("currentPage", tasks.getNumber());
+            response.put("totalItems", tasks.getTotalElements());
+            response.put("totalPages", tasks.getTotalPages());
+            response.put("hasNext", tasks.hasNext());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -202,9 +620,12 @@ public class TaskController {
      * Get task statistics
      */
     @GetMapping("/statistics")
-    public ResponseEntity<?> getTaskStatistics() {
+    public ResponseEntity<?> getTaskStatistics(ServletWebRequest webRequest) {
         try {
             Long userId = getCurrentUserId();
+            if (isNotModified(webRequest, userId)) {
+                return null;
+            }
             TaskService.TaskStatistics statistics = taskService.getTaskStatistics(userId);
             
             Map<String, Object> response = new HashMap<>();
@@ -223,13 +644,174 @@ public class TaskController {
      * Get current user ID from security context
      */
     private Long getCurrentUserId() {
+        return getCurrentUser().getId();
+    }
+    
+    /**
+     * Get the authenticated user from security context
+     */
+    private UserPrincipal getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new RuntimeException("User not authenticated");
         }
         
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        return userPrincipal.getId();
+        return (UserPrincipal) authentication.getPrincipal();
+    }
+    
+    /**
+     * The task version an If-Match header names: {@code "<version>"} as the ETag of a
+     * single-task response or the task's {@code version} field gives it. None, or {@code *}, means any version.
+     *
+     * @throws IllegalArgumentException when the header is not a single such tag
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        try {
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                String version = tag.substring(1, tag.length() - 1);
+                int stamp = version.indexOf('.');
+                return Long.valueOf(stamp < 0 ? version : version.substring(0, stamp));
+            }
+        } catch (NumberFormatException e) {
+            // Falls through to the rejection below
+        }
+        throw new IllegalArgumentException("If-Match must be a task version such as \"3\"");
+    }
+    
+    /**
+     * The strong ETag of a single task, {@code "<version>"}, which If-Match accepts
+     */
+    private static String taskEtag(TaskResponse task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+    
+    /**
+     * The strong ETag GET /tasks/{id} returns, {@code "<version>.<stamp>"}; If-Match reads
+     * the version before the dot
+     */
+    private static String taskEtag(TaskResponse task, String stamp) {
+        return "\"" + task.getVersion() + "." + stamp + "\"";
+    }
+    
+    /**
+     * The If-None-Match tag of GET /tasks/{id} that ends with the user's current stamp,
+     * or null when there is none and the task has to be read
+     */
+    private static String cachedTaskEtag(String ifNoneMatch, String stamp) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.startsWith("\"") && value.endsWith("." + stamp + "\"") && value.indexOf('.') > 1) {
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * A write lost to another: 412 when the client stated the version it expected,
+     * otherwise 409 for a write that raced another between read and update
+     */
+    private ResponseEntity<?> versionConflict(Long id, Long expectedVersion) {
+        logger.debug("Version conflict on task ID {}, expected version {}", id, expectedVersion);
+        if (expectedVersion != null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(createErrorResponse("Task has been modified since version " + expectedVersion));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(createErrorResponse("Task was modified concurrently; reload it and try again"));
+    }
+    
+    /**
+     * Tag the response with the user's task version and check it against If-None-Match.
+     * When it matches, the 304 has already been written and the handler returns null.
+     */
+    private boolean isNotModified(ServletWebRequest webRequest, Long userId) {
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        }
+        return webRequest.checkNotModified(taskVersionService.etag(userId));
+    }
+    
+    /**
+     * Write one task object per line
+     */
+    private long exportNdjson(OutputStream out, Long userId, TaskFilter filter, TaskSortField sortField,
+                              boolean descending) throws IOException {
+        JsonGenerator json = objectMapper.createGenerator(out);
+        // Lines are ended explicitly below rather than separated by Jackson's default space
+        json.setRootValueSeparator(null);
+        long count = taskService.streamTasks(userId, filter, sortField, descending, unchecked(task -> {
+            json.writeObject(task);
+            json.writeRaw('\n');
+        }));
+        json.flush();
+        return count;
+    }
+    
+    /**
+     * Write a header row and one row per task, in the layout of {@link TaskCsvFormat}
+     */
+    private long exportCsv(OutputStream out, Long userId, TaskFilter filter, TaskSortField sortField,
+                           boolean descending) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+        CsvWriter csv = new CsvWriter(writer);
+        TaskCsvFormat.writeHeader(csv);
+        long count = taskService.streamTasks(userId, filter, sortField, descending,
+                unchecked(task -> TaskCsvFormat.writeTask(csv, task)));
+        writer.flush();
+        return count;
+    }
+    
+    /**
+     * Run a handler that writes its own body. A failure before anything has been sent
+     * becomes an ordinary error response; after that the status cannot change, so the
+     * body is left truncated for the client to reject instead of being completed.
+     */
+    private void writeStreamed(HttpServletResponse response, String action, BodyWriter body) throws IOException {
+        try {
+            body.write(response.getOutputStream());
+        } catch (Exception e) {
+            logger.error("Failed to {}: ", action, e);
+            if (!response.isCommitted()) {
+                response.reset();
+                writeJson(response, HttpStatus.INTERNAL_SERVER_ERROR,
+                        createErrorResponse("Failed to " + action + ": " + e.getMessage()));
+            }
+        }
+    }
+    
+    /**
+     * Adapt a writing sink to the plain consumer the service streams into
+     */
+    private static Consumer<TaskResponse> unchecked(TaskSink sink) {
+        return task -> {
+            try {
+                sink.accept(task);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+    
+    /**
+     * Write a complete JSON body for handlers that own the response
+     */
+    private void writeJson(HttpServletResponse response, HttpStatus status, Map<String, Object> body)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
     }
     
     /**
@@ -241,5 +823,54 @@ public class TaskController {
         response.put("message", message);
         return response;
     }
+    
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(OutputStream out) throws IOException;
+    }
+    
+    @FunctionalInterface
+    private interface TaskSink {
+        void accept(TaskResponse task) throws IOException;
+    }
+    
+    /**
+     * Fails reads past a number of bytes, so a small compressed body cannot expand without bound
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long remaining;
+        
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+            this.remaining = limit;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            // Read one byte past the limit, to tell a body of exactly the limit from a longer one
+            int count = super.read(buffer, offset, (int) Math.min(length, remaining + 1));
+            if (count > 0) {
+                remaining -= count;
+                if (remaining < 0) {
+                    throw new IOException("Import body exceeds " + limit + " bytes");
+                }
+            }
+            return count;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+    }
 }
-
@@ -0,0 +1,36 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * One page of a seek-paginated listing. The total is only present when the
+ * caller asked for it, since counting costs a second query.
+ */
+public class CursorPage<T> {
+    
+    private final List<T> content;
+    private final String nextCursor;
+    private final Long totalElements;
+    
+    public CursorPage(List<T> content, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+    
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
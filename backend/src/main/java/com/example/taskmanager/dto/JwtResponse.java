@@ -3,7 +3,9 @@ package com.example.taskmanager.dto;
 public class JwtResponse {
     
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
+    private Long expiresIn;
     private Long id;
     private String username;
     private String email;
@@ -32,6 +34,25 @@ public class JwtResponse {
         this.token = token;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    /**
+     * Access token lifetime in seconds
+     */
+    public Long getExpiresIn() {
+        return expiresIn;
+    }
+    
+    public void setExpiresIn(Long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+    
     public String getType() {
         return type;
     }
@@ -0,0 +1,140 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Body of PATCH and DELETE /tasks/bulk.
+ *
+ * The tasks affected are the current user's tasks among {@code ids} and matching
+ * {@code filter}; at least one of the two must be given, and an empty filter
+ * selects every task. PATCH sets the status, priority and due date that are
+ * present; an explicit {@code "dueDate": null} clears the due date.
+ */
+public class TaskBulkRequest {
+
+    @Size(max = 1000, message = "At most 1000 ids may be given")
+    private List<Long> ids;
+
+    private Filter filter;
+
+    private TaskStatus status;
+
+    private TaskPriority priority;
+
+    private LocalDate dueDate;
+
+    private boolean dueDatePresent;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(Filter filter) {
+        this.filter = filter;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * Jackson calls this for an explicit null as well, which is what tells clearing
+     * the due date apart from leaving it alone
+     */
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+        this.dueDatePresent = true;
+    }
+
+    public boolean isDueDatePresent() {
+        return dueDatePresent;
+    }
+
+    /**
+     * Whether the body sets anything; a bulk PATCH without changes is rejected
+     */
+    public boolean hasChanges() {
+        return status != null || priority != null || dueDatePresent;
+    }
+
+    /**
+     * The listing filters of GET /tasks, under the same names
+     */
+    public static class Filter {
+
+        private TaskStatus status;
+        private TaskPriority priority;
+        private LocalDate dueDateFrom;
+        private LocalDate dueDateTo;
+        private String search;
+
+        public TaskStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(TaskStatus status) {
+            this.status = status;
+        }
+
+        public TaskPriority getPriority() {
+            return priority;
+        }
+
+        public void setPriority(TaskPriority priority) {
+            this.priority = priority;
+        }
+
+        public LocalDate getDueDateFrom() {
+            return dueDateFrom;
+        }
+
+        public void setDueDateFrom(LocalDate dueDateFrom) {
+            this.dueDateFrom = dueDateFrom;
+        }
+
+        public LocalDate getDueDateTo() {
+            return dueDateTo;
+        }
+
+        public void setDueDateTo(LocalDate dueDateTo) {
+            this.dueDateTo = dueDateTo;
+        }
+
+        public String getSearch() {
+            return search;
+        }
+
+        public void setSearch(String search) {
+            this.search = search;
+        }
+    }
+}
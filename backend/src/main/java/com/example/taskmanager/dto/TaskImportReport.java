@@ -0,0 +1,82 @@
+package com.example.taskmanager.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk import. Rows are accepted or rejected one by one, so a report
+ * can carry both; only the first {@code maxErrors} rejections are detailed.
+ */
+public class TaskImportReport {
+
+    private final int maxErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long imported;
+    private long failed;
+    private String abortedReason;
+
+    public TaskImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addError(int line, Map<String, String> fieldErrors) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, fieldErrors));
+        }
+    }
+
+    public void abort(String reason) {
+        this.abortedReason = reason;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    /**
+     * Why reading the input stopped early, or null when it was read to the end
+     */
+    public String getAbortedReason() {
+        return abortedReason;
+    }
+
+    /**
+     * A rejected row: the input line it starts on and the messages by field
+     */
+    public static class RowError {
+
+        private final int line;
+        private final Map<String, String> errors;
+
+        public RowError(int line, Map<String, String> errors) {
+            this.line = line;
+            this.errors = errors;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public Map<String, String> getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * Body of PATCH /tasks/{id}, a JSON Merge Patch (RFC 7396) of the task.
+ *
+ * Only the members present are applied. Jackson calls a setter for an explicit
+ * null as well, which is how clearing the description or due date is told apart
+ * from leaving it alone; title, status and priority cannot be cleared.
+ */
+public class TaskPatchRequest {
+
+    @Size(max = 255, message = "Title must not exceed 255 characters")
+    private String title;
+
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    private String description;
+
+    private TaskStatus status;
+
+    private TaskPriority priority;
+
+    private LocalDate dueDate;
+
+    private boolean titlePresent;
+    private boolean descriptionPresent;
+    private boolean statusPresent;
+    private boolean priorityPresent;
+    private boolean dueDatePresent;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.titlePresent = true;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionPresent = true;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+        this.statusPresent = true;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+        this.priorityPresent = true;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+        this.dueDatePresent = true;
+    }
+
+    public boolean isTitlePresent() {
+        return titlePresent;
+    }
+
+    public boolean isDescriptionPresent() {
+        return descriptionPresent;
+    }
+
+    public boolean isStatusPresent() {
+        return statusPresent;
+    }
+
+    public boolean isPriorityPresent() {
+        return priorityPresent;
+    }
+
+    public boolean isDueDatePresent() {
+        return dueDatePresent;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.taskmanager.dto;
 import com.example.taskmanager.entity.Task;
 import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
+import org.hibernate.Hibernate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,6 +20,7 @@ public class TaskResponse {
     private String userUsername;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
     
     // Default constructor
     public TaskResponse() {}
@@ -32,9 +34,28 @@ public class TaskResponse {
         this.priority = task.getPriority();
         this.dueDate = task.getDueDate();
         this.userId = task.getUser().getId();
-        this.userUsername = task.getUser().getUsername();
+        // Writes attach the owner by reference only; reading its username would load it
+        this.userUsername = Hibernate.isInitialized(task.getUser()) ? task.getUser().getUsername() : null;
         this.createdAt = task.getCreatedAt();
         this.updatedAt = task.getUpdatedAt();
+        this.version = task.getVersion();
+    }
+    
+    // Constructor for JPQL projections, avoiding entity and owner hydration
+    public TaskResponse(Long id, String title, String description, TaskStatus status, TaskPriority priority,
+                        LocalDate dueDate, Long userId, String userUsername,
+                        LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.userId = userId;
+        this.userUsername = userUsername;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
     }
     
     // Getters and Setters
@@ -117,5 +138,16 @@ public class TaskResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    /**
+     * Optimistic lock version; send it back as {@code If-Match: "<version>"} to update
+     * only if nobody else has since
+     */
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
-
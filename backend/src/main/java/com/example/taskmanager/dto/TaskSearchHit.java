@@ -0,0 +1,36 @@
+package com.example.taskmanager.dto;
+
+/**
+ * A task matched by full-text search, with its relevance and highlighted text.
+ * Highlights are HTML-escaped apart from the {@code <mark>} tags around matches.
+ */
+public class TaskSearchHit {
+    
+    private final TaskResponse task;
+    private final double rank;
+    private final String titleHighlight;
+    private final String descriptionHighlight;
+    
+    public TaskSearchHit(TaskResponse task, double rank, String titleHighlight, String descriptionHighlight) {
+        this.task = task;
+        this.rank = rank;
+        this.titleHighlight = titleHighlight;
+        this.descriptionHighlight = descriptionHighlight;
+    }
+    
+    public TaskResponse getTask() {
+        return task;
+    }
+    
+    public double getRank() {
+        return rank;
+    }
+    
+    public String getTitleHighlight() {
+        return titleHighlight;
+    }
+    
+    public String getDescriptionHighlight() {
+        return descriptionHighlight;
+    }
+}
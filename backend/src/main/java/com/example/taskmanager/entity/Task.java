@@ -5,17 +5,32 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    // One per whitelisted sort key, see TaskSortField
+    @Index(name = "idx_tasks_user_created_at", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_tasks_user_updated_at", columnList = "user_id, updated_at, id"),
+    @Index(name = "idx_tasks_user_title", columnList = "user_id, title, id"),
+    // Filters, see db/migration/V2__composite_task_indexes.sql
+    @Index(name = "idx_tasks_user_status_priority", columnList = "user_id, status, priority, due_date"),
+    @Index(name = "idx_tasks_user_priority", columnList = "user_id, priority, id"),
+    @Index(name = "idx_tasks_user_due_date", columnList = "user_id, due_date, id")
+})
+// Updates name only the columns that changed, so a PATCH of the status does not rewrite the description
+@DynamicUpdate
 public class Task {
     
+    // Ids come from the column's own sequence, which steps by 50 since V3: one nextval
+    // reserves a block, so inserts wait for flush and go out as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -51,6 +66,11 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Checked and bumped by every update; see V4__task_version.sql
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Default constructor
     public Task() {}
     
@@ -133,6 +153,14 @@ public class Task {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return "Task{" +
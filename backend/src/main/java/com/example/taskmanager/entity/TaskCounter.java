@@ -0,0 +1,106 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Running count of one user's tasks in one status and priority, kept in step with
+ * task writes so statistics never have to scan the tasks table
+ */
+@Entity
+@Table(name = "task_counters")
+public class TaskCounter {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+    
+    // Tasks in this cell with a due date; for open statuses these are the ones that can become overdue
+    @Column(name = "dated_count", nullable = false)
+    private long datedCount;
+    
+    // Default constructor
+    public TaskCounter() {}
+    
+    // Constructor
+    public TaskCounter(Long userId, TaskStatus status, TaskPriority priority, long taskCount, long datedCount) {
+        this.id = new Key(userId, status, priority);
+        this.taskCount = taskCount;
+        this.datedCount = datedCount;
+    }
+    
+    // Getters and Setters
+    public Key getId() {
+        return id;
+    }
+    
+    public long getTaskCount() {
+        return taskCount;
+    }
+    
+    public void setTaskCount(long taskCount) {
+        this.taskCount = taskCount;
+    }
+    
+    public long getDatedCount() {
+        return datedCount;
+    }
+    
+    public void setDatedCount(long datedCount) {
+        this.datedCount = datedCount;
+    }
+    
+    /**
+     * Primary key; user_id leads so one index range returns a user's whole summary
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+        
+        @Column(name = "user_id")
+        private Long userId;
+        
+        @Enumerated(EnumType.STRING)
+        @Column(name = "status", length = 20)
+        private TaskStatus status;
+        
+        @Enumerated(EnumType.STRING)
+        @Column(name = "priority", length = 10)
+        private TaskPriority priority;
+        
+        public Key() {}
+        
+        public Key(Long userId, TaskStatus status, TaskPriority priority) {
+            this.userId = userId;
+            this.status = status;
+            this.priority = priority;
+        }
+        
+        public Long getUserId() {
+            return userId;
+        }
+        
+        public TaskStatus getStatus() {
+            return status;
+        }
+        
+        public TaskPriority getPriority() {
+            return priority;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && status == key.status && priority == key.priority;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, status, priority);
+        }
+    }
+}
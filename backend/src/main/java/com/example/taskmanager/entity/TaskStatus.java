@@ -16,6 +16,13 @@ public enum TaskStatus {
         return displayName;
     }
     
+    /**
+     * Whether a task in this status still needs work, and so can be overdue
+     */
+    public boolean isOpen() {
+        return this == PENDING || this == IN_PROGRESS;
+    }
+    
     @Override
     public String toString() {
         return displayName;
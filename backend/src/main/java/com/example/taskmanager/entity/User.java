@@ -10,25 +10,41 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.UK_USERNAME_NORMALIZED, columnNames = "username_normalized"),
+    @UniqueConstraint(name = User.UK_EMAIL_NORMALIZED, columnNames = "email_normalized")
+})
 public class User {
     
+    public static final String UK_USERNAME_NORMALIZED = "uk_users_username_normalized";
+    public static final String UK_EMAIL_NORMALIZED = "uk_users_email_normalized";
+    
+    // Pooled like Task.id; see V3__pooled_id_sequences.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
     
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     
+    // Lowercased copies that carry the uniqueness constraints and serve every login lookup
+    @Column(name = "username_normalized", nullable = false, length = 50)
+    private String usernameNormalized;
+    
+    @Column(name = "email_normalized", nullable = false, length = 100)
+    private String emailNormalized;
+    
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     @Column(nullable = false)
@@ -42,6 +58,14 @@ public class User {
     @Column(name = "last_name")
     private String lastName;
     
+    @Column(name = "token_epoch", nullable = false, columnDefinition = "integer default 0")
+    private int tokenEpoch = 0;
+    
+    // Moved only by TaskVersionService in the transaction of each task write, never through the entity
+    @Column(name = "tasks_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private long tasksVersion;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Task> tasks = new ArrayList<>();
     
@@ -78,6 +102,7 @@ public class User {
     
     public void setUsername(String username) {
         this.username = username;
+        this.usernameNormalized = normalize(username);
     }
     
     public String getEmail() {
@@ -86,6 +111,29 @@ public class User {
     
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = normalize(email);
+    }
+    
+    public String getUsernameNormalized() {
+        return usernameNormalized;
+    }
+    
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
+    
+    /**
+     * Canonical form of a username or email for lookups and uniqueness
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    @PrePersist
+    @PreUpdate
+    private void normalizeIdentifiers() {
+        usernameNormalized = normalize(username);
+        emailNormalized = normalize(email);
     }
     
     public String getPassword() {
@@ -112,6 +160,18 @@ public class User {
         this.lastName = lastName;
     }
     
+    public int getTokenEpoch() {
+        return tokenEpoch;
+    }
+    
+    public void setTokenEpoch(int tokenEpoch) {
+        this.tokenEpoch = tokenEpoch;
+    }
+    
+    public long getTasksVersion() {
+        return tasksVersion;
+    }
+    
     public List<Task> getTasks() {
         return tasks;
     }
@@ -0,0 +1,47 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    
+    /**
+     * Find revocations that are still in force
+     */
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+    
+    /**
+     * Record a revocation with a plain insert, never a merge, so a token revoked before,
+     * here or on another instance, fails on the primary key. Runs in its own transaction
+     * so that failure cannot abort the caller's.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO revoked_tokens (token_id, user_id, expires_at, revoked_at) " +
+                   "VALUES (:tokenId, :userId, :expiresAt, :revokedAt)", nativeQuery = true)
+    int insert(@Param("tokenId") String tokenId, @Param("userId") Long userId,
+               @Param("expiresAt") Instant expiresAt, @Param("revokedAt") Instant revokedAt);
+    
+    /**
+     * Find live revocations recorded since the given instant, including those from other instances
+     */
+    @Query("SELECT r FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<RevokedToken> findRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+    
+    /**
+     * Delete revocations for tokens that have expired on their own
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
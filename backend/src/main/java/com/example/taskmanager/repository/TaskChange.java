@@ -0,0 +1,58 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Values a bulk update sets on every task it selects; null status and priority,
+ * and a due date that is not set, are left as they are
+ */
+public final class TaskChange {
+
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final boolean setsDueDate;
+    private final LocalDate dueDate;
+
+    /**
+     * @param setsDueDate whether the due date is changed, to {@code dueDate} or cleared when that is null
+     */
+    public TaskChange(TaskStatus status, TaskPriority priority, boolean setsDueDate, LocalDate dueDate) {
+        this.status = status;
+        this.priority = priority;
+        this.setsDueDate = setsDueDate;
+        this.dueDate = setsDueDate ? dueDate : null;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public boolean setsDueDate() {
+        return setsDueDate;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public boolean isEmpty() {
+        return status == null && priority == null && !setsDueDate;
+    }
+
+    /**
+     * Bit set of the values changed, identifying the statement shape they produce
+     */
+    int shape() {
+        return (status != null ? 1 : 0)
+                | (priority != null ? 2 : 0)
+                | (setsDueDate ? 4 : 0)
+                | (setsDueDate && dueDate == null ? 8 : 0);
+    }
+}
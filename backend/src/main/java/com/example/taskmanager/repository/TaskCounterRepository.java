@@ -0,0 +1,44 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskCounter;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskCounterRepository extends JpaRepository<TaskCounter, TaskCounter.Key>, TaskCounterRepositoryCustom {
+    
+    /**
+     * Find a user's counters, one index range on the primary key
+     */
+    @Query("SELECT c FROM TaskCounter c WHERE c.id.userId = :userId")
+    List<TaskCounter> findByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Find and lock a user's counters so concurrent task writes wait for a reconciliation
+     */
+    @Query(value = "SELECT * FROM task_counters WHERE user_id = :userId FOR UPDATE", nativeQuery = true)
+    List<TaskCounter> lockByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Add to one counter in place; returns 0 when the user has no counters yet
+     */
+    @Modifying
+    @Query("UPDATE TaskCounter c SET c.taskCount = c.taskCount + :tasks, c.datedCount = c.datedCount + :dated " +
+           "WHERE c.id.userId = :userId AND c.id.status = :status AND c.id.priority = :priority")
+    int adjust(@Param("userId") Long userId, @Param("status") TaskStatus status, @Param("priority") TaskPriority priority,
+               @Param("tasks") long tasks, @Param("dated") long dated);
+    
+    /**
+     * Find the ids of users with counters after the given one, in id order
+     */
+    @Query("SELECT DISTINCT c.id.userId FROM TaskCounter c WHERE c.id.userId > :afterUserId ORDER BY c.id.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+}
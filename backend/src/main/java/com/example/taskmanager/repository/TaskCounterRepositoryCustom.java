@@ -0,0 +1,19 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskCounter;
+
+import java.util.Collection;
+
+/**
+ * Counter writes that need SQL a {@code @Query} cannot express portably
+ */
+public interface TaskCounterRepositoryCustom {
+    
+    /**
+     * Insert counters within the caller's transaction, skipping any that already exist,
+     * so two requests creating the same user's counters do not fail one another
+     *
+     * @return the number of counters inserted
+     */
+    int insertIfAbsent(Collection<TaskCounter> counters);
+}
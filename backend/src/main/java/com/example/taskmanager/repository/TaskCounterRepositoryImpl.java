@@ -0,0 +1,82 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * On PostgreSQL the counters go in as one multi-row {@code INSERT ... ON CONFLICT DO NOTHING},
+ * which waits for a concurrent insert of the same key and then skips it instead of
+ * failing the transaction. Elsewhere, such as the H2 test database, each counter is
+ * inserted unless it exists.
+ */
+public class TaskCounterRepositoryImpl implements TaskCounterRepositoryCustom {
+    
+    private static final String COLUMNS = "user_id, status, priority, task_count, dated_count";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private volatile Boolean onConflict;
+    
+    @Override
+    @Transactional
+    public int insertIfAbsent(Collection<TaskCounter> counters) {
+        if (counters.isEmpty()) {
+            return 0;
+        }
+        if (!isOnConflict()) {
+            int inserted = 0;
+            for (TaskCounter counter : counters) {
+                Query query = entityManager.createNativeQuery("INSERT INTO task_counters (" + COLUMNS + ") "
+                        + "SELECT :userId0, :status0, :priority0, :tasks0, :dated0 WHERE NOT EXISTS "
+                        + "(SELECT 1 FROM task_counters WHERE user_id = :userId0 AND status = :status0 "
+                        + "AND priority = :priority0)");
+                bind(query, 0, counter);
+                inserted += query.executeUpdate();
+            }
+            return inserted;
+        }
+        
+        StringBuilder sql = new StringBuilder("INSERT INTO task_counters (" + COLUMNS + ") VALUES ");
+        for (int i = 0; i < counters.size(); i++) {
+            sql.append(i > 0 ? ", " : "")
+               .append("(:userId").append(i).append(", :status").append(i).append(", :priority").append(i)
+               .append(", :tasks").append(i).append(", :dated").append(i).append(')');
+        }
+        Query query = entityManager.createNativeQuery(sql.append(" ON CONFLICT DO NOTHING").toString());
+        int i = 0;
+        for (TaskCounter counter : counters) {
+            bind(query, i++, counter);
+        }
+        return query.executeUpdate();
+    }
+    
+    /**
+     * Whether the database takes PostgreSQL's ON CONFLICT, detected on first call
+     */
+    private boolean isOnConflict() {
+        Boolean detected = onConflict;
+        if (detected == null) {
+            detected = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            onConflict = detected;
+        }
+        return detected;
+    }
+    
+    private static void bind(Query query, int row, TaskCounter counter) {
+        TaskCounter.Key key = counter.getId();
+        query.setParameter("userId" + row, key.getUserId())
+             .setParameter("status" + row, key.getStatus().name())
+             .setParameter("priority" + row, key.getPriority().name())
+             .setParameter("tasks" + row, counter.getTaskCount())
+             .setParameter("dated" + row, counter.getDatedCount());
+    }
+}
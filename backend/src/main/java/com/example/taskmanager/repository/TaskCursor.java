@@ -0,0 +1,89 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+
+/**
+ * Opaque seek position for task listings: the sort key and id of the last row
+ * returned, plus the ordering it was taken under so it cannot be replayed
+ * against a different one. A row without a sort key is encoded without the
+ * trailing value, which keeps it apart from an empty one.
+ */
+public final class TaskCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final TaskSortField sortField;
+    private final boolean descending;
+    private final Object sortValue;
+    private final long id;
+
+    public TaskCursor(TaskSortField sortField, boolean descending, Object sortValue, long id) {
+        this.sortField = sortField;
+        this.descending = descending;
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    /**
+     * Cursor positioned just after the given task
+     */
+    public static TaskCursor after(TaskResponse task, TaskSortField sortField, boolean descending) {
+        return new TaskCursor(sortField, descending, sortField.valueOf(task), task.getId());
+    }
+
+    /**
+     * Encode as a URL-safe token
+     */
+    public String encode() {
+        String raw = sortField.getProperty() + SEPARATOR + (descending ? 'd' : 'a') + SEPARATOR + id;
+        if (sortValue != null) {
+            raw += SEPARATOR + sortField.format(sortValue);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()} for the given ordering
+     *
+     * @throws IllegalArgumentException when the token is malformed or was issued for another ordering
+     */
+    public static TaskCursor decode(String token, TaskSortField sortField, boolean descending) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The sort value goes last since titles may contain the separator
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 4);
+            if (parts.length < 3
+                    || !parts[0].equals(sortField.getProperty())
+                    || !parts[1].equals(descending ? "d" : "a")) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            if (parts.length == 3 && !sortField.isNullable()) {
+                throw new IllegalArgumentException("Cursor lacks a sort value");
+            }
+            Object sortValue = parts.length == 4 ? sortField.parse(parts[3]) : null;
+            return new TaskCursor(sortField, descending, sortValue, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public TaskSortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Optional criteria for task listings; null fields are not filtered on
+ */
+public final class TaskFilter {
+
+    private static final TaskFilter NONE = new TaskFilter(null, null, null, null, null);
+
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final LocalDate dueDateFrom;
+    private final LocalDate dueDateTo;
+    private final String keyword;
+
+    public TaskFilter(TaskStatus status, TaskPriority priority, LocalDate dueDateFrom, LocalDate dueDateTo,
+                      String keyword) {
+        this.status = status;
+        this.priority = priority;
+        this.dueDateFrom = dueDateFrom;
+        this.dueDateTo = dueDateTo;
+        this.keyword = keyword == null || keyword.isBlank() ? null : keyword.trim();
+    }
+
+    /**
+     * Filter matching every task
+     */
+    public static TaskFilter none() {
+        return NONE;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public LocalDate getDueDateFrom() {
+        return dueDateFrom;
+    }
+
+    public LocalDate getDueDateTo() {
+        return dueDateTo;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Case-insensitive LIKE pattern for the keyword, with wildcards in it escaped by '!'
+     */
+    String keywordPattern() {
+        String escaped = keyword.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Bit set of the criteria present, identifying the query shape they produce
+     */
+    int shape() {
+        return (status != null ? 1 : 0)
+                | (priority != null ? 2 : 0)
+                | (dueDateFrom != null ? 4 : 0)
+                | (dueDateTo != null ? 8 : 0)
+                | (keyword != null ? 16 : 0);
+    }
+}
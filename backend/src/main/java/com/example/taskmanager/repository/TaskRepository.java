@@ -1,7 +1,7 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.TaskResponse;
 import com.example.taskmanager.entity.Task;
-import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,7 +15,27 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    
+    /**
+     * Select clause building a {@link TaskResponse} straight from the task and owner columns
+     */
+    String TASK_RESPONSE_SELECT = "SELECT new com.example.taskmanager.dto.TaskResponse(" +
+            "t.id, t.title, t.description, t.status, t.priority, t.dueDate, " +
+            "u.id, u.username, t.createdAt, t.updatedAt, t.version) " +
+            "FROM Task t JOIN t.user u ";
+    
+    /**
+     * Statuses a task can still be worked on in, matching {@link TaskStatus#isOpen()} and
+     * the WHERE clause of the partial index idx_tasks_user_open_due
+     */
+    String OPEN_STATUS = "t.status IN (com.example.taskmanager.entity.TaskStatus.PENDING, " +
+            "com.example.taskmanager.entity.TaskStatus.IN_PROGRESS)";
+    
+    /**
+     * The one definition of an overdue task, shared by every overdue count and listing
+     */
+    String OVERDUE = "t.user.id = :userId AND t.dueDate < :currentDate AND " + OPEN_STATUS;
     
     /**
      * Find all tasks by user ID
@@ -33,59 +53,66 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Optional<Task> findByIdAndUserId(Long id, Long userId);
     
     /**
-     * Find tasks by status and user ID
+     * Check whether the user has a task with this ID
      */
-    List<Task> findByStatusAndUserId(TaskStatus status, Long userId);
+    boolean existsByIdAndUserId(Long id, Long userId);
     
     /**
-     * Find tasks by priority and user ID
+     * Find tasks due on a specific date
      */
-    List<Task> findByPriorityAndUserId(TaskPriority priority, Long userId);
+    List<Task> findByDueDateAndUserId(LocalDate date, Long userId);
     
     /**
-     * Find tasks due before a certain date
+     * Find id and title of a user's most recently updated tasks
      */
-    List<Task> findByDueDateBeforeAndUserId(LocalDate date, Long userId);
+    @Query("SELECT t.id, t.title FROM Task t WHERE t.user.id = :userId ORDER BY t.updatedAt DESC, t.id DESC")
+    List<Object[]> findTitlesByUserId(@Param("userId") Long userId, Pageable pageable);
     
     /**
-     * Find tasks due on a specific date
+     * Count overdue tasks for a user
      */
-    List<Task> findByDueDateAndUserId(LocalDate date, Long userId);
+    @Query("SELECT COUNT(t) FROM Task t WHERE " + OVERDUE)
+    long countOverdueTasksByUserId(@Param("userId") Long userId, @Param("currentDate") LocalDate currentDate);
     
     /**
-     * Search tasks by title containing keyword
+     * Count a user's tasks per status and priority in one pass. Each row is
+     * [status, priority, total, overdue, due today, due within the next week, due later, no due date],
+     * with the due-date buckets taken relative to :today and :weekEnd.
      */
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND " +
-           "(LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    List<Task> searchByKeywordAndUserId(@Param("keyword") String keyword, @Param("userId") Long userId);
+    @Query("SELECT t.status, t.priority, COUNT(t), " +
+           "SUM(CASE WHEN t.dueDate < :today THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate = :today THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate > :today AND t.dueDate <= :weekEnd THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate > :weekEnd THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate IS NULL THEN 1 ELSE 0 END) " +
+           "FROM Task t WHERE t.user.id = :userId GROUP BY t.status, t.priority")
+    List<Object[]> countByStatusAndPriority(@Param("userId") Long userId, @Param("today") LocalDate today,
+                                            @Param("weekEnd") LocalDate weekEnd);
     
     /**
-     * Find tasks with filters
+     * Count a user's open tasks that have a due date, as
+     * [overdue, due today, due within the next week, due later]
      */
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId " +
-           "AND (:status IS NULL OR t.status = :status) " +
-           "AND (:priority IS NULL OR t.priority = :priority) " +
-           "AND (:dueDateFrom IS NULL OR t.dueDate >= :dueDateFrom) " +
-           "AND (:dueDateTo IS NULL OR t.dueDate <= :dueDateTo)")
-    Page<Task> findTasksWithFilters(
-            @Param("userId") Long userId,
-            @Param("status") TaskStatus status,
-            @Param("priority") TaskPriority priority,
-            @Param("dueDateFrom") LocalDate dueDateFrom,
-            @Param("dueDateTo") LocalDate dueDateTo,
-            Pageable pageable
-    );
+    @Query("SELECT SUM(CASE WHEN t.dueDate < :today THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate = :today THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate > :today AND t.dueDate <= :weekEnd THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate > :weekEnd THEN 1 ELSE 0 END) " +
+           "FROM Task t WHERE t.user.id = :userId AND t.dueDate IS NOT NULL AND " + OPEN_STATUS)
+    List<Object[]> countOpenByDueDate(@Param("userId") Long userId, @Param("today") LocalDate today,
+                                      @Param("weekEnd") LocalDate weekEnd);
     
     /**
-     * Count tasks by status for a user
+     * Find task response by ID and user ID (for security)
      */
-    long countByStatusAndUserId(TaskStatus status, Long userId);
+    @Query(TASK_RESPONSE_SELECT + "WHERE t.id = :id AND u.id = :userId")
+    Optional<TaskResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
     
     /**
-     * Count overdue tasks for a user
+     * Find responses for overdue tasks, most overdue first, in index order
      */
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.user.id = :userId AND t.dueDate < :currentDate AND t.status != 'COMPLETED'")
-    long countOverdueTasksByUserId(@Param("userId") Long userId, @Param("currentDate") LocalDate currentDate);
+    @Query(value = TASK_RESPONSE_SELECT + "WHERE " + OVERDUE + " ORDER BY t.dueDate, t.id",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE " + OVERDUE)
+    Page<TaskResponse> findOverdueResponsesByUserId(@Param("userId") Long userId, @Param("currentDate") LocalDate currentDate,
+                                                    Pageable pageable);
 }
 
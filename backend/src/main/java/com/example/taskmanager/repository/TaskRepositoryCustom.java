@@ -0,0 +1,57 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Task queries whose shape depends on the request and so cannot be declared
+ * with a single {@code @Query}
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Page of a user's tasks matching the filter, ordered by {@code (sortField, id)} with
+     * tasks lacking the sort key last. Starts after the cursor when one is given,
+     * otherwise skips {@code offset} rows.
+     */
+    List<TaskResponse> findResponses(Long userId, TaskFilter filter, TaskSortField sortField, boolean descending,
+                                     TaskCursor after, long offset, int limit);
+
+    /**
+     * Every task of a user matching the filter, ordered by {@code (sortField, id)}. Read
+     * lazily in seek pages of bounded size, one query per page, so nothing stays open on
+     * the database between pages however slowly the stream is consumed.
+     */
+    Stream<TaskResponse> streamResponses(Long userId, TaskFilter filter, TaskSortField sortField, boolean descending);
+
+    /**
+     * Count a user's tasks matching the filter
+     */
+    long countResponses(Long userId, TaskFilter filter);
+
+    /**
+     * Count a user's tasks matching the filter, and among {@code ids} when not null, by status
+     * and priority: rows of status, priority, task count and count of tasks with a due date.
+     * With a change, tasks it would leave as they are are not counted.
+     */
+    List<Object[]> countMatchingByStatusAndPriority(Long userId, TaskFilter filter, Collection<Long> ids,
+                                                    TaskChange change);
+
+    /**
+     * Apply the change to a user's tasks matching the filter, and among {@code ids} when not
+     * null, in one statement; tasks it would leave as they are are not touched
+     *
+     * @return the number of tasks changed
+     */
+    int updateMatching(Long userId, TaskFilter filter, Collection<Long> ids, TaskChange change);
+
+    /**
+     * Delete a user's tasks matching the filter, and among {@code ids} when not null, in one statement
+     *
+     * @return the number of tasks deleted
+     */
+    int deleteMatching(Long userId, TaskFilter filter, Collection<Long> ids);
+}
@@ -0,0 +1,340 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Filtered and keyset-paginated task listings.
+ *
+ * Only the predicates for criteria actually supplied are emitted, so Postgres
+ * plans each combination against the matching indexes instead of a catch-all
+ * {@code :param IS NULL OR ...} query. Each combination always renders to the
+ * same JPQL string, cached here by shape, so Hibernate's query plan cache and
+ * the driver's server-side prepared statements are reused across requests.
+ *
+ * Comparing against the last row's {@code (sortKey, id)} lets the database seek
+ * straight into the composite index instead of reading and discarding
+ * {@code OFFSET} rows.
+ *
+ * Unpaginated listings are streamed as a series of such seek pages, each a short
+ * query of its own, so a slow reader never keeps a cursor open on the database.
+ * Rows never enter the persistence context.
+ *
+ * Bulk changes and deletes are single set-based statements over the same
+ * predicates, so they never load the tasks they touch.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final int SHAPE_CURSOR = 1 << 5;
+    private static final int SHAPE_DESCENDING = 1 << 6;
+    private static final int SHAPE_NULLS = 1 << 7;
+    private static final int SHAPE_SORT_SHIFT = 8;
+    // Bulk statements are cached apart from the listings and reuse the bits above the filter
+    private static final int SHAPE_IDS = 1 << 5;
+    private static final int SHAPE_CHANGE_SHIFT = 6;
+
+    private static final Map<Integer, String> responseQueries = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> countQueries = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> bulkCountQueries = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> updateStatements = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> deleteStatements = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.tasks.stream.page-size:500}")
+    private int streamPageSize;
+
+    @Override
+    public List<TaskResponse> findResponses(Long userId, TaskFilter filter, TaskSortField sortField, boolean descending,
+                                            TaskCursor after, long offset, int limit) {
+        if (after == null && offset > Integer.MAX_VALUE) {
+            // No user has that many tasks, and JPA cannot skip that many rows anyway
+            return List.of();
+        }
+        if (after != null && after.getSortValue() == null) {
+            // Already among the tasks without a sort key
+            return findRange(userId, filter, sortField, descending, true, after, 0, limit);
+        }
+        List<TaskResponse> tasks = findRange(userId, filter, sortField, descending, false, after, offset, limit);
+        if (!sortField.isNullable() || tasks.size() == limit) {
+            return tasks;
+        }
+
+        // Tasks without a sort key follow the rest, in id order; an offset past the rest
+        // carries over into them
+        long skip = 0;
+        if (after == null && offset > 0 && tasks.isEmpty()) {
+            skip = Math.max(0, offset - countWithSortKey(userId, filter, sortField));
+        }
+        List<TaskResponse> page = new ArrayList<>(tasks);
+        page.addAll(findRange(userId, filter, sortField, descending, true, null, skip, limit - tasks.size()));
+        return page;
+    }
+
+    @Override
+    public Stream<TaskResponse> streamResponses(Long userId, TaskFilter filter, TaskSortField sortField,
+                                                boolean descending) {
+        Iterator<TaskResponse> rows = new Iterator<>() {
+            private List<TaskResponse> page;
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                if (page != null && next < page.size()) {
+                    return true;
+                }
+                if (page != null && page.size() < streamPageSize) {
+                    return false;
+                }
+                TaskCursor after = page != null
+                        ? TaskCursor.after(page.get(page.size() - 1), sortField, descending)
+                        : null;
+                page = findResponses(userId, filter, sortField, descending, after, 0, streamPageSize);
+                next = 0;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public TaskResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(next++);
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * One index range: the tasks with a sort key when {@code nulls} is false, ordered by
+     * {@code (sortField, id)}, otherwise those without, ordered by id
+     */
+    private List<TaskResponse> findRange(Long userId, TaskFilter filter, TaskSortField sortField, boolean descending,
+                                         boolean nulls, TaskCursor after, long offset, int limit) {
+        int shape = filter.shape()
+                | (after != null ? SHAPE_CURSOR : 0)
+                | (descending ? SHAPE_DESCENDING : 0)
+                | (nulls ? SHAPE_NULLS : 0)
+                | (sortField.ordinal() << SHAPE_SORT_SHIFT);
+        String jpql = responseQueries.computeIfAbsent(shape,
+                key -> responseQuery(filter, sortField, descending, nulls, after != null));
+
+        TypedQuery<TaskResponse> query = entityManager.createQuery(jpql, TaskResponse.class)
+                .setMaxResults(limit);
+        bind(query, userId, filter);
+        if (after != null) {
+            if (!nulls) {
+                query.setParameter("sortValue", after.getSortValue());
+            }
+            query.setParameter("lastId", after.getId());
+        } else if (offset > 0) {
+            query.setFirstResult((int) offset);
+        }
+        return query.getResultList();
+    }
+
+    private long countWithSortKey(Long userId, TaskFilter filter, TaskSortField sortField) {
+        String jpql = countQueries.computeIfAbsent(filter.shape() | ((sortField.ordinal() + 1) << SHAPE_SORT_SHIFT),
+                key -> "SELECT COUNT(t." + sortField.getProperty() + ") FROM Task t " + where(filter));
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class);
+        bind(query, userId, filter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public long countResponses(Long userId, TaskFilter filter) {
+        String jpql = countQueries.computeIfAbsent(filter.shape(),
+                key -> "SELECT COUNT(t) FROM Task t " + where(filter));
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class);
+        bind(query, userId, filter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public List<Object[]> countMatchingByStatusAndPriority(Long userId, TaskFilter filter, Collection<Long> ids,
+                                                           TaskChange change) {
+        String jpql = bulkCountQueries.computeIfAbsent(bulkShape(filter, ids, change),
+                key -> "SELECT t.status, t.priority, COUNT(t), COUNT(t.dueDate) FROM Task t "
+                        + bulkWhere(filter, ids, change) + "GROUP BY t.status, t.priority");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        bindBulk(query, userId, filter, ids, change);
+        return query.getResultList();
+    }
+
+    @Override
+    public int updateMatching(Long userId, TaskFilter filter, Collection<Long> ids, TaskChange change) {
+        String jpql = updateStatements.computeIfAbsent(bulkShape(filter, ids, change),
+                key -> updateStatement(filter, ids, change));
+
+        // Bulk statements bypass the entity lifecycle, so @UpdateTimestamp and @Version are applied here
+        Query query = entityManager.createQuery(jpql).setParameter("now", LocalDateTime.now());
+        bindBulk(query, userId, filter, ids, change);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int deleteMatching(Long userId, TaskFilter filter, Collection<Long> ids) {
+        String jpql = deleteStatements.computeIfAbsent(bulkShape(filter, ids, null),
+                key -> "DELETE FROM Task t " + bulkWhere(filter, ids, null));
+
+        Query query = entityManager.createQuery(jpql);
+        bindBulk(query, userId, filter, ids, null);
+        return query.executeUpdate();
+    }
+
+    private static String responseQuery(TaskFilter filter, TaskSortField sortField, boolean descending,
+                                        boolean nulls, boolean afterCursor) {
+        String column = "t." + sortField.getProperty();
+        String direction = descending ? " DESC" : " ASC";
+        String op = descending ? " < " : " > ";
+
+        StringBuilder jpql = new StringBuilder(TaskRepository.TASK_RESPONSE_SELECT).append(where(filter));
+        if (nulls) {
+            // Still a range of the (user_id, sortKey, id) index, at its null end
+            jpql.append("AND ").append(column).append(" IS NULL ");
+            if (afterCursor) {
+                jpql.append("AND t.id").append(op).append(":lastId ");
+            }
+            return jpql.append("ORDER BY t.id").append(direction).toString();
+        }
+        if (afterCursor) {
+            // Expanded (sortKey, id) > (:sortValue, :lastId); the leading inclusive bound
+            // stays a plain range condition the index can seek on
+            jpql.append("AND ").append(column).append(descending ? " <= " : " >= ").append(":sortValue ")
+                .append("AND (").append(column).append(op).append(":sortValue OR t.id").append(op).append(":lastId) ");
+        } else if (sortField.isNullable()) {
+            jpql.append("AND ").append(column).append(" IS NOT NULL ");
+        }
+        return jpql.append("ORDER BY ").append(column).append(direction).append(", t.id").append(direction)
+                .toString();
+    }
+
+    private static String updateStatement(TaskFilter filter, Collection<Long> ids, TaskChange change) {
+        // Bump the version too, or a PUT holding a version read before the bulk change would still apply
+        StringBuilder jpql = new StringBuilder("UPDATE Task t SET t.updatedAt = :now, t.version = t.version + 1");
+        if (change.getStatus() != null) {
+            jpql.append(", t.status = :newStatus");
+        }
+        if (change.getPriority() != null) {
+            jpql.append(", t.priority = :newPriority");
+        }
+        if (change.setsDueDate()) {
+            jpql.append(change.getDueDate() != null ? ", t.dueDate = :newDueDate" : ", t.dueDate = NULL");
+        }
+        return jpql.append(' ').append(bulkWhere(filter, ids, change)).toString();
+    }
+
+    private static int bulkShape(TaskFilter filter, Collection<Long> ids, TaskChange change) {
+        return filter.shape()
+                | (ids != null ? SHAPE_IDS : 0)
+                | (change != null ? change.shape() << SHAPE_CHANGE_SHIFT : 0);
+    }
+
+    /**
+     * The listing predicates, narrowed to the ids and to tasks the change would alter, so
+     * that "mark all as complete" skips tasks already complete instead of rewriting them
+     */
+    private static String bulkWhere(TaskFilter filter, Collection<Long> ids, TaskChange change) {
+        StringBuilder where = new StringBuilder(where(filter));
+        if (ids != null) {
+            where.append("AND t.id IN :ids ");
+        }
+        if (change != null) {
+            StringBuilder differs = new StringBuilder();
+            if (change.getStatus() != null) {
+                differs.append(" OR t.status <> :newStatus");
+            }
+            if (change.getPriority() != null) {
+                differs.append(" OR t.priority <> :newPriority");
+            }
+            if (change.setsDueDate()) {
+                differs.append(change.getDueDate() != null
+                        ? " OR t.dueDate IS NULL OR t.dueDate <> :newDueDate"
+                        : " OR t.dueDate IS NOT NULL");
+            }
+            where.append("AND (").append(differs.substring(4)).append(") ");
+        }
+        return where.toString();
+    }
+
+    private static void bindBulk(Query query, Long userId, TaskFilter filter, Collection<Long> ids,
+                                 TaskChange change) {
+        bind(query, userId, filter);
+        if (ids != null) {
+            query.setParameter("ids", ids);
+        }
+        if (change != null) {
+            if (change.getStatus() != null) {
+                query.setParameter("newStatus", change.getStatus());
+            }
+            if (change.getPriority() != null) {
+                query.setParameter("newPriority", change.getPriority());
+            }
+            if (change.getDueDate() != null) {
+                query.setParameter("newDueDate", change.getDueDate());
+            }
+        }
+    }
+
+    private static String where(TaskFilter filter) {
+        StringBuilder where = new StringBuilder("WHERE t.user.id = :userId ");
+        if (filter.getStatus() != null) {
+            where.append("AND t.status = :status ");
+        }
+        if (filter.getPriority() != null) {
+            where.append("AND t.priority = :priority ");
+        }
+        if (filter.getDueDateFrom() != null) {
+            where.append("AND t.dueDate >= :dueDateFrom ");
+        }
+        if (filter.getDueDateTo() != null) {
+            where.append("AND t.dueDate <= :dueDateTo ");
+        }
+        if (filter.getKeyword() != null) {
+            where.append("AND (LOWER(t.title) LIKE :keyword ESCAPE '!' ")
+                 .append("OR LOWER(t.description) LIKE :keyword ESCAPE '!') ");
+        }
+        return where.toString();
+    }
+
+    private static void bind(Query query, Long userId, TaskFilter filter) {
+        query.setParameter("userId", userId);
+        if (filter.getStatus() != null) {
+            query.setParameter("status", filter.getStatus());
+        }
+        if (filter.getPriority() != null) {
+            query.setParameter("priority", filter.getPriority());
+        }
+        if (filter.getDueDateFrom() != null) {
+            query.setParameter("dueDateFrom", filter.getDueDateFrom());
+        }
+        if (filter.getDueDateTo() != null) {
+            query.setParameter("dueDateTo", filter.getDueDateTo());
+        }
+        if (filter.getKeyword() != null) {
+            query.setParameter("keyword", filter.keywordPattern());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.util.HtmlUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ranked keyword search over a user's tasks.
+ *
+ * On PostgreSQL with the {@code tasks.search_vector} column and the pg_trgm
+ * extension from the schema migrations, matching uses the GIN-indexed
+ * weighted tsvector (title above description) plus trigram similarity on the
+ * title for substrings and typos, and highlights come from {@code ts_headline}.
+ * Elsewhere, such as the H2 test database, it falls back to a case-insensitive
+ * LIKE that ranks title matches first and highlights in Java.
+ */
+@Repository
+public class TaskSearchRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchRepository.class);
+    
+    static final String MODE_AUTO = "auto";
+    static final String MODE_FULL_TEXT = "full-text";
+    static final String MODE_LIKE = "like";
+    
+    private static final String MARK_START = "<mark>";
+    private static final String MARK_END = "</mark>";
+    
+    private static final String ESCAPED_TITLE = "replace(replace(replace(t.title, '&', '&amp;'), '<', '&lt;'), '>', '&gt;')";
+    private static final String ESCAPED_DESCRIPTION =
+            "replace(replace(replace(coalesce(t.description, ''), '&', '&amp;'), '<', '&lt;'), '>', '&gt;')";
+    
+    private static final String FULL_TEXT_WHERE =
+            "WHERE t.user_id = :userId AND (t.search_vector @@ query " +
+            "OR lower(t.title) LIKE :pattern ESCAPE '!' OR lower(t.description) LIKE :pattern ESCAPE '!' " +
+            "OR :lq <% lower(t.title)) ";
+    
+    private static final String FULL_TEXT_SEARCH =
+            "SELECT t.id, t.title, t.description, t.status, t.priority, t.due_date, u.id AS user_id, u.username, " +
+            "t.created_at, t.updated_at, t.version, " +
+            "ts_rank_cd(t.search_vector, query) + word_similarity(:lq, lower(t.title)) AS rank, " +
+            "ts_headline('simple', " + ESCAPED_TITLE + ", query, " +
+            "'StartSel=<mark>, StopSel=</mark>, HighlightAll=true') AS title_highlight, " +
+            "ts_headline('simple', " + ESCAPED_DESCRIPTION + ", query, " +
+            "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5') AS description_highlight " +
+            "FROM tasks t JOIN users u ON u.id = t.user_id CROSS JOIN websearch_to_tsquery('simple', :q) AS query " +
+            FULL_TEXT_WHERE +
+            // Paged in the SQL: Hibernate's limit handler would splice its clause in at the ';' of '&amp;'
+            "ORDER BY rank DESC, t.id DESC LIMIT :limit OFFSET :offset";
+    
+    private static final String FULL_TEXT_COUNT =
+            "SELECT count(*) FROM tasks t CROSS JOIN websearch_to_tsquery('simple', :q) AS query " + FULL_TEXT_WHERE;
+    
+    private static final String LIKE_MATCH =
+            "WHERE u.id = :userId AND (LOWER(t.title) LIKE :pattern ESCAPE '!' " +
+            "OR LOWER(t.description) LIKE :pattern ESCAPE '!') ";
+    
+    private static final String LIKE_SEARCH = TaskRepository.TASK_RESPONSE_SELECT + LIKE_MATCH +
+            "ORDER BY CASE WHEN LOWER(t.title) LIKE :pattern ESCAPE '!' THEN 0 ELSE 1 END, t.id DESC";
+    
+    private static final String LIKE_COUNT = "SELECT COUNT(t) FROM Task t JOIN t.user u " + LIKE_MATCH;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final DataSource dataSource;
+    private final String configuredMode;
+    private volatile Boolean fullText;
+    
+    @Autowired
+    public TaskSearchRepository(DataSource dataSource, @Value("${app.search.mode:auto}") String configuredMode) {
+        this.dataSource = dataSource;
+        this.configuredMode = configuredMode;
+    }
+    
+    /**
+     * Page of the user's tasks matching the query, most relevant first
+     */
+    public List<TaskSearchHit> search(Long userId, String query, long offset, int limit) {
+        TaskFilter filter = new TaskFilter(null, null, null, null, query);
+        if (isFullText()) {
+            Query search = entityManager.createNativeQuery(FULL_TEXT_SEARCH);
+            bindFullText(search, userId, filter);
+            search.setParameter("limit", limit).setParameter("offset", offset);
+            
+            List<TaskSearchHit> hits = new ArrayList<>();
+            for (Object row : search.getResultList()) {
+                hits.add(toHit((Object[]) row));
+            }
+            return hits;
+        }
+        
+        if (offset > Integer.MAX_VALUE) {
+            // Past any user's tasks, and beyond what JPA can skip
+            return List.of();
+        }
+        TypedQuery<TaskResponse> search = entityManager.createQuery(LIKE_SEARCH, TaskResponse.class)
+                .setParameter("userId", userId)
+                .setParameter("pattern", filter.keywordPattern())
+                .setFirstResult((int) offset)
+                .setMaxResults(limit);
+        Pattern highlight = Pattern.compile(Pattern.quote(HtmlUtils.htmlEscape(filter.getKeyword())),
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        
+        List<TaskSearchHit> hits = new ArrayList<>();
+        for (TaskResponse task : search.getResultList()) {
+            String title = highlight(task.getTitle(), highlight);
+            String description = highlight(task.getDescription(), highlight);
+            hits.add(new TaskSearchHit(task, title.contains(MARK_START) ? 2.0 : 1.0, title, description));
+        }
+        return hits;
+    }
+    
+    /**
+     * Count the user's tasks matching the query
+     */
+    public long count(Long userId, String query) {
+        TaskFilter filter = new TaskFilter(null, null, null, null, query);
+        if (isFullText()) {
+            Query count = entityManager.createNativeQuery(FULL_TEXT_COUNT);
+            bindFullText(count, userId, filter);
+            return ((Number) count.getSingleResult()).longValue();
+        }
+        return entityManager.createQuery(LIKE_COUNT, Long.class)
+                .setParameter("userId", userId)
+                .setParameter("pattern", filter.keywordPattern())
+                .getSingleResult();
+    }
+    
+    /**
+     * Whether the PostgreSQL full-text path is in use, detected on first call
+     */
+    public boolean isFullText() {
+        Boolean detected = fullText;
+        if (detected == null) {
+            detected = detectFullText();
+            fullText = detected;
+        }
+        return detected;
+    }
+    
+    private boolean detectFullText() {
+        if (MODE_LIKE.equals(configuredMode)) {
+            return false;
+        }
+        boolean available;
+        try (Connection connection = dataSource.getConnection()) {
+            available = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                    && hasSearchColumn(connection.getMetaData())
+                    && hasTrigramExtension(connection);
+        } catch (SQLException e) {
+            logger.warn("Could not inspect the database for full-text search support", e);
+            available = false;
+        }
+        
+        if (!available && MODE_FULL_TEXT.equals(configuredMode)) {
+            throw new IllegalStateException("app.search.mode=full-text requires PostgreSQL with "
+                    + "tasks.search_vector and pg_trgm, see db/migration");
+        }
+        if (available) {
+            logger.info("Task search using PostgreSQL full-text and trigram indexes");
+        } else {
+            logger.info("Task search using LIKE fallback; run the schema migrations on PostgreSQL for ranked search");
+        }
+        return available;
+    }
+    
+    private static boolean hasSearchColumn(DatabaseMetaData metaData) throws SQLException {
+        try (ResultSet columns = metaData.getColumns(null, null, "tasks", "search_vector")) {
+            return columns.next();
+        }
+    }
+    
+    private static boolean hasTrigramExtension(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm'");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+    
+    private static void bindFullText(Query query, Long userId, TaskFilter filter) {
+        query.setParameter("userId", userId)
+             .setParameter("q", filter.getKeyword())
+             .setParameter("lq", filter.getKeyword().toLowerCase(Locale.ROOT))
+             .setParameter("pattern", filter.keywordPattern());
+    }
+    
+    private static TaskSearchHit toHit(Object[] row) {
+        TaskResponse task = new TaskResponse(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                row[3] != null ? TaskStatus.valueOf((String) row[3]) : null,
+                row[4] != null ? TaskPriority.valueOf((String) row[4]) : null,
+                toLocalDate(row[5]),
+                ((Number) row[6]).longValue(),
+                (String) row[7],
+                toLocalDateTime(row[8]),
+                toLocalDateTime(row[9]),
+                ((Number) row[10]).longValue());
+        return new TaskSearchHit(task, ((Number) row[11]).doubleValue(), (String) row[12], (String) row[13]);
+    }
+    
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+    
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+    
+    private static String highlight(String text, Pattern keyword) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = keyword.matcher(HtmlUtils.htmlEscape(text));
+        return matcher.replaceAll(match -> Matcher.quoteReplacement(MARK_START + match.group() + MARK_END));
+    }
+}
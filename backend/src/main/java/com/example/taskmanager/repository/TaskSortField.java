@@ -0,0 +1,77 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Sort keys accepted for task listings. Each one is backed by a composite
+ * {@code (user_id, <column>, id)} index, so both offset and seek pages are
+ * served by an index range scan rather than a sort.
+ */
+public enum TaskSortField {
+
+    CREATED_AT("createdAt", true, TaskResponse::getCreatedAt),
+    UPDATED_AT("updatedAt", true, TaskResponse::getUpdatedAt),
+    TITLE("title", false, TaskResponse::getTitle);
+
+    private final String property;
+    private final boolean nullable;
+    private final Function<TaskResponse, Object> extractor;
+
+    TaskSortField(String property, boolean nullable, Function<TaskResponse, Object> extractor) {
+        this.property = property;
+        this.nullable = nullable;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Entity property name, as used in request parameters and queries
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Whether the column may be null; such tasks are listed after all others, in id order
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * Read this sort key from a task
+     */
+    public Object valueOf(TaskResponse task) {
+        return extractor.apply(task);
+    }
+
+    /**
+     * Parse a sort key serialized by {@link #format(Object)}
+     */
+    Object parse(String value) {
+        return this == TITLE ? value : LocalDateTime.parse(value);
+    }
+
+    /**
+     * Serialize a non-null sort key for a cursor
+     */
+    String format(Object value) {
+        return value.toString();
+    }
+
+    /**
+     * Resolve a request parameter against the whitelist
+     *
+     * @throws IllegalArgumentException when the property is not sortable
+     */
+    public static TaskSortField fromProperty(String property) {
+        for (TaskSortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort field: " + property);
+    }
+}
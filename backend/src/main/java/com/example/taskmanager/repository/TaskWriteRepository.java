@@ -0,0 +1,166 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ownership-checked single-task writes that each take one SQL statement.
+ *
+ * The statement matches on id and owner together, so a task of another user is
+ * indistinguishable from a missing one, and hands back the row as it was before
+ * the write: callers need its status, priority and due date to move the counters
+ * without reading the task first. On PostgreSQL that is {@code RETURNING}; elsewhere,
+ * such as the H2 test database, the write is wrapped in an {@code OLD TABLE} query.
+ */
+@Repository
+public class TaskWriteRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskWriteRepository.class);
+    
+    private static final String BEFORE_COLUMNS = "status, priority, due_date, created_at, version";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final DataSource dataSource;
+    private volatile Boolean returning;
+    
+    @Autowired
+    public TaskWriteRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    /**
+     * Overwrite a user's task, bumping its version
+     *
+     * @param status          the new status, or null to keep the current one
+     * @param priority        the new priority, or null to keep the current one
+     * @param expectedVersion the version the task must still have, or null for any
+     * @return the task as it was before the update, without its owner; empty when no
+     *         task of the user has that id and, if given, that version
+     */
+    public Optional<Task> update(Long taskId, Long userId, Long expectedVersion, String title, String description,
+                                 TaskStatus status, TaskPriority priority, LocalDate dueDate, LocalDateTime now) {
+        StringBuilder set = new StringBuilder("title = :title, description = :description, ");
+        if (status != null) {
+            set.append("status = :status, ");
+        }
+        if (priority != null) {
+            set.append("priority = :priority, ");
+        }
+        set.append("due_date = :dueDate, updated_at = :now, version = t.version + 1");
+        String match = "id = :id AND user_id = :userId" + (expectedVersion != null ? " AND version = :version" : "");
+        
+        String sql;
+        if (isReturning()) {
+            // The locked self-join keeps the row as it was before the SET, which RETURNING alone cannot see
+            sql = "UPDATE tasks t SET " + set + " FROM (SELECT id, " + BEFORE_COLUMNS + " FROM tasks WHERE " + match
+                    + " FOR UPDATE) o WHERE t.id = o.id RETURNING o.status, o.priority, o.due_date, o.created_at, o.version";
+        } else {
+            sql = "SELECT " + BEFORE_COLUMNS + " FROM OLD TABLE (UPDATE tasks t SET " + set + " WHERE " + match + ")";
+        }
+        
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.setParameter("id", taskId)
+             .setParameter("userId", userId)
+             .setParameter("title", title, String.class)
+             .setParameter("description", description, String.class)
+             .setParameter("dueDate", dueDate, LocalDate.class)
+             .setParameter("now", now, LocalDateTime.class);
+        if (status != null) {
+            query.setParameter("status", status.name());
+        }
+        if (priority != null) {
+            query.setParameter("priority", priority.name());
+        }
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        return before(taskId, query.getResultList());
+    }
+    
+    /**
+     * Delete a user's task
+     *
+     * @return the deleted task, without its owner; empty when the user has no task with that id
+     */
+    public Optional<Task> delete(Long taskId, Long userId) {
+        String sql = isReturning()
+                ? "DELETE FROM tasks WHERE id = :id AND user_id = :userId RETURNING " + BEFORE_COLUMNS
+                : "SELECT " + BEFORE_COLUMNS + " FROM OLD TABLE (DELETE FROM tasks WHERE id = :id AND user_id = :userId)";
+        List<?> rows = entityManager.createNativeQuery(sql)
+                .setParameter("id", taskId)
+                .setParameter("userId", userId)
+                .getResultList();
+        return before(taskId, rows);
+    }
+    
+    /**
+     * Whether writes use PostgreSQL's RETURNING, detected on first call
+     */
+    private boolean isReturning() {
+        Boolean detected = returning;
+        if (detected == null) {
+            detected = detectReturning();
+            returning = detected;
+        }
+        return detected;
+    }
+    
+    private boolean detectReturning() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            logger.warn("Could not inspect the database for RETURNING support", e);
+            return false;
+        }
+    }
+    
+    private static Optional<Task> before(Long taskId, List<?> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        Task task = new Task();
+        task.setId(taskId);
+        // H2 reads its generated enum columns back as their names, PostgreSQL as varchar
+        task.setStatus(TaskStatus.valueOf(row[0].toString()));
+        task.setPriority(TaskPriority.valueOf(row[1].toString()));
+        task.setDueDate(toLocalDate(row[2]));
+        task.setCreatedAt(toLocalDateTime(row[3]));
+        task.setVersion(((Number) row[4]).longValue());
+        return Optional.of(task);
+    }
+    
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+    
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -1,40 +1,137 @@
 package com.example.taskmanager.repository;
 
 import com.example.taskmanager.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
     /**
-     * Find user by username
+     * Find user by normalized (lowercased) username
      */
-    Optional<User> findByUsername(String username);
+    Optional<User> findByUsernameNormalized(String usernameNormalized);
     
     /**
-     * Find user by email
+     * Find user by normalized (lowercased) email
      */
-    Optional<User> findByEmail(String email);
+    Optional<User> findByEmailNormalized(String emailNormalized);
     
     /**
-     * Check if username exists
+     * Check if normalized username exists
      */
-    boolean existsByUsername(String username);
+    boolean existsByUsernameNormalized(String usernameNormalized);
     
     /**
-     * Check if email exists
+     * Check if normalized email exists
      */
-    boolean existsByEmail(String email);
+    boolean existsByEmailNormalized(String emailNormalized);
     
     /**
-     * Find user by username or email
+     * Find user by username, ignoring case
      */
-    @Query("SELECT u FROM User u WHERE u.username = :usernameOrEmail OR u.email = :usernameOrEmail")
-    Optional<User> findByUsernameOrEmail(@Param("usernameOrEmail") String usernameOrEmail);
+    default Optional<User> findByUsername(String username) {
+        return findByUsernameNormalized(User.normalize(username));
+    }
+    
+    /**
+     * Find user by email, ignoring case
+     */
+    default Optional<User> findByEmail(String email) {
+        return findByEmailNormalized(User.normalize(email));
+    }
+    
+    /**
+     * Check if username exists, ignoring case
+     */
+    default boolean existsByUsername(String username) {
+        return existsByUsernameNormalized(User.normalize(username));
+    }
+    
+    /**
+     * Check if email exists, ignoring case
+     */
+    default boolean existsByEmail(String email) {
+        return existsByEmailNormalized(User.normalize(email));
+    }
+    
+    /**
+     * Find user by username or email, ignoring case.
+     *
+     * Each attempt is a single probe of one unique index rather than an OR across both
+     * columns. Values containing '@' try the email index first; usernames may contain
+     * '@' too, so a miss there falls back to the username index.
+     */
+    default Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
+        String normalized = User.normalize(usernameOrEmail);
+        if (normalized == null || normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        if (normalized.indexOf('@') >= 0) {
+            Optional<User> byEmail = findByEmailNormalized(normalized);
+            if (byEmail.isPresent()) {
+                return byEmail;
+            }
+        }
+        return findByUsernameNormalized(normalized);
+    }
+    
+    /**
+     * Stream every normalized username and email pair, without loading entities
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.usernameNormalized, u.emailNormalized FROM User u")
+    Stream<Object[]> streamNormalizedIdentifiers();
+    
+    /**
+     * Current token epoch for a user, without loading the entity
+     */
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenEpochById(@Param("id") Long id);
+    
+    /**
+     * Current version of a user's tasks, without loading the entity
+     */
+    @Query("SELECT u.tasksVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findTasksVersionById(@Param("id") Long id);
+    
+    /**
+     * Move a user's tasks to a new version, locking the user's row until the transaction ends
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tasksVersion = u.tasksVersion + 1 WHERE u.id = :id")
+    int incrementTasksVersion(@Param("id") Long id);
+    
+    /**
+     * Replace a user's password and move to a new token epoch, provided the stored hash
+     * is still the one the caller verified the current password against
+     *
+     * @return 0 when the user is gone or the password changed in the meantime
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash, u.tokenEpoch = u.tokenEpoch + 1, u.updatedAt = :now " +
+           "WHERE u.id = :id AND u.password = :oldHash")
+    int changePassword(@Param("id") Long id, @Param("oldHash") String oldHash,
+                       @Param("newHash") String newHash, @Param("now") LocalDateTime now);
+    
+    /**
+     * Store a password hash re-encoded at a new cost, provided the stored hash is still
+     * the one it was verified against
+     *
+     * @return 0 when the user is gone or the password changed in the meantime
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int rehashPassword(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
-
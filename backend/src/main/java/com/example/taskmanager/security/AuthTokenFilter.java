@@ -1,5 +1,8 @@
 package com.example.taskmanager.security;
 
+import com.example.taskmanager.service.TokenEpochService;
+import com.example.taskmanager.service.TokenRevocationService;
+import com.example.taskmanager.service.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,10 +10,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,19 +28,27 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserDetailsServiceImpl userDetailsService;
+    
+    @Autowired
+    private TokenEpochService tokenEpochService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Value("${app.security.stateless-principal:false}")
+    private boolean statelessPrincipal;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
+            VerifiedJwt verifiedJwt = jwt != null ? jwtUtils.verifyJwtToken(jwt).orElse(null) : null;
             
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
+            UserDetails userDetails = verifiedJwt != null ? resolvePrincipal(verifiedJwt) : null;
+            
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 
@@ -52,6 +63,46 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Build the principal for a verified token, or return null if it is a refresh token,
+     * has been revoked, or its epoch is stale.
+     *
+     * In stateless mode the principal comes from the claims alone and only the token epoch
+     * is checked, through {@link TokenEpochService}'s cache. Tokens without userId/epoch
+     * claims, and every token when stateless mode is off, fall back to a load through
+     * the principal cache, by user ID when the token carries one.
+     */
+    private UserDetails resolvePrincipal(VerifiedJwt verifiedJwt) {
+        if (verifiedJwt.isRefreshToken()) {
+            logger.debug("Rejecting refresh token presented as a bearer token");
+            return null;
+        }
+        if (tokenRevocationService.isRevoked(verifiedJwt.getTokenId())) {
+            logger.debug("Rejecting revoked token for user: {}", verifiedJwt.getSubject());
+            return null;
+        }
+        
+        Integer tokenEpoch = verifiedJwt.getTokenEpoch();
+        
+        if (statelessPrincipal && verifiedJwt.getUserId() != null && tokenEpoch != null) {
+            if (!tokenEpochService.isCurrent(verifiedJwt.getUserId(), tokenEpoch)) {
+                logger.debug("Rejecting token with stale epoch for user ID: {}", verifiedJwt.getUserId());
+                return null;
+            }
+            return UserPrincipal.fromVerifiedJwt(verifiedJwt);
+        }
+        
+        UserDetails userDetails = verifiedJwt.getUserId() != null
+                ? userDetailsService.loadUserById(verifiedJwt.getUserId())
+                : userDetailsService.loadUserByUsername(verifiedJwt.getSubject());
+        if (tokenEpoch != null && userDetails instanceof UserPrincipal principal
+                && principal.getTokenEpoch() != tokenEpoch) {
+            logger.debug("Rejecting token with stale epoch for user: {}", verifiedJwt.getSubject());
+            return null;
+        }
+        return userDetails;
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -0,0 +1,99 @@
+package com.example.taskmanager.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose cost is fixed at construction, typically by {@link #calibrate}.
+ *
+ * Unlike {@link BCryptPasswordEncoder#upgradeEncoding(String)}, any stored hash at a
+ * different cost is reported as needing an upgrade, so hashes follow the configured
+ * cost in both directions as users log in.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final int MIN_BCRYPT_COST = 4;
+    private static final int MAX_BCRYPT_COST = 31;
+    private static final int SAMPLES = 3;
+
+    private final int cost;
+
+    public CalibratedBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int storedCost = costOf(encodedPassword);
+        return storedCost > 0 && storedCost != cost;
+    }
+
+    /**
+     * Cost factor of a BCrypt hash, or -1 if the value is not a BCrypt hash
+     */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(2)) : -1;
+    }
+
+    /**
+     * Pick the highest cost in [minCost, maxCost] whose median hash time on this
+     * machine stays within the target; minCost is returned when even that is slower.
+     *
+     * Each cost step doubles the work, so measuring stops at the first cost over target.
+     */
+    public static int calibrate(long targetMs, int minCost, int maxCost) {
+        int lower = Math.max(MIN_BCRYPT_COST, minCost);
+        int upper = Math.min(MAX_BCRYPT_COST, Math.max(lower, maxCost));
+
+        // Let the JIT compile the hashing loop before anything is timed
+        BCryptPasswordEncoder warmup = new BCryptPasswordEncoder(MIN_BCRYPT_COST);
+        for (int i = 0; i < 20; i++) {
+            warmup.encode("calibration-warmup");
+        }
+
+        int chosen = lower;
+        double chosenMs = medianHashMillis(lower);
+        // Skip costs whose doubled time is clearly over target rather than paying to measure them
+        for (int candidate = lower + 1; candidate <= upper && chosenMs * 2 <= targetMs * 1.25; candidate++) {
+            double candidateMs = medianHashMillis(candidate);
+            if (candidateMs > targetMs) {
+                break;
+            }
+            chosen = candidate;
+            chosenMs = candidateMs;
+        }
+
+        logger.info("BCrypt cost calibrated to {} ({} ms per hash, target {} ms, range {}-{})",
+            chosen, String.format("%.1f", chosenMs), targetMs, lower, upper);
+        return chosen;
+    }
+
+    private static double medianHashMillis(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-sample");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2] / 1_000_000.0;
+    }
+}
@@ -2,29 +2,61 @@ package com.example.taskmanager.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
+    static final String CLAIM_TOKEN_EPOCH = "epoch";
+    static final String CLAIM_TOKEN_TYPE = "type";
+    static final String TOKEN_TYPE_ACCESS = "access";
+    static final String TOKEN_TYPE_REFRESH = "refresh";
+    
     @Value("${app.jwt.secret}")
     private String jwtSecret;
     
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
     
+    @Value("${app.jwt.refresh-expiration:604800000}")
+    private long jwtRefreshExpirationMs;
+    
+    @Value("${app.jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+    
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokens;
+    
+    /**
+     * Build the signing key, parser and verified-token cache once; all are thread-safe
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = verifiedCacheMaxSize > 0 ? new VerifiedTokenCache(verifiedCacheMaxSize) : null;
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
     
     /**
@@ -33,26 +65,54 @@ public class JwtUtils {
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         
-        return Jwts.builder()
-                .subject(userPrincipal.getUsername())
-                .claim("userId", userPrincipal.getId())
-                .claim("email", userPrincipal.getEmail())
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
-                .compact();
+        return generateTokenFromUsername(
+            userPrincipal.getUsername(),
+            userPrincipal.getId(),
+            userPrincipal.getEmail(),
+            userPrincipal.getTokenEpoch()
+        );
     }
     
     /**
      * Generate JWT token from username
      */
     public String generateTokenFromUsername(String username, Long userId, String email) {
+        return generateTokenFromUsername(username, userId, email, 0);
+    }
+    
+    /**
+     * Generate a short-lived access token bound to the user's current token epoch
+     */
+    public String generateTokenFromUsername(String username, Long userId, String email, int tokenEpoch) {
+        return buildToken(username, userId, email, tokenEpoch, TOKEN_TYPE_ACCESS, jwtExpirationMs);
+    }
+    
+    /**
+     * Generate a refresh token; it is only accepted by /auth/refresh, never as a bearer token
+     */
+    public String generateRefreshToken(String username, Long userId, String email, int tokenEpoch) {
+        return buildToken(username, userId, email, tokenEpoch, TOKEN_TYPE_REFRESH, jwtRefreshExpirationMs);
+    }
+    
+    /**
+     * Access token lifetime in milliseconds
+     */
+    public long getJwtExpirationMs() {
+        return jwtExpirationMs;
+    }
+    
+    private String buildToken(String username, Long userId, String email, int tokenEpoch,
+                              String tokenType, long lifetimeMs) {
+        Date issuedAt = new Date();
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .claim("userId", userId)
                 .claim("email", email)
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .claim(CLAIM_TOKEN_EPOCH, tokenEpoch)
+                .claim(CLAIM_TOKEN_TYPE, tokenType)
+                .issuedAt(issuedAt)
+                .expiration(new Date(issuedAt.getTime() + lifetimeMs))
                 .signWith(getSigningKey())
                 .compact();
     }
@@ -61,50 +121,36 @@ public class JwtUtils {
      * Get username from JWT token
      */
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseVerified(token).getSubject();
     }
     
     /**
      * Get user ID from JWT token
      */
     public Long getUserIdFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("userId", Long.class);
+        return parseVerified(token).getUserId();
     }
     
     /**
      * Get email from JWT token
      */
     public String getEmailFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("email", String.class);
+        return parseVerified(token).getEmail();
     }
     
     /**
      * Validate JWT token
      */
     public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken).isPresent();
+    }
+    
+    /**
+     * Verify a token once and return its claims, or empty if it is invalid or expired
+     */
+    public Optional<VerifiedJwt> verifyJwtToken(String authToken) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return Optional.of(parseVerified(authToken));
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -117,19 +163,14 @@ public class JwtUtils {
             logger.error("JWT token validation error: {}", e.getMessage());
         }
         
-        return false;
+        return Optional.empty();
     }
     
     /**
      * Get expiration date from JWT token
      */
     public Date getExpirationDateFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+        return new Date(parseVerified(token).getExpirationMillis());
     }
     
     /**
@@ -139,5 +180,23 @@ public class JwtUtils {
         Date expiration = getExpirationDateFromJwtToken(token);
         return expiration.before(new Date());
     }
+    
+    /**
+     * Parse and verify a token, consulting the verified-token cache first.
+     * Throws the underlying {@link JwtException} when the token is rejected.
+     */
+    private VerifiedJwt parseVerified(String token) {
+        if (verifiedTokens == null || !StringUtils.hasText(token)) {
+            return VerifiedJwt.from(jwtParser.parseSignedClaims(token).getPayload());
+        }
+        
+        String digest = VerifiedTokenCache.digest(token);
+        VerifiedJwt verified = verifiedTokens.get(digest);
+        if (verified == null) {
+            verified = VerifiedJwt.from(jwtParser.parseSignedClaims(token).getPayload());
+            verifiedTokens.put(digest, verified);
+        }
+        return verified;
+    }
 }
 
@@ -0,0 +1,149 @@
+package com.example.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Token-bucket limits for the password endpoints, applied per client IP and per
+ * username before any hashing work is queued, plus a separate per-IP budget for
+ * the signup form's availability lookups.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private final Cache<String, TokenBucket> bucketsByIp;
+    private final Cache<String, TokenBucket> bucketsByUsername;
+    private final Cache<String, TokenBucket> availabilityBucketsByIp;
+    private final int ipCapacity;
+    private final double ipRefillPerSecond;
+    private final int usernameCapacity;
+    private final double usernameRefillPerSecond;
+    private final int availabilityCapacity;
+    private final double availabilityRefillPerSecond;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${app.security.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${app.security.rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+                            @Value("${app.security.rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${app.security.rate-limit.username.refill-per-minute:5}") int usernameRefillPerMinute,
+                            @Value("${app.security.rate-limit.availability.capacity:60}") int availabilityCapacity,
+                            @Value("${app.security.rate-limit.availability.refill-per-minute:60}") int availabilityRefillPerMinute,
+                            @Value("${app.security.rate-limit.max-tracked-keys:100000}") long maxTrackedKeys,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(ipCapacity, ipRefillPerMinute, usernameCapacity, usernameRefillPerMinute,
+            availabilityCapacity, availabilityRefillPerMinute, maxTrackedKeys, meterRegistry.getIfAvailable());
+    }
+
+    LoginRateLimiter(int ipCapacity, int ipRefillPerMinute, int usernameCapacity, int usernameRefillPerMinute,
+                     int availabilityCapacity, int availabilityRefillPerMinute,
+                     long maxTrackedKeys, MeterRegistry meterRegistry) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerMinute / 60.0;
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerSecond = usernameRefillPerMinute / 60.0;
+        this.availabilityCapacity = availabilityCapacity;
+        this.availabilityRefillPerSecond = availabilityRefillPerMinute / 60.0;
+        this.bucketsByIp = newBucketCache(maxTrackedKeys);
+        this.bucketsByUsername = newBucketCache(maxTrackedKeys);
+        this.availabilityBucketsByIp = newBucketCache(maxTrackedKeys);
+        this.meterRegistry = meterRegistry;
+    }
+
+    private static Cache<String, TokenBucket> newBucketCache(long maxTrackedKeys) {
+        // An idle bucket refills completely well within this window, so dropping it loses nothing
+        return Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(15))
+                .maximumSize(maxTrackedKeys)
+                .build();
+    }
+
+    /**
+     * Take one token for the client IP and, when given, for the username.
+     *
+     * @throws TooManyRequestsException when either bucket is empty
+     */
+    public void checkAttempt(String clientIp, String username) {
+        if (clientIp != null) {
+            TokenBucket ipBucket = bucketsByIp.get(clientIp, key -> new TokenBucket(ipCapacity, ipRefillPerSecond));
+            reject("ip", clientIp, ipBucket.tryConsume());
+        }
+
+        if (username != null && !username.isBlank()) {
+            String key = username.trim().toLowerCase(Locale.ROOT);
+            TokenBucket userBucket = bucketsByUsername.get(key, k -> new TokenBucket(usernameCapacity, usernameRefillPerSecond));
+            reject("username", key, userBucket.tryConsume());
+        }
+    }
+
+    /**
+     * Take one token from the client IP's availability-lookup budget, which is kept
+     * apart from the login budget so typing in the signup form cannot lock out a login.
+     *
+     * @throws TooManyRequestsException when the bucket is empty
+     */
+    public void checkAvailabilityLookup(String clientIp) {
+        if (clientIp != null) {
+            TokenBucket bucket = availabilityBucketsByIp.get(clientIp,
+                key -> new TokenBucket(availabilityCapacity, availabilityRefillPerSecond));
+            reject("availability", clientIp, bucket.tryConsume());
+        }
+    }
+
+    private void reject(String scope, String key, long retryAfterSeconds) {
+        if (retryAfterSeconds == 0) {
+            return;
+        }
+        if (meterRegistry != null) {
+            meterRegistry.counter("auth.rate.limited", "scope", scope).increment();
+        }
+        logger.warn("Rate limit exceeded for {}: {}", scope, key);
+        throw new TooManyRequestsException("Too many attempts, please retry later", retryAfterSeconds);
+    }
+
+    /**
+     * Classic token bucket refilled continuously from the monotonic clock
+     */
+    static final class TokenBucket {
+
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * @return 0 when a token was taken, otherwise the seconds until one is available
+         */
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0;
+            }
+            double nanosUntilToken = (1.0 - tokens) / refillPerNano;
+            return Math.max(1L, (long) Math.ceil(nanosUntilToken / 1_000_000_000.0));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.taskmanager.security;
+
+/**
+ * Thrown when a request is shed by a rate limit or a full bulkhead; maps to HTTP 429.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -16,14 +16,21 @@ public class UserPrincipal implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private int tokenEpoch;
     
     public UserPrincipal(Long id, String username, String email, String password, 
                         Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, email, password, authorities, 0);
+    }
+    
+    public UserPrincipal(Long id, String username, String email, String password, 
+                        Collection<? extends GrantedAuthority> authorities, int tokenEpoch) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.tokenEpoch = tokenEpoch;
     }
     
     public static UserPrincipal create(User user) {
@@ -36,7 +43,27 @@ public class UserPrincipal implements UserDetails {
             user.getUsername(),
             user.getEmail(),
             user.getPassword(),
-            authorities
+            authorities,
+            user.getTokenEpoch()
+        );
+    }
+    
+    /**
+     * Rebuild a principal from verified token claims alone, without a database lookup.
+     * The result carries no password.
+     */
+    public static UserPrincipal fromVerifiedJwt(VerifiedJwt jwt) {
+        Collection<GrantedAuthority> authorities = Collections.singletonList(
+            new SimpleGrantedAuthority("ROLE_USER")
+        );
+        
+        return new UserPrincipal(
+            jwt.getUserId(),
+            jwt.getSubject(),
+            jwt.getEmail(),
+            null,
+            authorities,
+            jwt.getTokenEpoch() != null ? jwt.getTokenEpoch() : 0
         );
     }
     
@@ -48,6 +75,10 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
     
+    public int getTokenEpoch() {
+        return tokenEpoch;
+    }
+    
     @Override
     public String getUsername() {
         return username;
@@ -0,0 +1,94 @@
+package com.example.taskmanager.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked.
+ * Instances are immutable and may be shared between requests.
+ */
+public final class VerifiedJwt {
+
+    private final String tokenId;
+    private final String tokenType;
+    private final String subject;
+    private final Long userId;
+    private final String email;
+    private final Integer tokenEpoch;
+    private final long issuedAtMillis;
+    private final long expirationMillis;
+
+    private VerifiedJwt(String tokenId, String tokenType, String subject, Long userId, String email,
+                        Integer tokenEpoch, long issuedAtMillis, long expirationMillis) {
+        this.tokenId = tokenId;
+        this.tokenType = tokenType;
+        this.subject = subject;
+        this.userId = userId;
+        this.email = email;
+        this.tokenEpoch = tokenEpoch;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expirationMillis = expirationMillis;
+    }
+
+    /**
+     * Copy the claims we rely on out of a parsed payload
+     */
+    static VerifiedJwt from(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+
+        return new VerifiedJwt(
+            claims.getId(),
+            claims.get(JwtUtils.CLAIM_TOKEN_TYPE, String.class),
+            claims.getSubject(),
+            claims.get("userId", Long.class),
+            claims.get("email", String.class),
+            claims.get(JwtUtils.CLAIM_TOKEN_EPOCH, Integer.class),
+            issuedAt != null ? issuedAt.getTime() : 0L,
+            expiration != null ? expiration.getTime() : Long.MAX_VALUE
+        );
+    }
+
+    /**
+     * Token ID (jti), or {@code null} for tokens issued before IDs were assigned
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public boolean isRefreshToken() {
+        return JwtUtils.TOKEN_TYPE_REFRESH.equals(tokenType);
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Token epoch the token was issued under, or {@code null} for tokens that predate epochs
+     */
+    public Integer getTokenEpoch() {
+        return tokenEpoch;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    public boolean isExpiredAt(long nowMillis) {
+        return expirationMillis <= nowMillis;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.util.BloomFilter;
+import com.example.taskmanager.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Answers "is this username / email free?" for the signup form from in-memory
+ * Bloom filters of taken identifiers, so keystroke-level checks never reach the database.
+ *
+ * A negative answer from the filter is exact; a positive one may be a false positive
+ * and is reported as taken. The filters are built from the database once the
+ * application is ready, updated after each local registration commits, and rebuilt
+ * periodically to drop deleted accounts and pick up other instances' registrations.
+ * Registration itself relies on the unique constraints, never on this answer.
+ */
+@Service
+public class AvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityService.class);
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+
+    private volatile Filters filters;
+    // Filters being rebuilt; registrations land in both so none is lost in the swap
+    private Filters building;
+    // Guards building and the swap, so a registration reaches whichever filters are published next
+    private final Object swapLock = new Object();
+
+    @Autowired
+    public AvailabilityService(UserRepository userRepository,
+                               @Value("${app.availability.expected-users:200000}") long expectedUsers) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+    }
+
+    /**
+     * Check whether a username is free; null until the filters have been built
+     */
+    public Boolean isUsernameAvailable(String username) {
+        Filters current = filters;
+        return current == null ? null : !current.usernames.mightContain(User.normalize(username));
+    }
+
+    /**
+     * Check whether an email is free; null until the filters have been built
+     */
+    public Boolean isEmailAvailable(String email) {
+        Filters current = filters;
+        return current == null ? null : !current.emails.mightContain(User.normalize(email));
+    }
+
+    /**
+     * Record a new account's identifiers once its transaction commits
+     */
+    public void recordRegistration(User user) {
+        String username = user.getUsernameNormalized();
+        String email = user.getEmailNormalized();
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (swapLock) {
+                if (filters != null) {
+                    filters.add(username, email);
+                }
+                if (building != null) {
+                    building.add(username, email);
+                }
+            }
+        });
+    }
+
+    /**
+     * Build the filters from every stored account
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.availability.rebuild-ms:3600000}",
+               initialDelayString = "${app.availability.rebuild-ms:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long capacity = Math.max(expectedUsers, userRepository.count() * 2);
+        Filters next = new Filters(
+            new BloomFilter(capacity, FALSE_POSITIVE_PROBABILITY),
+            new BloomFilter(capacity, FALSE_POSITIVE_PROBABILITY)
+        );
+        synchronized (swapLock) {
+            building = next;
+        }
+
+        long loaded = 0;
+        boolean complete = false;
+        try (Stream<Object[]> identifiers = userRepository.streamNormalizedIdentifiers()) {
+            for (Object[] row : (Iterable<Object[]>) identifiers::iterator) {
+                next.add((String) row[0], (String) row[1]);
+                loaded++;
+            }
+            complete = true;
+        } finally {
+            // Publishing and clearing together leaves no moment when a registration reaches neither
+            synchronized (swapLock) {
+                if (complete) {
+                    filters = next;
+                }
+                building = null;
+            }
+        }
+
+        logger.info("Built availability filters for {} accounts", loaded);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        void add(String username, String email) {
+            usernames.put(username);
+            emails.put(email);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskCounter;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.repository.TaskCounterRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the per-user {@link TaskCounter} summary in step with task writes.
+ *
+ * Task writes adjust the counters inside their own transaction. A user's counters
+ * are created from a full count the first time their statistics are read, and a
+ * periodic reconciliation recounts every summarised user and repairs any drift,
+ * such as a write that committed while the summary was being created.
+ */
+@Service
+public class TaskCounterService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskCounterService.class);
+    
+    private final TaskCounterRepository taskCounterRepository;
+    private final TaskRepository taskRepository;
+    private final TaskVersionService taskVersionService;
+    private final TransactionTemplate requiresNew;
+    private final int batchSize;
+    private final MeterRegistry meterRegistry;
+    
+    @Autowired
+    public TaskCounterService(TaskCounterRepository taskCounterRepository, TaskRepository taskRepository,
+                              TaskVersionService taskVersionService, PlatformTransactionManager transactionManager,
+                              @Value("${app.tasks.counters.reconcile-batch-size:500}") int batchSize,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        this.taskCounterRepository = taskCounterRepository;
+        this.taskRepository = taskRepository;
+        this.taskVersionService = taskVersionService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+    
+    /**
+     * Find a user's counters; empty until they have been created
+     */
+    public List<TaskCounter> getCounters(Long userId) {
+        return taskCounterRepository.findByUserId(userId);
+    }
+    
+    /**
+     * Count a created task, within the caller's transaction
+     */
+    public void taskAdded(Long userId, Task task) {
+        adjust(userId, task.getStatus(), task.getPriority(), task.getDueDate() != null, 1);
+    }
+    
+    /**
+     * Count a batch of created tasks sharing a status and priority, within the caller's
+     * transaction; {@code dated} of them have a due date
+     */
+    public void tasksAdded(Long userId, TaskStatus status, TaskPriority priority, long tasks, long dated) {
+        taskCounterRepository.adjust(userId, status, priority, tasks, dated);
+    }
+    
+    /**
+     * Uncount a deleted task, within the caller's transaction
+     */
+    public void taskRemoved(Long userId, Task task) {
+        adjust(userId, task.getStatus(), task.getPriority(), task.getDueDate() != null, -1);
+    }
+    
+    /**
+     * Move an updated task between counters, within the caller's transaction
+     */
+    public void taskChanged(Long userId, TaskStatus oldStatus, TaskPriority oldPriority, boolean wasDated, Task task) {
+        boolean dated = task.getDueDate() != null;
+        if (oldStatus == task.getStatus() && oldPriority == task.getPriority() && wasDated == dated) {
+            return;
+        }
+        adjust(userId, oldStatus, oldPriority, wasDated, -1);
+        adjust(userId, task.getStatus(), task.getPriority(), dated, 1);
+    }
+    
+    /**
+     * Move tasks changed in bulk between counters, within the caller's transaction
+     *
+     * @param rows     the changed tasks as counted by
+     *                 {@link TaskRepository#countMatchingByStatusAndPriority} before the change
+     * @param status   the status they were given, or null when unchanged
+     * @param priority the priority they were given, or null when unchanged
+     * @param dated    whether they now have a due date, or null when unchanged
+     */
+    public void tasksChanged(Long userId, List<Object[]> rows, TaskStatus status, TaskPriority priority,
+                             Boolean dated) {
+        for (Object[] row : rows) {
+            TaskStatus oldStatus = (TaskStatus) row[0];
+            TaskPriority oldPriority = (TaskPriority) row[1];
+            long tasks = ((Number) row[2]).longValue();
+            long wasDated = ((Number) row[3]).longValue();
+            TaskStatus newStatus = status != null ? status : oldStatus;
+            TaskPriority newPriority = priority != null ? priority : oldPriority;
+            long nowDated = dated == null ? wasDated : dated ? tasks : 0;
+            if (oldStatus == newStatus && oldPriority == newPriority && wasDated == nowDated) {
+                continue;
+            }
+            taskCounterRepository.adjust(userId, oldStatus, oldPriority, -tasks, -wasDated);
+            taskCounterRepository.adjust(userId, newStatus, newPriority, tasks, nowDated);
+        }
+    }
+    
+    /**
+     * Uncount tasks deleted in bulk, within the caller's transaction
+     *
+     * @param rows the deleted tasks as counted by
+     *             {@link TaskRepository#countMatchingByStatusAndPriority} before the delete
+     */
+    public void tasksRemoved(Long userId, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            taskCounterRepository.adjust(userId, (TaskStatus) row[0], (TaskPriority) row[1],
+                    -((Number) row[2]).longValue(), -((Number) row[3]).longValue());
+        }
+    }
+    
+    /**
+     * Create a user's counters from rows of {@link TaskRepository#countByStatusAndPriority},
+     * within the caller's transaction. Counters another request created first are kept,
+     * so losing that race neither fails nor rolls back the caller.
+     */
+    public void createCounters(Long userId, List<Object[]> rows) {
+        Map<TaskCounter.Key, TaskCounter> counters = emptyCounters(userId);
+        apply(userId, rows, counters);
+        int inserted = taskCounterRepository.insertIfAbsent(counters.values());
+        if (inserted < counters.size()) {
+            logger.debug("Task counters for user ID: {} were created concurrently", userId);
+        } else {
+            logger.debug("Created task counters for user ID: {}", userId);
+        }
+    }
+    
+    /**
+     * Recount every summarised user and repair counters that have drifted
+     */
+    @Scheduled(fixedDelayString = "${app.tasks.counters.reconcile-ms:3600000}",
+               initialDelayString = "${app.tasks.counters.reconcile-ms:3600000}")
+    public void reconcileAll() {
+        long start = System.currentTimeMillis();
+        int users = 0;
+        int repaired = 0;
+        Long after = 0L;
+        List<Long> userIds;
+        do {
+            userIds = taskCounterRepository.findUserIdsAfter(after, PageRequest.of(0, batchSize));
+            for (Long userId : userIds) {
+                if (reconcile(userId)) {
+                    repaired++;
+                }
+                users++;
+                after = userId;
+            }
+        } while (userIds.size() == batchSize);
+        logger.info("Reconciled task counters for {} users in {} ms, {} repaired",
+                users, System.currentTimeMillis() - start, repaired);
+    }
+    
+    /**
+     * Recount one user's tasks and overwrite their counters where they differ
+     *
+     * @return whether any counter had drifted
+     */
+    public boolean reconcile(Long userId) {
+        Boolean drifted = requiresNew.execute(status -> {
+            // Lock first: a task write adjusts the counters after changing its row, so it either
+            // committed before the recount below or is blocked until the repair commits
+            Map<TaskCounter.Key, TaskCounter> stored = new HashMap<>();
+            for (TaskCounter counter : taskCounterRepository.lockByUserId(userId)) {
+                stored.put(counter.getId(), counter);
+            }
+            Map<TaskCounter.Key, TaskCounter> actual = emptyCounters(userId);
+            LocalDate today = LocalDate.now();
+            apply(userId, taskRepository.countByStatusAndPriority(userId, today, today), actual);
+            
+            boolean changed = false;
+            for (TaskCounter expected : actual.values()) {
+                TaskCounter current = stored.get(expected.getId());
+                if (current == null) {
+                    taskCounterRepository.save(expected);
+                    changed = true;
+                } else if (current.getTaskCount() != expected.getTaskCount()
+                        || current.getDatedCount() != expected.getDatedCount()) {
+                    current.setTaskCount(expected.getTaskCount());
+                    current.setDatedCount(expected.getDatedCount());
+                    changed = true;
+                }
+            }
+            if (changed) {
+                // Statistics already served from the drifted counters must not be revalidated
+                taskVersionService.bump(userId);
+            }
+            return changed;
+        });
+        if (Boolean.TRUE.equals(drifted)) {
+            logger.warn("Repaired drifted task counters for user ID: {}", userId);
+            if (meterRegistry != null) {
+                meterRegistry.counter("tasks.counters.repaired").increment();
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    private void adjust(Long userId, TaskStatus status, TaskPriority priority, boolean dated, int delta) {
+        // No row means no counters yet; they will be created from a full count on the next read
+        taskCounterRepository.adjust(userId, status, priority, delta, dated ? delta : 0);
+    }
+    
+    private static Map<TaskCounter.Key, TaskCounter> emptyCounters(Long userId) {
+        Map<TaskCounter.Key, TaskCounter> counters = new HashMap<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            for (TaskPriority priority : TaskPriority.values()) {
+                TaskCounter counter = new TaskCounter(userId, status, priority, 0, 0);
+                counters.put(counter.getId(), counter);
+            }
+        }
+        return counters;
+    }
+    
+    private static void apply(Long userId, List<Object[]> rows, Map<TaskCounter.Key, TaskCounter> counters) {
+        for (Object[] row : rows) {
+            TaskCounter counter = counters.get(new TaskCounter.Key(userId, (TaskStatus) row[0], (TaskPriority) row[1]));
+            long total = ((Number) row[2]).longValue();
+            long undated = ((Number) row[7]).longValue();
+            counter.setTaskCount(total);
+            counter.setDatedCount(total - undated);
+        }
+    }
+}
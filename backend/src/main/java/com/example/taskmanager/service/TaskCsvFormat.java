@@ -0,0 +1,29 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.util.CsvWriter;
+
+import java.io.IOException;
+
+/**
+ * The CSV layout GET /tasks/export writes and POST /tasks/import reads back: the
+ * columns POST /tasks accepts plus the read-only id and timestamps. Status and
+ * priority are written as their constant names, which the import parses, rather
+ * than their display names.
+ */
+public final class TaskCsvFormat {
+
+    private TaskCsvFormat() {
+    }
+
+    public static void writeHeader(CsvWriter csv) throws IOException {
+        csv.writeRow("id", "title", "description", "status", "priority", "dueDate", "createdAt", "updatedAt");
+    }
+
+    public static void writeTask(CsvWriter csv, TaskResponse task) throws IOException {
+        csv.writeRow(task.getId(), task.getTitle(), task.getDescription(),
+                task.getStatus() != null ? task.getStatus().name() : null,
+                task.getPriority() != null ? task.getPriority().name() : null,
+                task.getDueDate(), task.getCreatedAt(), task.getUpdatedAt());
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskImportReport;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bulk task import from NDJSON or CSV.
+ *
+ * The input is read one record at a time and validated against the same
+ * constraints as {@link TaskCreateRequest}. Valid rows are gathered into chunks,
+ * and each chunk is written in batched inserts, together with its counter updates,
+ * in a transaction of its own. Memory is bounded by the chunk size however long
+ * the input is, and a rejected row or a chunk that fails to save is reported
+ * without undoing the rows around it. An import reads at most {@code maxRows}
+ * records, valid or not, so one request cannot insert tasks without limit.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+
+    /**
+     * Longest NDJSON line or CSV record accepted; comfortably above the largest valid task
+     */
+    private static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    /**
+     * Input formats, matching those of GET /tasks/export
+     */
+    public enum Format {
+        NDJSON, CSV;
+
+        /**
+         * @throws IllegalArgumentException when the format is not supported
+         */
+        public static Format fromParameter(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported import format: " + value);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TaskCounterService taskCounterService;
+    private final TaskSuggestionService taskSuggestionService;
+    private final TaskVersionService taskVersionService;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final long maxRows;
+
+    @Autowired
+    public TaskImportService(PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, Validator validator, TaskCounterService taskCounterService,
+                             TaskSuggestionService taskSuggestionService, TaskVersionService taskVersionService,
+                             @Value("${app.tasks.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.tasks.import.max-errors:1000}") int maxErrors,
+                             @Value("${app.tasks.import.max-rows:100000}") long maxRows) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.taskCounterService = taskCounterService;
+        this.taskSuggestionService = taskSuggestionService;
+        this.taskVersionService = taskVersionService;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Import every valid record of the input as a task of the user. Input that cannot
+     * be read further, such as an unterminated CSV quote, stops the import; the rows
+     * before it are kept and the report says why it stopped. So does a record beyond
+     * the first {@code maxRows}.
+     */
+    public TaskImportReport importTasks(Long userId, Format format, Reader input) {
+        logger.debug("Importing {} tasks for user ID: {}", format, userId);
+
+        TaskImportReport report = new TaskImportReport(maxErrors);
+        RecordSource records = format == Format.CSV ? new CsvSource(input) : new NdjsonSource(input);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long rows = 0;
+        try {
+            ImportRow row;
+            while ((row = records.next()) != null) {
+                if (++rows > maxRows) {
+                    logger.warn("Stopped importing tasks for user ID: {} after {} rows", userId, maxRows);
+                    report.abort("Line " + row.line + ": imports are limited to " + maxRows + " rows");
+                    break;
+                }
+                if (row.errors.isEmpty()) {
+                    validate(row);
+                }
+                if (!row.errors.isEmpty()) {
+                    report.addError(row.line, row.errors);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    save(userId, chunk, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Stopped importing tasks for user ID: {}: {}", userId, e.getMessage());
+            report.abort(e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            save(userId, chunk, report);
+        }
+
+        if (report.getImported() > 0) {
+            // Too many new ids to index one by one; the typeahead index reloads on next use
+            taskSuggestionService.forget(userId);
+        }
+        logger.info("Imported {} tasks for user ID: {}, {} rows rejected",
+                report.getImported(), userId, report.getFailed());
+        return report;
+    }
+
+    private void validate(ImportRow row) {
+        for (ConstraintViolation<TaskCreateRequest> violation : validator.validate(row.request)) {
+            row.errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (row.request.getStatus() == null) {
+            row.request.setStatus(TaskStatus.PENDING);
+        }
+        if (row.request.getPriority() == null) {
+            row.request.setPriority(TaskPriority.MEDIUM);
+        }
+    }
+
+    /**
+     * Insert a chunk and count it, in one transaction. Pooled ids let Hibernate hold the
+     * inserts until the flush and send them as JDBC batches of hibernate.jdbc.batch_size.
+     */
+    private void save(Long userId, List<ImportRow> chunk, TaskImportReport report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                User owner = entityManager.getReference(User.class, userId);
+                for (ImportRow row : chunk) {
+                    Task task = new Task(row.request.getTitle(), owner);
+                    task.setDescription(row.request.getDescription());
+                    task.setStatus(row.request.getStatus());
+                    task.setPriority(row.request.getPriority());
+                    task.setDueDate(row.request.getDueDate());
+                    entityManager.persist(task);
+                }
+                entityManager.flush();
+                count(userId, chunk);
+                taskVersionService.bump(userId);
+                // Keep the persistence context at one chunk however long the import runs
+                entityManager.clear();
+            });
+            report.addImported(chunk.size());
+        } catch (DataAccessException | PersistenceException e) {
+            logger.warn("Failed to save {} imported tasks for user ID: {}", chunk.size(), userId, e);
+            Map<String, String> error = Map.of("record",
+                    "Not saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (ImportRow row : chunk) {
+                report.addError(row.line, error);
+            }
+        }
+    }
+
+    /**
+     * One counter update per status and priority present in the chunk
+     */
+    private void count(Long userId, List<ImportRow> chunk) {
+        long[][] tasks = new long[TaskStatus.values().length][TaskPriority.values().length];
+        long[][] dated = new long[TaskStatus.values().length][TaskPriority.values().length];
+        for (ImportRow row : chunk) {
+            int status = row.request.getStatus().ordinal();
+            int priority = row.request.getPriority().ordinal();
+            tasks[status][priority]++;
+            if (row.request.getDueDate() != null) {
+                dated[status][priority]++;
+            }
+        }
+        for (TaskStatus status : TaskStatus.values()) {
+            for (TaskPriority priority : TaskPriority.values()) {
+                long count = tasks[status.ordinal()][priority.ordinal()];
+                if (count > 0) {
+                    taskCounterService.tasksAdded(userId, status, priority, count,
+                            dated[status.ordinal()][priority.ordinal()]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A parsed record, with the problems found in it by field
+     */
+    private static final class ImportRow {
+        private final int line;
+        private final TaskCreateRequest request;
+        private final Map<String, String> errors;
+
+        private ImportRow(int line, TaskCreateRequest request, Map<String, String> errors) {
+            this.line = line;
+            this.request = request;
+            this.errors = errors;
+        }
+    }
+
+    private interface RecordSource {
+        /**
+         * @return the next record, or null at the end of the input
+         */
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * One JSON object per line, in the shape of a POST /tasks body; other fields are ignored
+     */
+    private final class NdjsonSource implements RecordSource {
+        private final Reader input;
+        private final StringBuilder text = new StringBuilder();
+        private int line;
+
+        private NdjsonSource(Reader input) {
+            this.input = input;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            do {
+                if (!readLine()) {
+                    return null;
+                }
+            } while (text.toString().isBlank());
+
+            Map<String, String> errors = new LinkedHashMap<>();
+            TaskCreateRequest request = null;
+            try {
+                request = objectMapper.readValue(text.toString(), TaskCreateRequest.class);
+                if (request == null) {
+                    errors.put("record", "Expected a JSON object");
+                }
+            } catch (JsonMappingException e) {
+                String field = e.getPath().isEmpty() ? null : e.getPath().get(e.getPath().size() - 1).getFieldName();
+                if (field == null) {
+                    errors.put("record", "Expected a JSON object");
+                } else {
+                    errors.put(field, e instanceof InvalidFormatException invalid
+                            ? "Invalid value: " + invalid.getValue()
+                            : "Invalid value");
+                }
+            } catch (JsonProcessingException e) {
+                errors.put("record", "Malformed JSON: " + e.getOriginalMessage());
+            }
+            return new ImportRow(line, request, errors);
+        }
+
+        private boolean readLine() throws IOException {
+            text.setLength(0);
+            int c = input.read();
+            if (c == -1) {
+                return false;
+            }
+            line++;
+            while (c != -1 && c != '\n') {
+                if (text.length() == MAX_RECORD_CHARS) {
+                    throw new IOException("Line " + line + " exceeds " + MAX_RECORD_CHARS + " characters");
+                }
+                text.append((char) c);
+                c = input.read();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * CSV with a header row naming the columns; title is required, description,
+     * status, priority and dueDate are optional, and any others are ignored
+     */
+    private static final class CsvSource implements RecordSource {
+        private final CsvReader csv;
+        private Map<String, Integer> columns;
+
+        private CsvSource(Reader input) {
+            this.csv = new CsvReader(input, MAX_RECORD_CHARS);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (columns == null) {
+                readHeader();
+            }
+            List<String> fields = csv.readRecord();
+            if (fields == null) {
+                return null;
+            }
+
+            Map<String, String> errors = new LinkedHashMap<>();
+            TaskCreateRequest request = new TaskCreateRequest();
+            request.setTitle(field(fields, "title"));
+            request.setDescription(field(fields, "description"));
+            request.setStatus(parse(fields, "status", errors, value -> TaskStatus.valueOf(value.toUpperCase(Locale.ROOT))));
+            request.setPriority(parse(fields, "priority", errors, value -> TaskPriority.valueOf(value.toUpperCase(Locale.ROOT))));
+            request.setDueDate(parse(fields, "dueDate", errors, LocalDate::parse));
+            return new ImportRow(csv.getRecordLine(), request, errors);
+        }
+
+        private void readHeader() throws IOException {
+            columns = new HashMap<>();
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                return;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                // Spreadsheet tools often prepend a byte order mark
+                String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                columns.putIfAbsent(name, i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new IOException("CSV header must include a title column");
+            }
+        }
+
+        /**
+         * The named column of the record, or null when it is absent or empty
+         */
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return CsvReader.stripFormulaGuard(fields.get(index));
+        }
+
+        private <T> T parse(List<String> fields, String column, Map<String, String> errors,
+                            Function<String, T> parser) {
+            String value = field(fields, column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return parser.apply(value.trim());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errors.put(column, "Invalid value: " + value);
+                return null;
+            }
+        }
+    }
+}
@@ -1,24 +1,45 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.TaskBulkRequest;
 import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskPatchRequest;
 import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.dto.TaskSearchHit;
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskCounter;
 import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
-import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskChange;
+import com.example.taskmanager.repository.TaskCursor;
+import com.example.taskmanager.repository.TaskFilter;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSearchRepository;
+import com.example.taskmanager.repository.TaskSortField;
+import com.example.taskmanager.repository.TaskWriteRepository;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.util.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -28,11 +49,24 @@ public class TaskService {
     
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final TaskSearchRepository taskSearchRepository;
+    private final TaskWriteRepository taskWriteRepository;
+    private final TaskSuggestionService taskSuggestionService;
+    private final TaskCounterService taskCounterService;
+    private final TaskVersionService taskVersionService;
     
     @Autowired
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository,
+                       TaskSearchRepository taskSearchRepository, TaskWriteRepository taskWriteRepository,
+                       TaskSuggestionService taskSuggestionService, TaskCounterService taskCounterService,
+                       TaskVersionService taskVersionService) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.taskSearchRepository = taskSearchRepository;
+        this.taskWriteRepository = taskWriteRepository;
+        this.taskSuggestionService = taskSuggestionService;
+        this.taskCounterService = taskCounterService;
+        this.taskVersionService = taskVersionService;
     }
     
     /**
@@ -41,45 +75,75 @@ public class TaskService {
     public TaskResponse createTask(TaskCreateRequest request, Long userId) {
         logger.debug("Creating new task for user ID: {}", userId);
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
-        
         Task task = new Task();
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
         task.setStatus(request.getStatus() != null ? request.getStatus() : TaskStatus.PENDING);
         task.setPriority(request.getPriority() != null ? request.getPriority() : TaskPriority.MEDIUM);
         task.setDueDate(request.getDueDate());
-        task.setUser(user);
+        // The owner is only needed for its key; the version bump below finds an unknown user
+        task.setUser(userRepository.getReferenceById(userId));
         
         Task savedTask = taskRepository.save(task);
-        logger.info("Created task with ID: {} for user: {}", savedTask.getId(), user.getUsername());
+        taskCounterService.taskAdded(userId, savedTask);
+        taskSuggestionService.recordTask(userId, savedTask.getId(), savedTask.getTitle());
+        if (!taskVersionService.bump(userId)) {
+            // The insert waits for the flush at commit, so rolling back here keeps it from the foreign key
+            throw new RuntimeException("User not found with ID: " + userId);
+        }
+        logger.info("Created task with ID: {} for user ID: {}", savedTask.getId(), userId);
         
         return new TaskResponse(savedTask);
     }
     
     /**
-     * Get all tasks for a user
+     * Get a page of tasks matching the filter. Follows the cursor when one is given,
+     * otherwise returns the numbered page; either way the result carries a cursor
+     * for the next page.
      */
     @Transactional(readOnly = true)
-    public List<TaskResponse> getAllTasksByUser(Long userId) {
-        logger.debug("Fetching all tasks for user ID: {}", userId);
+    public CursorPage<TaskResponse> findTasks(Long userId, TaskFilter filter, TaskSortField sortField,
+                                              boolean descending, TaskCursor after, int page, int size,
+                                              boolean includeTotal) {
+        logger.debug("Fetching filtered tasks sorted by {} for user ID: {}", sortField.getProperty(), userId);
+        
+        // One extra row tells whether another page exists without counting
+        long offset = after == null ? (long) page * size : 0;
+        List<TaskResponse> tasks = taskRepository.findResponses(
+                userId, filter, sortField, descending, after, offset, size + 1);
+        String nextCursor = null;
+        if (tasks.size() > size) {
+            tasks = tasks.subList(0, size);
+            nextCursor = TaskCursor.after(tasks.get(size - 1), sortField, descending).encode();
+        }
         
-        List<Task> tasks = taskRepository.findByUserId(userId);
-        return tasks.stream()
-                .map(TaskResponse::new)
-                .collect(Collectors.toList());
+        Long total = includeTotal ? taskRepository.countResponses(userId, filter) : null;
+        return new CursorPage<>(tasks, nextCursor, total);
     }
     
     /**
-     * Get tasks with pagination
+     * Hand every task matching the filter to the sink as it is read, without holding the
+     * listing in memory. Tasks are read in seek pages, and no transaction is opened around
+     * them, so a sink writing to a slow client holds neither a transaction nor a
+     * connection between pages. A task changed meanwhile is listed as of the page that
+     * read it, as when paging through the listing.
+     *
+     * @return the number of tasks passed to the sink
      */
-    @Transactional(readOnly = true)
-    public Page<TaskResponse> getTasksByUserWithPagination(Long userId, Pageable pageable) {
-        logger.debug("Fetching tasks with pagination for user ID: {}", userId);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long streamTasks(Long userId, TaskFilter filter, TaskSortField sortField, boolean descending,
+                            Consumer<TaskResponse> sink) {
+        logger.debug("Streaming filtered tasks sorted by {} for user ID: {}", sortField.getProperty(), userId);
         
-        Page<Task> tasks = taskRepository.findByUserId(userId, pageable);
-        return tasks.map(TaskResponse::new);
+        long count = 0;
+        try (Stream<TaskResponse> tasks = taskRepository.streamResponses(userId, filter, sortField, descending)) {
+            Iterator<TaskResponse> rows = tasks.iterator();
+            while (rows.hasNext()) {
+                sink.accept(rows.next());
+                count++;
+            }
+        }
+        return count;
     }
     
     /**
@@ -89,115 +153,334 @@ public class TaskService {
     public TaskResponse getTaskById(Long taskId, Long userId) {
         logger.debug("Fetching task ID: {} for user ID: {}", taskId, userId);
         
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
+        return taskRepository.findResponseByIdAndUserId(taskId, userId)
                 .orElseThrow(() -> new RuntimeException("Task not found with ID: " + taskId));
-        
-        return new TaskResponse(task);
     }
     
     /**
-     * Update task
+     * Update task, replacing every field
+     *
+     * @param expectedVersion the version the client last read, or null to skip that check
+     * @throws org.springframework.dao.OptimisticLockingFailureException when the task is not at
+     *         {@code expectedVersion}
      */
-    public TaskResponse updateTask(Long taskId, TaskCreateRequest request, Long userId) {
+    public TaskResponse updateTask(Long taskId, TaskCreateRequest request, Long expectedVersion, Long userId) {
         logger.debug("Updating task ID: {} for user ID: {}", taskId, userId);
         
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
-                .orElseThrow(() -> new RuntimeException("Task not found with ID: " + taskId));
+        // One statement both checks ownership and version and writes; it hands back the old row
+        LocalDateTime now = LocalDateTime.now();
+        Task before = taskWriteRepository.update(taskId, userId, expectedVersion, request.getTitle(),
+                        request.getDescription(), request.getStatus(), request.getPriority(), request.getDueDate(), now)
+                .orElseThrow(() -> updateFailure(taskId, expectedVersion, userId));
         
-        task.setTitle(request.getTitle());
-        task.setDescription(request.getDescription());
-        task.setStatus(request.getStatus() != null ? request.getStatus() : task.getStatus());
-        task.setPriority(request.getPriority() != null ? request.getPriority() : task.getPriority());
-        task.setDueDate(request.getDueDate());
+        Task updatedTask = new Task(request.getTitle(), userRepository.getReferenceById(userId));
+        updatedTask.setId(taskId);
+        updatedTask.setDescription(request.getDescription());
+        updatedTask.setStatus(request.getStatus() != null ? request.getStatus() : before.getStatus());
+        updatedTask.setPriority(request.getPriority() != null ? request.getPriority() : before.getPriority());
+        updatedTask.setDueDate(request.getDueDate());
+        updatedTask.setCreatedAt(before.getCreatedAt());
+        updatedTask.setUpdatedAt(now);
+        updatedTask.setVersion(before.getVersion() + 1);
         
-        Task updatedTask = taskRepository.save(task);
-        logger.info("Updated task with ID: {}", updatedTask.getId());
+        taskCounterService.taskChanged(userId, before.getStatus(), before.getPriority(), before.getDueDate() != null,
+                updatedTask);
+        taskSuggestionService.recordTask(userId, taskId, updatedTask.getTitle());
+        taskVersionService.bump(userId);
+        logger.info("Updated task with ID: {}", taskId);
         
         return new TaskResponse(updatedTask);
     }
     
+    /**
+     * Apply a JSON Merge Patch to a task. Only the fields present are changed, and the
+     * UPDATE names only the columns whose values actually differ.
+     *
+     * @param expectedVersion the version the client last read, or null to skip that check
+     * @throws org.springframework.dao.OptimisticLockingFailureException when the task is not at
+     *         {@code expectedVersion}, or another write commits between the read and the update
+     */
+    public TaskResponse patchTask(Long taskId, TaskPatchRequest request, Long expectedVersion, Long userId) {
+        logger.debug("Patching task ID: {} for user ID: {}", taskId, userId);
+        
+        if (request.isTitlePresent() && (request.getTitle() == null || request.getTitle().isBlank())) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (request.isStatusPresent() && request.getStatus() == null) {
+            throw new IllegalArgumentException("Status cannot be removed");
+        }
+        if (request.isPriorityPresent() && request.getPriority() == null) {
+            throw new IllegalArgumentException("Priority cannot be removed");
+        }
+        Task task = findForUpdate(taskId, expectedVersion, userId);
+        
+        TaskStatus oldStatus = task.getStatus();
+        TaskPriority oldPriority = task.getPriority();
+        boolean wasDated = task.getDueDate() != null;
+        Long oldVersion = task.getVersion();
+        
+        if (request.isTitlePresent()) {
+            task.setTitle(request.getTitle());
+        }
+        if (request.isDescriptionPresent()) {
+            task.setDescription(request.getDescription());
+        }
+        if (request.isStatusPresent()) {
+            task.setStatus(request.getStatus());
+        }
+        if (request.isPriorityPresent()) {
+            task.setPriority(request.getPriority());
+        }
+        if (request.isDueDatePresent()) {
+            task.setDueDate(request.getDueDate());
+        }
+        
+        // A patch that changes nothing leaves the entity clean, and flushing then writes nothing
+        Task patchedTask = taskRepository.saveAndFlush(task);
+        taskCounterService.taskChanged(userId, oldStatus, oldPriority, wasDated, patchedTask);
+        if (request.isTitlePresent()) {
+            taskSuggestionService.recordTask(userId, patchedTask.getId(), patchedTask.getTitle());
+        }
+        // Only a flushed change moves the task's version, and only then do cached lists go stale
+        if (!Objects.equals(oldVersion, patchedTask.getVersion())) {
+            taskVersionService.bump(userId);
+        }
+        logger.info("Patched task with ID: {}", patchedTask.getId());
+        
+        return new TaskResponse(patchedTask);
+    }
+    
     /**
      * Delete task
      */
     public void deleteTask(Long taskId, Long userId) {
         logger.debug("Deleting task ID: {} for user ID: {}", taskId, userId);
         
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
+        Task task = taskWriteRepository.delete(taskId, userId)
                 .orElseThrow(() -> new RuntimeException("Task not found with ID: " + taskId));
         
-        taskRepository.delete(task);
+        taskCounterService.taskRemoved(userId, task);
+        taskSuggestionService.removeTask(userId, taskId);
+        taskVersionService.bump(userId);
         logger.info("Deleted task with ID: {}", taskId);
     }
     
     /**
-     * Get tasks by status
+     * Apply one change to every selected task in a single UPDATE, skipping the tasks it
+     * would leave as they are
+     *
+     * @return the number of tasks changed
      */
-    @Transactional(readOnly = true)
-    public List<TaskResponse> getTasksByStatus(TaskStatus status, Long userId) {
-        logger.debug("Fetching tasks with status: {} for user ID: {}", status, userId);
+    public int updateTasks(TaskBulkRequest request, Long userId) {
+        logger.debug("Bulk updating tasks for user ID: {}", userId);
+        
+        if (!request.hasChanges()) {
+            throw new IllegalArgumentException("Nothing to change: give a status, priority or dueDate");
+        }
+        TaskFilter filter = bulkFilter(request);
+        if (request.getIds() != null && request.getIds().isEmpty()) {
+            return 0;
+        }
+        TaskChange change = new TaskChange(request.getStatus(), request.getPriority(),
+                request.isDueDatePresent(), request.getDueDate());
+        
+        List<Object[]> rows = taskRepository.countMatchingByStatusAndPriority(userId, filter, request.getIds(), change);
+        int updated = taskRepository.updateMatching(userId, filter, request.getIds(), change);
+        if (updated == 0) {
+            return 0;
+        }
+        taskCounterService.tasksChanged(userId, rows, change.getStatus(), change.getPriority(),
+                change.setsDueDate() ? change.getDueDate() != null : null);
+        reconcileIfMiscounted(userId, rows, updated);
+        // Titles are untouched, so the suggestion index stays as it is
+        taskVersionService.bump(userId);
+        logger.info("Bulk updated {} tasks for user ID: {}", updated, userId);
         
-        List<Task> tasks = taskRepository.findByStatusAndUserId(status, userId);
-        return tasks.stream()
-                .map(TaskResponse::new)
-                .collect(Collectors.toList());
+        return updated;
     }
     
     /**
-     * Get tasks by priority
+     * Delete every selected task in a single DELETE
+     *
+     * @return the number of tasks deleted
      */
-    @Transactional(readOnly = true)
-    public List<TaskResponse> getTasksByPriority(TaskPriority priority, Long userId) {
-        logger.debug("Fetching tasks with priority: {} for user ID: {}", priority, userId);
+    public int deleteTasks(TaskBulkRequest request, Long userId) {
+        logger.debug("Bulk deleting tasks for user ID: {}", userId);
+        
+        TaskFilter filter = bulkFilter(request);
+        if (request.getIds() != null && request.getIds().isEmpty()) {
+            return 0;
+        }
+        
+        List<Object[]> rows = taskRepository.countMatchingByStatusAndPriority(userId, filter, request.getIds(), null);
+        int deleted = taskRepository.deleteMatching(userId, filter, request.getIds());
+        if (deleted == 0) {
+            return 0;
+        }
+        taskCounterService.tasksRemoved(userId, rows);
+        reconcileIfMiscounted(userId, rows, deleted);
+        if (request.getFilter() == null) {
+            for (Long taskId : request.getIds()) {
+                taskSuggestionService.removeTask(userId, taskId);
+            }
+        } else {
+            // Which tasks a filter matched is not known without reading them back
+            taskSuggestionService.forget(userId);
+        }
+        taskVersionService.bump(userId);
+        logger.info("Bulk deleted {} tasks for user ID: {}", deleted, userId);
         
-        List<Task> tasks = taskRepository.findByPriorityAndUserId(priority, userId);
-        return tasks.stream()
-                .map(TaskResponse::new)
-                .collect(Collectors.toList());
+        return deleted;
     }
     
     /**
-     * Search tasks by keyword
+     * Ranked, highlighted search over the user's tasks, most relevant first
      */
     @Transactional(readOnly = true)
-    public List<TaskResponse> searchTasks(String keyword, Long userId) {
-        logger.debug("Searching tasks with keyword: '{}' for user ID: {}", keyword, userId);
+    public Slice<TaskSearchHit> searchTasksRanked(String query, Long userId, Pageable pageable) {
+        logger.debug("Ranked search with query: '{}' for user ID: {}", query, userId);
         
-        List<Task> tasks = taskRepository.searchByKeywordAndUserId(keyword, userId);
-        return tasks.stream()
-                .map(TaskResponse::new)
-                .collect(Collectors.toList());
+        // One extra row tells whether another page exists without counting
+        List<TaskSearchHit> hits = taskSearchRepository.search(
+                userId, query, pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = hits.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? hits.subList(0, pageable.getPageSize()) : hits, pageable, hasNext);
+    }
+    
+    /**
+     * Count the user's tasks matching a ranked search
+     */
+    @Transactional(readOnly = true)
+    public long countSearchMatches(String query, Long userId) {
+        return taskSearchRepository.count(userId, query);
     }
     
     /**
-     * Get overdue tasks
+     * Get a page of overdue tasks, most overdue first
      */
     @Transactional(readOnly = true)
-    public List<TaskResponse> getOverdueTasks(Long userId) {
+    public Page<TaskResponse> getOverdueTasks(Long userId, Pageable pageable) {
         logger.debug("Fetching overdue tasks for user ID: {}", userId);
         
-        LocalDate today = LocalDate.now();
-        List<Task> tasks = taskRepository.findByDueDateBeforeAndUserId(today, userId);
-        
-        return tasks.stream()
-                .filter(task -> task.getStatus() != TaskStatus.COMPLETED)
-                .map(TaskResponse::new)
-                .collect(Collectors.toList());
+        return taskRepository.findOverdueResponsesByUserId(userId, LocalDate.now(), pageable);
     }
     
     /**
-     * Get task statistics for a user
+     * Get task statistics for a user from their counters, creating them from a
+     * single grouped count on first use; read-write, since that first call inserts them
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public TaskStatistics getTaskStatistics(Long userId) {
         logger.debug("Fetching task statistics for user ID: {}", userId);
         
-        long totalTasks = taskRepository.countByStatusAndUserId(null, userId);
-        long pendingTasks = taskRepository.countByStatusAndUserId(TaskStatus.PENDING, userId);
-        long inProgressTasks = taskRepository.countByStatusAndUserId(TaskStatus.IN_PROGRESS, userId);
-        long completedTasks = taskRepository.countByStatusAndUserId(TaskStatus.COMPLETED, userId);
-        long overdueTasks = taskRepository.countOverdueTasksByUserId(userId, LocalDate.now());
+        LocalDate today = LocalDate.now();
+        LocalDate weekEnd = today.plusDays(7);
+        long[][] byStatusAndPriority = new long[TaskStatus.values().length][TaskPriority.values().length];
+        long[] dueDateBuckets = new long[DueDateBucket.values().length];
+        
+        List<TaskCounter> counters = taskCounterService.getCounters(userId);
+        if (counters.isEmpty()) {
+            List<Object[]> rows = taskRepository.countByStatusAndPriority(userId, today, weekEnd);
+            taskCounterService.createCounters(userId, rows);
+            for (Object[] row : rows) {
+                TaskStatus status = (TaskStatus) row[0];
+                TaskPriority priority = (TaskPriority) row[1];
+                byStatusAndPriority[status.ordinal()][priority.ordinal()] = ((Number) row[2]).longValue();
+                // Due dates only matter while a task is still open
+                if (status.isOpen()) {
+                    for (DueDateBucket bucket : DueDateBucket.values()) {
+                        dueDateBuckets[bucket.ordinal()] += ((Number) row[3 + bucket.ordinal()]).longValue();
+                    }
+                }
+            }
+            return new TaskStatistics(byStatusAndPriority, dueDateBuckets);
+        }
+        
+        long open = 0;
+        long openDated = 0;
+        for (TaskCounter counter : counters) {
+            TaskStatus status = counter.getId().getStatus();
+            byStatusAndPriority[status.ordinal()][counter.getId().getPriority().ordinal()] = counter.getTaskCount();
+            if (status.isOpen()) {
+                open += counter.getTaskCount();
+                openDated += counter.getDatedCount();
+            }
+        }
+        // Which bucket a due date falls in moves with the clock, so only that part is counted
+        // live, and only over open dated tasks; most users have none and skip the query
+        if (openDated > 0) {
+            Object[] due = taskRepository.countOpenByDueDate(userId, today, weekEnd).get(0);
+            for (DueDateBucket bucket : List.of(DueDateBucket.OVERDUE, DueDateBucket.TODAY,
+                                                DueDateBucket.THIS_WEEK, DueDateBucket.LATER)) {
+                Number count = (Number) due[bucket.ordinal()];
+                dueDateBuckets[bucket.ordinal()] = count != null ? count.longValue() : 0;
+            }
+        }
+        dueDateBuckets[DueDateBucket.NONE.ordinal()] = open - openDated;
         
-        return new TaskStatistics(totalTasks, pendingTasks, inProgressTasks, completedTasks, overdueTasks);
+        return new TaskStatistics(byStatusAndPriority, dueDateBuckets);
+    }
+    
+    /**
+     * Explain why an update matched no row
+     */
+    private RuntimeException updateFailure(Long taskId, Long expectedVersion, Long userId) {
+        // Only a rejected update pays for telling a stale version from a missing task
+        if (expectedVersion != null && taskRepository.existsByIdAndUserId(taskId, userId)) {
+            return new ObjectOptimisticLockingFailureException(Task.class, taskId);
+        }
+        return new RuntimeException("Task not found with ID: " + taskId);
+    }
+    
+    /**
+     * Load a task of the user for a write, checking the version the client expects it at
+     */
+    private Task findForUpdate(Long taskId, Long expectedVersion, Long userId) {
+        Task task = taskRepository.findByIdAndUserId(taskId, userId)
+                .orElseThrow(() -> new RuntimeException("Task not found with ID: " + taskId));
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, taskId);
+        }
+        return task;
+    }
+    
+    /**
+     * The filter selecting a bulk request's tasks; an empty one selects them all
+     */
+    private static TaskFilter bulkFilter(TaskBulkRequest request) {
+        TaskBulkRequest.Filter filter = request.getFilter();
+        if (filter == null) {
+            if (request.getIds() == null) {
+                throw new IllegalArgumentException("Either ids or a filter is required");
+            }
+            return TaskFilter.none();
+        }
+        return new TaskFilter(filter.getStatus(), filter.getPriority(), filter.getDueDateFrom(),
+                filter.getDueDateTo(), filter.getSearch());
+    }
+    
+    /**
+     * A task written between a bulk statement's count and the statement itself leaves the
+     * counters off; repair them as soon as this transaction commits rather than at the
+     * next periodic reconciliation
+     */
+    private void reconcileIfMiscounted(Long userId, List<Object[]> rows, int affected) {
+        long counted = 0;
+        for (Object[] row : rows) {
+            counted += ((Number) row[2]).longValue();
+        }
+        if (counted != affected) {
+            logger.warn("Counted {} tasks but changed {} for user ID: {}", counted, affected, userId);
+            TransactionCallbacks.afterCommit(() -> taskCounterService.reconcile(userId));
+        }
+    }
+    
+    /**
+     * When open tasks are due, relative to today; order matches the columns of
+     * {@link TaskRepository#countByStatusAndPriority}
+     */
+    public enum DueDateBucket {
+        OVERDUE, TODAY, THIS_WEEK, LATER, NONE
     }
     
     /**
@@ -205,26 +488,49 @@ public class TaskService {
      */
     public static class TaskStatistics {
         private final long totalTasks;
-        private final long pendingTasks;
-        private final long inProgressTasks;
-        private final long completedTasks;
-        private final long overdueTasks;
+        private final Map<TaskStatus, Long> tasksByStatus = new EnumMap<>(TaskStatus.class);
+        private final Map<TaskPriority, Long> tasksByPriority = new EnumMap<>(TaskPriority.class);
+        private final Map<TaskStatus, Map<TaskPriority, Long>> tasksByStatusAndPriority = new EnumMap<>(TaskStatus.class);
+        private final Map<DueDateBucket, Long> openTasksByDueDate = new EnumMap<>(DueDateBucket.class);
         
-        public TaskStatistics(long totalTasks, long pendingTasks, long inProgressTasks, 
-                            long completedTasks, long overdueTasks) {
-            this.totalTasks = totalTasks;
-            this.pendingTasks = pendingTasks;
-            this.inProgressTasks = inProgressTasks;
-            this.completedTasks = completedTasks;
-            this.overdueTasks = overdueTasks;
+        /**
+         * @param byStatusAndPriority counts indexed by status then priority ordinal
+         * @param dueDateBuckets      open-task counts indexed by {@link DueDateBucket} ordinal
+         */
+        public TaskStatistics(long[][] byStatusAndPriority, long[] dueDateBuckets) {
+            long total = 0;
+            for (TaskStatus status : TaskStatus.values()) {
+                Map<TaskPriority, Long> row = new EnumMap<>(TaskPriority.class);
+                long statusTotal = 0;
+                for (TaskPriority priority : TaskPriority.values()) {
+                    long count = byStatusAndPriority[status.ordinal()][priority.ordinal()];
+                    row.put(priority, count);
+                    tasksByPriority.merge(priority, count, Long::sum);
+                    statusTotal += count;
+                }
+                tasksByStatusAndPriority.put(status, row);
+                tasksByStatus.put(status, statusTotal);
+                total += statusTotal;
+            }
+            for (DueDateBucket bucket : DueDateBucket.values()) {
+                openTasksByDueDate.put(bucket, dueDateBuckets[bucket.ordinal()]);
+            }
+            this.totalTasks = total;
         }
         
         // Getters
         public long getTotalTasks() { return totalTasks; }
-        public long getPendingTasks() { return pendingTasks; }
-        public long getInProgressTasks() { return inProgressTasks; }
-        public long getCompletedTasks() { return completedTasks; }
-        public long getOverdueTasks() { return overdueTasks; }
+        public long getPendingTasks() { return tasksByStatus.get(TaskStatus.PENDING); }
+        public long getInProgressTasks() { return tasksByStatus.get(TaskStatus.IN_PROGRESS); }
+        public long getCompletedTasks() { return tasksByStatus.get(TaskStatus.COMPLETED); }
+        public long getCancelledTasks() { return tasksByStatus.get(TaskStatus.CANCELLED); }
+        public long getOverdueTasks() { return openTasksByDueDate.get(DueDateBucket.OVERDUE); }
+        public double getCompletionRate() {
+            return totalTasks == 0 ? 0.0 : Math.round(getCompletedTasks() * 1000.0 / totalTasks) / 10.0;
+        }
+        public Map<TaskStatus, Long> getTasksByStatus() { return tasksByStatus; }
+        public Map<TaskPriority, Long> getTasksByPriority() { return tasksByPriority; }
+        public Map<TaskStatus, Map<TaskPriority, Long>> getTasksByStatusAndPriority() { return tasksByStatusAndPriority; }
+        public Map<DueDateBucket, Long> getOpenTasksByDueDate() { return openTasksByDueDate; }
     }
 }
-
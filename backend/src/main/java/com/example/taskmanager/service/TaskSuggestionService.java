@@ -0,0 +1,157 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskSuggestion;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.util.PrefixIndex;
+import com.example.taskmanager.util.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead over task titles, answered from a per-user in-memory {@link PrefixIndex}.
+ *
+ * A user's index is loaded from the database on their first suggestion request and
+ * kept current by task writes after they commit; writes for users without an index
+ * are ignored, since the next load reads them anyway. Indexes of idle users expire,
+ * and the cache as a whole is bounded by the indexes' estimated heap footprint.
+ */
+@Service
+public class TaskSuggestionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskSuggestionService.class);
+    
+    private final TaskRepository taskRepository;
+    private final int maxTasksPerUser;
+    private final Cache<Long, PrefixIndex> indexes;
+    private Timer latency;
+    
+    @Autowired
+    public TaskSuggestionService(TaskRepository taskRepository,
+                                 @Value("${app.suggest.max-tasks-per-user:5000}") int maxTasksPerUser,
+                                 @Value("${app.suggest.idle-minutes:30}") long idleMinutes,
+                                 @Value("${app.suggest.max-memory-mb:64}") long maxMemoryMb,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        this(taskRepository, maxTasksPerUser, idleMinutes, maxMemoryMb, Ticker.systemTicker());
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, indexes, "taskSuggestions");
+            Gauge.builder("tasks.suggest.indexed.tasks", this, TaskSuggestionService::indexedTasks)
+                    .description("Tasks held in typeahead indexes")
+                    .register(registry);
+            Gauge.builder("tasks.suggest.memory", this, TaskSuggestionService::estimatedBytes)
+                    .description("Estimated heap held by typeahead indexes")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("tasks.suggest.memory.per.task", this, TaskSuggestionService::bytesPerTask)
+                    .description("Estimated typeahead index heap per indexed task")
+                    .baseUnit("bytes")
+                    .register(registry);
+            latency = Timer.builder("tasks.suggest.latency")
+                    .description("Time to answer a typeahead lookup, including loading a cold index")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+        });
+    }
+    
+    TaskSuggestionService(TaskRepository taskRepository, int maxTasksPerUser, long idleMinutes, long maxMemoryMb,
+                          Ticker ticker) {
+        this.taskRepository = taskRepository;
+        this.maxTasksPerUser = maxTasksPerUser;
+        this.indexes = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((Long userId, PrefixIndex index) -> (int) Math.min(Integer.MAX_VALUE, index.estimatedBytes()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * Tasks whose title has words starting with those of the query, at most limit of them
+     */
+    public List<TaskSuggestion> suggest(Long userId, String query, int limit) {
+        long start = System.nanoTime();
+        PrefixIndex index = indexes.get(userId, this::load);
+        long[] ids = index.search(query, limit);
+        
+        List<TaskSuggestion> suggestions = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            suggestions.add(new TaskSuggestion(id, index.titleOf(id)));
+        }
+        if (latency != null) {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return suggestions;
+    }
+    
+    /**
+     * Index a created or retitled task once its transaction commits.
+     *
+     * Caffeine runs a cold load inside the map's compute for the key, so an update
+     * committed while the load is reading waits for it and is then applied on top.
+     */
+    public void recordTask(Long userId, Long taskId, String title) {
+        TransactionCallbacks.afterCommit(() -> indexes.asMap().computeIfPresent(userId,
+                (key, index) -> index.with(taskId, title)));
+    }
+    
+    /**
+     * Drop a deleted task once its transaction commits
+     */
+    public void removeTask(Long userId, Long taskId) {
+        TransactionCallbacks.afterCommit(() -> indexes.asMap().computeIfPresent(userId,
+                (key, index) -> index.without(taskId)));
+    }
+    
+    /**
+     * Drop the user's whole index once the transaction commits, for writes too many to
+     * apply one by one; the next suggestion request reloads it
+     */
+    public void forget(Long userId) {
+        TransactionCallbacks.afterCommit(() -> indexes.invalidate(userId));
+    }
+    
+    long indexedTasks() {
+        return indexes.asMap().values().stream().mapToLong(PrefixIndex::size).sum();
+    }
+    
+    long estimatedBytes() {
+        return indexes.asMap().values().stream().mapToLong(PrefixIndex::estimatedBytes).sum();
+    }
+    
+    double bytesPerTask() {
+        long tasks = indexedTasks();
+        return tasks == 0 ? 0 : (double) estimatedBytes() / tasks;
+    }
+    
+    private PrefixIndex load(Long userId) {
+        // Most recently touched tasks first, so a capped index keeps the ones users look for
+        List<Object[]> rows = taskRepository.findTitlesByUserId(userId, PageRequest.of(0, maxTasksPerUser));
+        long[] ids = new long[rows.size()];
+        String[] titles = new String[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = (Long) rows.get(i)[0];
+            titles[i] = (String) rows.get(i)[1];
+        }
+        PrefixIndex index = PrefixIndex.of(ids, titles);
+        logger.debug("Built typeahead index for user ID: {} with {} tasks (~{} bytes)",
+                userId, index.size(), index.estimatedBytes());
+        return index;
+    }
+}
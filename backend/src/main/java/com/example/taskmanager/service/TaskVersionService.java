@@ -0,0 +1,65 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Per-user version stamp of everything the task read endpoints return, so a client
+ * holding the current version can be answered with 304 after one primary-key read
+ * instead of the query behind the response.
+ *
+ * The version is the user's {@code tasks_version} column. Every task write moves it
+ * in its own transaction, so it changes exactly when the write becomes visible, on
+ * every instance, and a rolled back write leaves it alone.
+ */
+@Service
+public class TaskVersionService {
+
+    private final UserRepository userRepository;
+
+    @Autowired
+    public TaskVersionService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Current version of the user's tasks; read it before querying so a write that
+     * commits in between makes the response look older, never newer, than it is
+     */
+    @Transactional(readOnly = true)
+    public long current(Long userId) {
+        return userRepository.findTasksVersionById(userId).orElse(0L);
+    }
+
+    /**
+     * Move the user to a new version within the caller's transaction. The row stays
+     * locked until it ends, which orders concurrent writes of the same user.
+     *
+     * @return whether the user exists
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean bump(Long userId) {
+        return userRepository.incrementTasksVersion(userId) > 0;
+    }
+
+    /**
+     * Weak ETag for the user's task views. It names the user, because browsers share
+     * one cache between the accounts signed in on them, and includes the date because
+     * overdue and due-date figures change at midnight without any write.
+     */
+    public String etag(Long userId) {
+        return "W/\"" + stamp(userId) + "-" + LocalDate.now().toEpochDay() + "\"";
+    }
+
+    /**
+     * The user and their current version, for tags of views that do not depend on the date
+     */
+    public String stamp(Long userId) {
+        return Long.toString(userId, 36) + "-" + Long.toString(current(userId), 36);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Tracks each user's current token epoch so stateless authentication can reject
+ * tokens issued before a password change, a deletion or an explicit epoch bump.
+ *
+ * Epochs are read from the database at most once per user per recheck interval;
+ * local writes invalidate immediately, other instances converge within the interval.
+ */
+@Service
+public class TokenEpochService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenEpochService.class);
+
+    /**
+     * Cached in place of an epoch when the user no longer exists
+     */
+    private static final int NO_SUCH_USER = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> currentEpochs;
+
+    @Autowired
+    public TokenEpochService(UserRepository userRepository,
+                             @Value("${app.security.token-epoch.recheck-ms:60000}") long recheckMs,
+                             @Value("${app.security.token-epoch.max-users:100000}") long maxUsers) {
+        this.userRepository = userRepository;
+        this.currentEpochs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(recheckMs))
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    /**
+     * Check whether a token issued under the given epoch is still accepted for the user
+     */
+    public boolean isCurrent(Long userId, int tokenEpoch) {
+        int current = currentEpochs.get(userId, this::loadEpoch);
+        if (current == NO_SUCH_USER) {
+            logger.debug("Rejecting token for missing user ID: {}", userId);
+            return false;
+        }
+        return tokenEpoch == current;
+    }
+
+    /**
+     * Forget the cached epoch so the next check re-reads it from the database
+     */
+    public void invalidate(Long userId) {
+        currentEpochs.invalidate(userId);
+    }
+
+    private Integer loadEpoch(Long userId) {
+        return userRepository.findTokenEpochById(userId).orElse(NO_SUCH_USER);
+    }
+}
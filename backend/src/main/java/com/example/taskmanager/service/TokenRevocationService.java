@@ -0,0 +1,203 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.RevokedToken;
+import com.example.taskmanager.repository.RevokedTokenRepository;
+import com.example.taskmanager.util.BloomFilter;
+import com.example.taskmanager.util.ExpiryWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Revoked token IDs, checked on every authenticated request without touching the database.
+ *
+ * A Bloom filter answers almost every lookup, since almost no presented token is
+ * revoked; only its rare positives consult the exact set. Entries are dropped by an
+ * {@link ExpiryWheel} once the token would have expired anyway, and the filter is
+ * rebuilt when most of its keys are stale. Revocations are written to the database,
+ * reloaded at startup and pulled in periodically from other instances.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+    private static final int MAX_WHEEL_SLOTS = 1 << 16;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedRevocations;
+    private final long tickMs;
+    private final LongSupplier clock;
+
+    // jti -> expiry in epoch millis
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    // Guarded by this
+    private final ExpiryWheel wheel;
+    private long filterCapacity;
+    private long filterInsertions;
+    private Instant lastSync;
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${app.security.revocation.expected-size:100000}") long expectedRevocations,
+                                  @Value("${app.security.revocation.tick-ms:60000}") long tickMs,
+                                  @Value("${app.jwt.refresh-expiration:604800000}") long maxTokenLifetimeMs,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this(revokedTokenRepository, expectedRevocations, tickMs, maxTokenLifetimeMs, System::currentTimeMillis);
+        meterRegistry.ifAvailable(registry -> Gauge.builder("auth.revoked.tokens", revoked, ConcurrentHashMap::size)
+                .description("Revoked tokens that have not yet expired")
+                .register(registry));
+    }
+
+    TokenRevocationService(RevokedTokenRepository revokedTokenRepository, long expectedRevocations,
+                           long tickMs, long maxTokenLifetimeMs, LongSupplier clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.tickMs = tickMs;
+        this.clock = clock;
+        this.filter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_PROBABILITY);
+        this.filterCapacity = expectedRevocations;
+
+        int slots = (int) Math.min(MAX_WHEEL_SLOTS, maxTokenLifetimeMs / tickMs + 2);
+        this.wheel = new ExpiryWheel(tickMs, slots, clock.getAsLong());
+    }
+
+    /**
+     * Load the revocations that are still in force
+     */
+    @PostConstruct
+    public void loadRevocations() {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        List<RevokedToken> live = revokedTokenRepository.findByExpiresAtAfter(now);
+        synchronized (this) {
+            live.forEach(this::remember);
+            lastSync = now;
+        }
+        logger.info("Loaded {} revoked tokens", live.size());
+    }
+
+    /**
+     * Check whether a token ID has been revoked; constant-time and allocation-free
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revoke a token until it expires. The database insert decides which of several
+     * concurrent revocations of one token wins, across instances as well.
+     *
+     * @return false when the token was already revoked, so a refresh token can be rotated only once
+     */
+    public boolean revoke(String tokenId, Long userId, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        if (tokenId == null || expiresAtMillis <= now) {
+            return true;
+        }
+        if (revoked.containsKey(tokenId)) {
+            return false;
+        }
+
+        boolean inserted;
+        try {
+            revokedTokenRepository.insert(tokenId, userId, Instant.ofEpochMilli(expiresAtMillis), Instant.ofEpochMilli(now));
+            inserted = true;
+        } catch (DataIntegrityViolationException e) {
+            // Already used, possibly on an instance whose revocations we have not pulled in yet
+            inserted = false;
+        }
+
+        synchronized (this) {
+            remember(tokenId, expiresAtMillis);
+        }
+        if (inserted) {
+            logger.debug("Revoked token {} for user ID: {}", tokenId, userId);
+        }
+        return inserted;
+    }
+
+    /**
+     * Pull in revocations from other instances, drop expired entries and prune the table
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.tick-ms:60000}",
+               initialDelayString = "${app.security.revocation.tick-ms:60000}")
+    @Transactional
+    public void maintain() {
+        long now = clock.getAsLong();
+        Instant nowInstant = Instant.ofEpochMilli(now);
+
+        // Overlap the previous window so rows committed late by a slow transaction are not missed
+        Instant since;
+        synchronized (this) {
+            since = lastSync.minusMillis(tickMs);
+        }
+        List<RevokedToken> recent = revokedTokenRepository.findRevokedSince(since, nowInstant);
+
+        int expired;
+        synchronized (this) {
+            recent.forEach(this::remember);
+            lastSync = nowInstant;
+            expired = wheel.advance(now, revoked::remove);
+            rebuildFilterIfStale();
+        }
+
+        int deleted = revokedTokenRepository.deleteExpired(nowInstant);
+        if (expired > 0 || deleted > 0) {
+            logger.debug("Pruned {} expired revocations from memory and {} from the database", expired, deleted);
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private boolean remember(RevokedToken token) {
+        return remember(token.getTokenId(), token.getExpiresAt().toEpochMilli());
+    }
+
+    // Caller holds this
+    private boolean remember(String tokenId, long expiresAtMillis) {
+        if (revoked.putIfAbsent(tokenId, expiresAtMillis) != null) {
+            return false;
+        }
+        filter.put(tokenId);
+        filterInsertions++;
+        wheel.schedule(tokenId, expiresAtMillis);
+        return true;
+    }
+
+    // Caller holds this. Rebuilds when most keys are stale, or when the filter is past its sizing
+    private void rebuildFilterIfStale() {
+        long live = revoked.size();
+        long stale = filterInsertions - live;
+        boolean mostlyStale = stale > live && stale >= expectedRevocations / 4;
+        if (!mostlyStale && filterInsertions <= filterCapacity) {
+            return;
+        }
+
+        long capacity = Math.max(expectedRevocations, live * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_PROBABILITY);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        filterCapacity = capacity;
+        filterInsertions = live;
+        logger.debug("Rebuilt revocation filter with {} live entries", live);
+    }
+}
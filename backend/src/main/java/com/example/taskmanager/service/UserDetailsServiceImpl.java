@@ -3,26 +3,177 @@ package com.example.taskmanager.service;
 import com.example.taskmanager.entity.User;
 import com.example.taskmanager.repository.UserRepository;
 import com.example.taskmanager.security.UserPrincipal;
+import com.example.taskmanager.util.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads principals from the database through a bounded, expiring cache keyed by
+ * normalized login (username or email) and by user ID.
+ *
+ * Entries are dropped by {@link #evictUser(Long)} whenever {@link UserService} changes
+ * an account; entries written on other instances are bounded by the TTL.
+ *
+ * Also stores rehashed passwords when the authentication provider upgrades a hash
+ * to the current BCrypt cost after a successful login.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
-    
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> principalsByLogin;
+    private final Cache<Long, UserPrincipal> principalsById;
+    private final LongAdder invalidations = new LongAdder();
+
     @Autowired
-    private UserRepository userRepository;
-    
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  @Value("${app.security.principal-cache.ttl-ms:300000}") long ttlMs,
+                                  @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this(userRepository, ttlMs, maxSize, Ticker.systemTicker());
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, principalsByLogin, "principalsByLogin");
+            CaffeineCacheMetrics.monitor(registry, principalsById, "principalsById");
+        });
+    }
+
+    UserDetailsServiceImpl(UserRepository userRepository, long ttlMs, long maxSize, Ticker ticker) {
+        this.userRepository = userRepository;
+        this.principalsByLogin = newCache(ttlMs, maxSize, ticker);
+        this.principalsById = newCache(ttlMs, maxSize, ticker);
+    }
+
+    private static <K> Cache<K, UserPrincipal> newCache(long ttlMs, long maxSize, Ticker ticker) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        String login = User.normalize(username);
+        UserPrincipal cached = login != null ? principalsByLogin.getIfPresent(login) : null;
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findByUsernameOrEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        
-        return UserPrincipal.create(user);
+
+        UserPrincipal principal = UserPrincipal.create(user);
+        principalsByLogin.put(login, principal);
+        principalsById.put(principal.getId(), principal);
+        return principal;
     }
-}
 
+    /**
+     * Load a principal by user ID, sharing cache entries with {@link #loadUserByUsername(String)}
+     */
+    @Transactional(readOnly = true)
+    public UserPrincipal loadUserById(Long userId) throws UsernameNotFoundException {
+        UserPrincipal cached = principalsById.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with ID: " + userId));
+
+        UserPrincipal principal = UserPrincipal.create(user);
+        principalsById.put(userId, principal);
+        principalsByLogin.put(User.normalize(principal.getUsername()), principal);
+        return principal;
+    }
+
+    /**
+     * Store a hash re-encoded at the current cost. The password itself is unchanged,
+     * so issued tokens stay valid and only the cached principal is dropped. The update
+     * only applies while the stored hash is still the one this login verified, so a
+     * password changed in the meantime is never overwritten with the old one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) userDetails;
+        if (userRepository.rehashPassword(principal.getId(), principal.getPassword(), newPassword) == 0) {
+            logger.debug("Skipped rehash for user ID {}: password changed since login", principal.getId());
+            return principal;
+        }
+        TransactionCallbacks.nowAndAfterCommit(() -> evictUser(principal.getId()));
+
+        logger.info("Rehashed password for user ID {} at the current BCrypt cost", principal.getId());
+        return new UserPrincipal(principal.getId(), principal.getUsername(), principal.getEmail(), newPassword,
+                principal.getAuthorities(), principal.getTokenEpoch());
+    }
+
+    /**
+     * Drop every cached entry for a user, under both its ID and any login it was loaded by
+     */
+    public void evictUser(Long userId) {
+        principalsById.invalidate(userId);
+        principalsByLogin.asMap().values().removeIf(principal -> userId.equals(principal.getId()));
+        invalidations.increment();
+        logger.debug("Evicted cached principal for user ID: {}", userId);
+    }
+
+    /**
+     * Hit, miss and eviction counters across both cache views
+     */
+    public PrincipalCacheStats getCacheStats() {
+        CacheStats byLogin = principalsByLogin.stats();
+        CacheStats byId = principalsById.stats();
+        return new PrincipalCacheStats(
+            byLogin.hitCount() + byId.hitCount(),
+            byLogin.missCount() + byId.missCount(),
+            byLogin.evictionCount() + byId.evictionCount(),
+            invalidations.sum()
+        );
+    }
+
+    /**
+     * Snapshot of principal cache counters
+     */
+    public static class PrincipalCacheStats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+
+        public PrincipalCacheStats(long hits, long misses, long evictions, long invalidations) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        // Getters
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+    }
+}
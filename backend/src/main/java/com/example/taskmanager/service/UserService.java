@@ -3,13 +3,21 @@ package com.example.taskmanager.service;
 import com.example.taskmanager.dto.SignupRequest;
 import com.example.taskmanager.entity.User;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.util.TransactionCallbacks;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -20,29 +28,33 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenEpochService tokenEpochService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final AvailabilityService availabilityService;
+    private final TransactionTemplate transaction;
     
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       TokenEpochService tokenEpochService, UserDetailsServiceImpl userDetailsService,
+                       AvailabilityService availabilityService, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenEpochService = tokenEpochService;
+        this.userDetailsService = userDetailsService;
+        this.availabilityService = availabilityService;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
     
     /**
-     * Create a new user
+     * Create a new user with a single insert; the unique constraints on the normalized
+     * username and email decide duplicates, so there is no check-then-insert race.
+     * Runs without a surrounding transaction so the password is hashed before a
+     * connection is taken; the insert commits on its own.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createUser(SignupRequest signupRequest) {
         logger.debug("Creating new user with username: {}", signupRequest.getUsername());
         
-        // Check if username already exists
-        if (userRepository.existsByUsername(signupRequest.getUsername())) {
-            throw new RuntimeException("Username is already taken!");
-        }
-        
-        // Check if email already exists
-        if (userRepository.existsByEmail(signupRequest.getEmail())) {
-            throw new RuntimeException("Email is already in use!");
-        }
-        
         // Create new user
         User user = new User();
         user.setUsername(signupRequest.getUsername());
@@ -51,12 +63,38 @@ public class UserService {
         user.setFirstName(signupRequest.getFirstName());
         user.setLastName(signupRequest.getLastName());
         
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateAccount(e);
+        }
+        availabilityService.recordRegistration(savedUser);
         logger.info("Created user with ID: {} and username: {}", savedUser.getId(), savedUser.getUsername());
         
         return savedUser;
     }
     
+    /**
+     * Map a unique-constraint violation on insert to the matching signup error
+     */
+    private RuntimeException duplicateAccount(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        // Fall back to the message: some drivers do not report the constraint name
+        String detail = (constraint != null ? constraint : String.valueOf(e.getMostSpecificCause().getMessage()))
+                .toLowerCase(Locale.ROOT);
+        
+        if (detail.contains(User.UK_USERNAME_NORMALIZED)) {
+            return new RuntimeException("Username is already taken!");
+        }
+        if (detail.contains(User.UK_EMAIL_NORMALIZED)) {
+            return new RuntimeException("Email is already in use!");
+        }
+        return e;
+    }
+    
     /**
      * Find user by username or email
      */
@@ -122,14 +160,17 @@ public class UserService {
         user.setLastName(lastName);
         
         User updatedUser = userRepository.save(user);
+        invalidateCachedAccount(userId);
         logger.info("Updated user profile for user ID: {}", userId);
         
         return updatedUser;
     }
     
     /**
-     * Change user password
+     * Change user password. Both hashes are computed outside any transaction, and the
+     * short write that follows only succeeds if the password is still the one verified.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePassword(Long userId, String currentPassword, String newPassword) {
         logger.debug("Changing password for user ID: {}", userId);
         
@@ -140,10 +181,15 @@ public class UserService {
         if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
             throw new RuntimeException("Current password is incorrect");
         }
+        String newHash = passwordEncoder.encode(newPassword);
         
-        // Update password
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        // Update password and invalidate every token issued under the old one
+        transaction.executeWithoutResult(status -> {
+            if (userRepository.changePassword(userId, user.getPassword(), newHash, LocalDateTime.now()) == 0) {
+                throw new RuntimeException("Password was changed concurrently, please try again");
+            }
+            invalidateCachedAccount(userId);
+        });
         
         logger.info("Password changed successfully for user ID: {}", userId);
     }
@@ -158,7 +204,37 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
         
         userRepository.delete(user);
+        invalidateCachedAccount(userId);
         logger.info("Deleted user account for user ID: {}", userId);
     }
+    
+    /**
+     * Revoke all tokens issued to a user so far by moving to a new token epoch
+     */
+    public void bumpTokenEpoch(Long userId) {
+        logger.debug("Bumping token epoch for user ID: {}", userId);
+        
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+        
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        userRepository.save(user);
+        invalidateCachedAccount(userId);
+        
+        logger.info("Token epoch for user ID: {} is now {}", userId, user.getTokenEpoch());
+    }
+    
+    /**
+     * Drop the cached principal and token epoch now and again after commit,
+     * so a concurrent request cannot re-cache the old state in between
+     */
+    private void invalidateCachedAccount(Long userId) {
+        TransactionCallbacks.nowAndAfterCommit(() -> evictCachedAccount(userId));
+    }
+    
+    private void evictCachedAccount(Long userId) {
+        userDetailsService.evictUser(userId);
+        tokenEpochService.invalidate(userId);
+    }
 }
 
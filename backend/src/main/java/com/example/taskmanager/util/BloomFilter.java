@@ -0,0 +1,102 @@
+package com.example.taskmanager.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, cache-line blocked Bloom filter over strings.
+ *
+ * Every probe for a key falls inside one 512-bit block, so a lookup costs a single
+ * cache line, and keys are hashed from the {@link String#hashCode()} the string
+ * already caches; {@link #mightContain(String)} is therefore constant-time and
+ * allocation-free. There are no false negatives; false positives occur at roughly
+ * the configured rate while no more than the expected number of keys have been
+ * added. Keys cannot be removed, so owners rebuild the filter once enough of its
+ * keys are obsolete.
+ */
+public final class BloomFilter {
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+
+    private final AtomicLongArray words;
+    private final int blockMask;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions     keys the filter is sized for
+     * @param falsePositiveProbability target false positive rate at that size
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveProbability, 1e-9), 0.5);
+
+        // Blocking skews load between blocks, so size up by a fifth to stay near the target rate
+        double optimalBits = -n * Math.log(p) / (Math.log(2) * Math.log(2)) * 1.2;
+        long blocks = Long.highestOneBit(Math.max(1L, (long) Math.ceil(optimalBits / BITS_PER_BLOCK)) * 2 - 1);
+        blocks = Math.min(blocks, 1L << 24);
+
+        this.words = new AtomicLongArray((int) blocks * WORDS_PER_BLOCK);
+        this.blockMask = (int) blocks - 1;
+        this.hashCount = (int) Math.max(1, Math.min(16, Math.round(-Math.log(p) / Math.log(2))));
+    }
+
+    public void put(String key) {
+        long hash = mix(key.hashCode());
+        int base = blockIndex(hash) * WORDS_PER_BLOCK;
+        int probe = (int) (hash >>> 32);
+        int step = (int) hash | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (probe + i * step) & (BITS_PER_BLOCK - 1);
+            setBit(base + (bit >>> 6), 1L << bit);
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = mix(key.hashCode());
+        int base = blockIndex(hash) * WORDS_PER_BLOCK;
+        int probe = (int) (hash >>> 32);
+        int step = (int) hash | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (probe + i * step) & (BITS_PER_BLOCK - 1);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getBitCount() {
+        return (long) words.length() * Long.SIZE;
+    }
+
+    private int blockIndex(long hash) {
+        return (int) (Long.rotateLeft(hash, 21)) & blockMask;
+    }
+
+    private void setBit(int index, long mask) {
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    /**
+     * MurmurHash3 finalizer, widening the 32-bit string hash into well-spread 64 bits
+     */
+    private static long mix(int value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
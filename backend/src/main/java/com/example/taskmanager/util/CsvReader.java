@@ -0,0 +1,137 @@
+package com.example.taskmanager.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 record reader over a caller-owned {@link Reader}, the
+ * counterpart of {@link CsvWriter}.
+ *
+ * Quoted fields may contain delimiters, doubled quotes and line breaks; rows may
+ * end in CRLF or LF, and blank lines are skipped. A record is held in memory only
+ * while it is being read, and one longer than the configured limit is rejected,
+ * so an unterminated quote cannot pull the rest of the input into memory.
+ */
+public final class CsvReader {
+
+    private final Reader in;
+    private final int maxRecordChars;
+    private int line = 1;
+    private int recordLine;
+    private int pushedBack = -2;
+
+    /**
+     * @param in             the input; wrap it in a buffered reader
+     * @param maxRecordChars longest record accepted, in characters
+     */
+    public CsvReader(Reader in, int maxRecordChars) {
+        this.in = in;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * Read the next record
+     *
+     * @return its fields, or null at the end of the input
+     * @throws IOException when reading fails or the record is malformed or too long
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            endLine(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (++length > maxRecordChars) {
+                throw new IOException("Record at line " + recordLine + " exceeds " + maxRecordChars + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field at line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+                c = read();
+                continue;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c != -1) {
+                    endLine(c);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            fieldStart = false;
+            c = read();
+        }
+    }
+
+    /**
+     * Line of the input the last record returned started on, counting from 1
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Undo the apostrophe {@link CsvWriter} puts before text a spreadsheet would
+     * otherwise run as a formula; other text is returned as it is
+     */
+    public static String stripFormulaGuard(String value) {
+        return value != null && CsvWriter.isGuarded(value) ? value.substring(1) : value;
+    }
+
+    /**
+     * Count the line break c, consuming the LF of a CRLF pair
+     */
+    private void endLine(int c) throws IOException {
+        line++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                pushedBack = next;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+}
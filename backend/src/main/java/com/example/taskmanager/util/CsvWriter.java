@@ -0,0 +1,82 @@
+package com.example.taskmanager.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal RFC 4180 row writer over a caller-owned {@link Writer}.
+ *
+ * Fields are quoted only when they contain a delimiter, quote or line break, and
+ * nulls are written as empty fields. Rows end in CRLF as the RFC prescribes.
+ * Nothing is buffered here, so wrap the target in a buffered writer.
+ *
+ * Text that a spreadsheet would run as a formula, starting with {@code = + - @},
+ * a tab or a carriage return, is prefixed with an apostrophe, and so is text that
+ * already starts with an apostrophe before one of those or another apostrophe.
+ * {@link CsvReader#stripFormulaGuard} takes the prefix off again.
+ */
+public final class CsvWriter {
+
+    static final char FORMULA_GUARD = '\'';
+
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Write one row; values are converted with {@link String#valueOf(Object)}, and
+     * text is guarded against formula injection
+     */
+    public void writeRow(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (fields[i] instanceof CharSequence text) {
+                writeField(guardFormula(text.toString()));
+            } else if (fields[i] != null) {
+                writeField(String.valueOf(fields[i]));
+            }
+        }
+        out.write("\r\n");
+    }
+
+    /**
+     * Whether text starting with this character is read by spreadsheets as a formula
+     */
+    static boolean isFormulaStart(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    /**
+     * Whether text starts with a guard that {@link CsvReader#stripFormulaGuard} would remove
+     */
+    static boolean isGuarded(String value) {
+        return value.length() > 1 && value.charAt(0) == FORMULA_GUARD
+                && (isFormulaStart(value.charAt(1)) || value.charAt(1) == FORMULA_GUARD);
+    }
+
+    private static String guardFormula(String value) {
+        if (!value.isEmpty() && (isFormulaStart(value.charAt(0)) || isGuarded(value))) {
+            return FORMULA_GUARD + value;
+        }
+        return value;
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.taskmanager.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel that hands back keys once their expiry time has passed.
+ *
+ * Scheduling is O(1) and each {@link #advance} only visits the slots for the ticks
+ * that elapsed since the previous call, so pruning cost tracks what actually expires
+ * rather than everything that is stored. Keys expiring beyond one rotation simply
+ * stay in their slot for another lap. Not thread-safe; callers synchronize.
+ */
+public final class ExpiryWheel {
+
+    private final long tickMillis;
+    private final List<List<Entry>> slots;
+    private long lastTick;
+
+    /**
+     * @param tickMillis width of one slot; expiry is observed with at most this delay
+     * @param slotCount  slots per rotation, ideally covering the longest expiry horizon
+     * @param nowMillis  the current time
+     */
+    public ExpiryWheel(long tickMillis, int slotCount, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(null);
+        }
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedule a key; keys already due are handed back on the next advance
+     */
+    public void schedule(String key, long expiresAtMillis) {
+        long tick = Math.max(expiresAtMillis / tickMillis + 1, lastTick + 1);
+        int index = slotIndex(tick);
+        List<Entry> slot = slots.get(index);
+        if (slot == null) {
+            slot = new ArrayList<>();
+            slots.set(index, slot);
+        }
+        slot.add(new Entry(key, expiresAtMillis));
+    }
+
+    /**
+     * Move the wheel to the current time, passing every expired key to the callback
+     *
+     * @return the number of keys expired
+     */
+    public int advance(long nowMillis, Consumer<String> onExpired) {
+        long targetTick = nowMillis / tickMillis;
+        // After a long pause every slot is due once; visiting one more lap would find nothing new
+        long firstTick = Math.max(lastTick + 1, targetTick - slots.size() + 1);
+        int expired = 0;
+
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            int index = slotIndex(tick);
+            List<Entry> slot = slots.get(index);
+            if (slot == null) {
+                continue;
+            }
+
+            List<Entry> remaining = null;
+            for (Entry entry : slot) {
+                if (entry.expiresAtMillis <= nowMillis) {
+                    onExpired.accept(entry.key);
+                    expired++;
+                } else {
+                    if (remaining == null) {
+                        remaining = new ArrayList<>();
+                    }
+                    remaining.add(entry);
+                }
+            }
+            slots.set(index, remaining);
+        }
+
+        lastTick = Math.max(lastTick, targetTick);
+        return expired;
+    }
+
+    private int slotIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+
+    private record Entry(String key, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.taskmanager.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable prefix index from title tokens to entries, stored as sorted parallel arrays.
+ *
+ * Tokens are the lowercased letter-or-digit runs of each title. A lookup binary-searches
+ * the sorted token array for the first token at or after the prefix and scans forward
+ * while tokens still start with it, so it touches only matching postings and allocates
+ * little beyond the result. Updates return a new index built by merging, in time linear
+ * in the index size; readers therefore never lock, and writers replace the reference.
+ */
+public final class PrefixIndex {
+
+    /** Tokens indexed per title; longer titles are matched on their leading words only */
+    public static final int MAX_TOKENS_PER_ENTRY = 16;
+
+    /** Characters kept per token; prefixes longer than this still match by truncation */
+    public static final int MAX_TOKEN_LENGTH = 32;
+
+    // Rough JVM footprint: compressed references, 16-byte array and 24-byte String headers
+    private static final int STRING_OVERHEAD = 24 + 16;
+    private static final int ENTRY_OVERHEAD = Long.BYTES + 4 + STRING_OVERHEAD;
+    private static final int POSTING_OVERHEAD = Long.BYTES + 4 + STRING_OVERHEAD;
+
+    private static final PrefixIndex EMPTY = new PrefixIndex(new long[0], new String[0], new String[0], new long[0], 0);
+
+    // Entries sorted by id
+    private final long[] ids;
+    private final String[] titles;
+    // Postings sorted by (token, id)
+    private final String[] tokens;
+    private final long[] tokenIds;
+    private final long estimatedBytes;
+
+    private PrefixIndex(long[] ids, String[] titles, String[] tokens, long[] tokenIds, long estimatedBytes) {
+        this.ids = ids;
+        this.titles = titles;
+        this.tokens = tokens;
+        this.tokenIds = tokenIds;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build an index over the given entries in one pass
+     *
+     * @param ids    entry ids, unique
+     * @param titles entry titles, parallel to ids
+     */
+    public static PrefixIndex of(long[] ids, String[] titles) {
+        int n = ids.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+
+        long[] sortedIds = new long[n];
+        String[] sortedTitles = new String[n];
+        List<Posting> postings = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            sortedIds[i] = ids[order[i]];
+            sortedTitles[i] = titles[order[i]];
+            for (String token : tokenize(sortedTitles[i])) {
+                postings.add(new Posting(token, sortedIds[i]));
+            }
+        }
+        postings.sort(null);
+
+        String[] tokens = new String[postings.size()];
+        long[] tokenIds = new long[postings.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = postings.get(i).token;
+            tokenIds[i] = postings.get(i).id;
+        }
+        return new PrefixIndex(sortedIds, sortedTitles, tokens, tokenIds, estimate(sortedTitles, tokens));
+    }
+
+    /**
+     * Index with the entry added, or its title replaced when the id is already present
+     */
+    public PrefixIndex with(long id, String title) {
+        PrefixIndex base = without(id);
+        int at = -Arrays.binarySearch(base.ids, id) - 1;
+
+        long[] newIds = new long[base.ids.length + 1];
+        String[] newTitles = new String[base.titles.length + 1];
+        System.arraycopy(base.ids, 0, newIds, 0, at);
+        System.arraycopy(base.titles, 0, newTitles, 0, at);
+        newIds[at] = id;
+        newTitles[at] = title;
+        System.arraycopy(base.ids, at, newIds, at + 1, base.ids.length - at);
+        System.arraycopy(base.titles, at, newTitles, at + 1, base.titles.length - at);
+
+        List<String> added = tokenize(title);
+        added.sort(null);
+        int total = base.tokens.length + added.size();
+        String[] newTokens = new String[total];
+        long[] newTokenIds = new long[total];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            boolean takeAdded = j < added.size()
+                    && (i == base.tokens.length || compare(added.get(j), id, base.tokens[i], base.tokenIds[i]) < 0);
+            if (takeAdded) {
+                newTokens[k] = added.get(j++);
+                newTokenIds[k] = id;
+            } else {
+                newTokens[k] = base.tokens[i];
+                newTokenIds[k] = base.tokenIds[i++];
+            }
+        }
+
+        long bytes = base.estimatedBytes + ENTRY_OVERHEAD + 2L * title.length();
+        for (String token : added) {
+            bytes += POSTING_OVERHEAD + 2L * token.length();
+        }
+        return new PrefixIndex(newIds, newTitles, newTokens, newTokenIds, bytes);
+    }
+
+    /**
+     * Index with the entry removed; this index when the id is absent
+     */
+    public PrefixIndex without(long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return this;
+        }
+        long[] newIds = new long[ids.length - 1];
+        String[] newTitles = new String[titles.length - 1];
+        System.arraycopy(ids, 0, newIds, 0, at);
+        System.arraycopy(titles, 0, newTitles, 0, at);
+        System.arraycopy(ids, at + 1, newIds, at, ids.length - at - 1);
+        System.arraycopy(titles, at + 1, newTitles, at, titles.length - at - 1);
+
+        int removed = 0;
+        long bytes = estimatedBytes - ENTRY_OVERHEAD - 2L * titles[at].length();
+        for (int i = 0; i < tokenIds.length; i++) {
+            if (tokenIds[i] == id) {
+                removed++;
+                bytes -= POSTING_OVERHEAD + 2L * tokens[i].length();
+            }
+        }
+        String[] newTokens = new String[tokens.length - removed];
+        long[] newTokenIds = new long[tokenIds.length - removed];
+        int k = 0;
+        for (int i = 0; i < tokenIds.length; i++) {
+            if (tokenIds[i] != id) {
+                newTokens[k] = tokens[i];
+                newTokenIds[k++] = tokenIds[i];
+            }
+        }
+        return new PrefixIndex(newIds, newTitles, newTokens, newTokenIds, bytes);
+    }
+
+    /**
+     * Ids of entries with a title token starting with the query's last word and,
+     * when the query has several words, tokens starting with each of the others.
+     * Entries are returned once each, in token order, up to the limit.
+     */
+    public long[] search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+        String prefix = terms.get(terms.size() - 1);
+        List<String> others = terms.subList(0, terms.size() - 1);
+
+        long[] found = new long[Math.min(limit, ids.length)];
+        int count = 0;
+        for (int i = lowerBound(prefix); i < tokens.length && count < found.length; i++) {
+            if (!tokens[i].startsWith(prefix)) {
+                break;
+            }
+            long id = tokenIds[i];
+            if (!contains(found, count, id) && (others.isEmpty() || matchesAll(titleOf(id), others))) {
+                found[count++] = id;
+            }
+        }
+        return count == found.length ? found : Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Title of an indexed entry, or null
+     */
+    public String titleOf(long id) {
+        int at = Arrays.binarySearch(ids, id);
+        return at >= 0 ? titles[at] : null;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Approximate heap footprint of the titles, tokens and arrays held
+     */
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Lowercased letter-or-digit runs of the text, capped in count and length
+     */
+    static List<String> tokenize(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null) {
+            return result;
+        }
+        String folded = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length() && result.size() < MAX_TOKENS_PER_ENTRY; i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = folded.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH));
+                if (!result.contains(token)) {
+                    result.add(token);
+                }
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = tokens.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokens[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean matchesAll(String title, List<String> terms) {
+        List<String> titleTokens = tokenize(title);
+        for (String term : terms) {
+            boolean matched = false;
+            for (String token : titleTokens) {
+                if (token.startsWith(term)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int compare(String tokenA, long idA, String tokenB, long idB) {
+        int byToken = tokenA.compareTo(tokenB);
+        return byToken != 0 ? byToken : Long.compare(idA, idB);
+    }
+
+    private static long estimate(String[] titles, String[] tokens) {
+        long bytes = 0;
+        for (String title : titles) {
+            bytes += ENTRY_OVERHEAD + 2L * title.length();
+        }
+        for (String token : tokens) {
+            bytes += POSTING_OVERHEAD + 2L * token.length();
+        }
+        return bytes;
+    }
+
+    private record Posting(String token, long id) implements Comparable<Posting> {
+        @Override
+        public int compareTo(Posting other) {
+            return compare(token, id, other.token, other.id);
+        }
+    }
+}
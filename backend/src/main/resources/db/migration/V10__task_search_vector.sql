@@ -0,0 +1,8 @@
+-- Ranked search (TaskSearchRepository): a full-text document per task, title weighted above description, kept
+-- current by the database. Adding a stored generated column rewrites the table once.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE tasks ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
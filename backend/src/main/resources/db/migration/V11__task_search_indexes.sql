@@ -0,0 +1,5 @@
+-- Full-text and trigram indexes behind GET /tasks/search; the trigram ones also serve the keyword filter of
+-- GET /tasks, whose LIKE patterns a B-tree cannot use. Built concurrently, outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_title_trgm ON tasks USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_description_trgm ON tasks USING GIN (lower(description) gin_trgm_ops);
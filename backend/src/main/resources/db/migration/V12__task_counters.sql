@@ -0,0 +1,12 @@
+-- Per-user task counts by status and priority (TaskCounterService), adjusted by every task write and reconciled
+-- periodically; user_id leads the key so one range reads a user's summary. Each user's counters are filled from
+-- a full count on their first statistics read, so existing databases need no backfill.
+CREATE TABLE task_counters (
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    priority VARCHAR(10) NOT NULL,
+    task_count BIGINT NOT NULL DEFAULT 0,
+    dated_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, status, priority),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
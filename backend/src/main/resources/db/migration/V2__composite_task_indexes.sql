@@ -0,0 +1,19 @@
+-- Every task query filters on user_id first, so each remaining filter gets a composite index led by it.
+-- CONCURRENTLY keeps task writes flowing while the indexes build; Flyway runs this script outside a transaction.
+
+-- The status filter of GET /tasks and of the bulk updates and deletes; priority and due_date make the
+-- statistics GROUP BY (countByStatusAndPriority) an index-only scan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_status_priority ON tasks(user_id, status, priority, due_date);
+
+-- The priority filter of GET /tasks
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_priority ON tasks(user_id, priority, id);
+
+-- The dueDateFrom/dueDateTo range of GET /tasks, whatever the status
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_due_date ON tasks(user_id, due_date, id);
+
+-- Single-column indexes no per-user query can use, and copies of what the unique constraints already index
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_due_date;
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_user_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_username;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_email;
@@ -0,0 +1,8 @@
+-- Task and User ids are drawn by Hibernate in blocks of 50 (pooled optimizer, see the entities' @SequenceGenerator),
+-- so an insert no longer needs a round trip of its own for its id and can join a JDBC batch.
+-- Each nextval now returns the top of a fresh block of 50 and Hibernate hands out the ids below it. Values issued
+-- before this migration are all lower than the next one, so existing rows keep their ids and nothing collides.
+-- The BIGSERIAL defaults stay: plain SQL inserts still draw from the same sequences, using the value they get
+-- as their id, and never land inside a block Hibernate is handing out.
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
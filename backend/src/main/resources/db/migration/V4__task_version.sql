@@ -0,0 +1,5 @@
+-- Optimistic locking for tasks (Task.version): every update bumps it and checks it in its WHERE clause, so a
+-- concurrent write fails instead of being silently overwritten, and PUT/PATCH /tasks/{id} compare it with If-Match.
+-- A constant default is stored in the catalog, so adding the column does not rewrite the table; it also keeps
+-- plain SQL inserts that do not name the column working.
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
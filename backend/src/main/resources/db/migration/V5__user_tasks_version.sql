@@ -0,0 +1,4 @@
+-- Version of each user's tasks behind the ETags of the task read endpoints (TaskVersionService). Every task write
+-- increments it in its own transaction, so all instances see it change exactly when the write commits.
+-- A constant default is stored in the catalog, so adding the column does not rewrite the table.
+ALTER TABLE users ADD COLUMN tasks_version BIGINT NOT NULL DEFAULT 0;
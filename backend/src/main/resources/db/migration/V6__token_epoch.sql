@@ -0,0 +1,4 @@
+-- Token epoch of each user (UserPrincipal.tokenEpoch): every token carries the epoch it was issued under, and a
+-- password change increments it, so tokens issued before the change are rejected without a per-token lookup.
+-- A constant default is stored in the catalog, so adding the column does not rewrite the table.
+ALTER TABLE users ADD COLUMN token_epoch INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Tokens revoked before they expire: logged-out access tokens and used refresh tokens (TokenRevocationService).
+-- Rows are pruned once the token has expired; revoked_at serves the poll for revocations made on other instances.
+CREATE TABLE revoked_tokens (
+    token_id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
@@ -0,0 +1,34 @@
+-- Lowercased, trimmed copies of username and email (User.normalize) carry case-insensitive uniqueness and serve
+-- every login lookup with a single index probe. They replace the case-sensitive unique constraints of the baseline.
+
+-- Users that differ only by case or surrounding spaces cannot both keep their login; stop before changing anything
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM users GROUP BY lower(btrim(username)) HAVING count(*) > 1)
+            OR EXISTS (SELECT 1 FROM users GROUP BY lower(btrim(email)) HAVING count(*) > 1) THEN
+        RAISE EXCEPTION 'Some users differ only by case or surrounding spaces in username or email';
+    END IF;
+END $$;
+
+ALTER TABLE users ADD COLUMN username_normalized VARCHAR(50), ADD COLUMN email_normalized VARCHAR(100);
+UPDATE users SET username_normalized = lower(btrim(username)), email_normalized = lower(btrim(email));
+ALTER TABLE users ALTER COLUMN username_normalized SET NOT NULL, ALTER COLUMN email_normalized SET NOT NULL,
+    ADD CONSTRAINT uk_users_username_normalized UNIQUE (username_normalized),
+    ADD CONSTRAINT uk_users_email_normalized UNIQUE (email_normalized);
+
+-- The old single-column unique constraints, named users_username_key/users_email_key by database/schema.sql
+-- or generated by Hibernate on databases it created
+DO $$
+DECLARE
+    old_constraint RECORD;
+BEGIN
+    FOR old_constraint IN
+        SELECT DISTINCT c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = 'users'::regclass AND c.contype = 'u' AND cardinality(c.conkey) = 1
+            AND a.attname IN ('username', 'email')
+    LOOP
+        EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', old_constraint.conname);
+    END LOOP;
+END $$;
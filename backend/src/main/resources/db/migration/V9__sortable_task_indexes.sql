@@ -0,0 +1,10 @@
+-- One index per whitelisted sort key of GET /tasks (TaskSortField): user_id leads, the sort key follows and id
+-- breaks ties, so offset and seek pages are both served by an index range scan rather than a sort.
+-- CONCURRENTLY keeps task writes flowing while the indexes build; Flyway runs this script outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_created_at ON tasks(user_id, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_updated_at ON tasks(user_id, updated_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_title ON tasks(user_id, title, id);
+
+-- Overdue listings and counts (TaskRepository.OVERDUE) only ever look at open tasks
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_open_due ON tasks(user_id, due_date, id)
+    WHERE status IN ('PENDING', 'IN_PROGRESS');
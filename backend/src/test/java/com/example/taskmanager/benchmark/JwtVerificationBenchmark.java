@@ -0,0 +1,102 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of authenticating a bearer token.
+ *
+ * <ul>
+ *   <li>{@code legacy} rebuilds the key and parser and parses the token twice, as
+ *       {@code AuthTokenFilter} did with {@code validateJwtToken} + {@code getUserNameFromJwtToken}</li>
+ *   <li>{@code verifyOnce} uses the cached key and parser with the verified-token cache disabled</li>
+ *   <li>{@code verifyCached} is the default configuration, where hot tokens skip HMAC entirely</li>
+ * </ul>
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.taskmanager.benchmark.JwtVerificationBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = newJwtUtils(0);
+        cached = newJwtUtils(10_000);
+        token = cached.generateTokenFromUsername("benchmark", 42L, "benchmark@example.com");
+    }
+
+    @Benchmark
+    public String legacy() {
+        if (!legacyValidate(token)) {
+            return null;
+        }
+        return legacyParse(token).getSubject();
+    }
+
+    @Benchmark
+    public String verifyOnce() {
+        return uncached.verifyJwtToken(token).orElseThrow().getSubject();
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return cached.verifyJwtToken(token).orElseThrow().getSubject();
+    }
+
+    private static boolean legacyValidate(String token) {
+        try {
+            legacyParse(token);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtUtils newJwtUtils(long cacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", cacheSize);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
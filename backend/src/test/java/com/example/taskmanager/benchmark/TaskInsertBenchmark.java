@@ -0,0 +1,182 @@
+package com.example.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput for one chunk of {@code -Dbenchmark.chunk=N} tasks, 500 by default,
+ * on PostgreSQL.
+ *
+ * <ul>
+ *   <li>{@code identityInserts} is the previous IDENTITY mapping: every insert is its own
+ *       round trip so that the database can return the generated id</li>
+ *   <li>{@code pooledBatchInserts} is the pooled sequence mapping: one {@code nextval}
+ *       reserves 50 ids, and the inserts go out as JDBC batches of 50, rewritten into
+ *       multi-row INSERTs by {@code reWriteBatchedInserts}</li>
+ * </ul>
+ *
+ * Starts a postgres:15 container through Testcontainers (Docker required), unless
+ * {@code -Dbenchmark.url} names a scratch database to use instead, with
+ * {@code -Dbenchmark.user} and {@code -Dbenchmark.password}. The tables are created on
+ * setup and dropped afterwards; the tasks table is emptied before every iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskInsertBenchmark {
+
+    private static final int CHUNK = Integer.getInteger("benchmark.chunk", 500);
+    private static final int ALLOCATION_SIZE = 50;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection identity;
+    private Connection pooled;
+    private PreparedStatement identityInsert;
+    private PreparedStatement pooledInsert;
+    private PreparedStatement nextBlock;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("benchmark.url");
+        String user = System.getProperty("benchmark.user", "");
+        String password = System.getProperty("benchmark.password", "");
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            user = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+        identity = DriverManager.getConnection(url, user, password);
+        pooled = DriverManager.getConnection(url.startsWith("jdbc:postgresql:")
+                ? url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true"
+                : url, user, password);
+
+        try (Statement statement = identity.createStatement()) {
+            statement.execute("""
+                CREATE TABLE users (
+                    id BIGINT PRIMARY KEY,
+                    username VARCHAR(50) NOT NULL UNIQUE
+                )""");
+            // Past the first block, as after V3 on a database that already has tasks
+            statement.execute("CREATE SEQUENCE tasks_id_seq START WITH " + (ALLOCATION_SIZE + 1)
+                    + " INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("""
+                CREATE TABLE tasks (
+                    id BIGINT DEFAULT nextval('tasks_id_seq') PRIMARY KEY,
+                    title VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    status VARCHAR(20) NOT NULL,
+                    priority VARCHAR(20) NOT NULL,
+                    due_date DATE,
+                    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+                    created_at TIMESTAMP NOT NULL,
+                    updated_at TIMESTAMP NOT NULL
+                )""");
+            statement.execute("INSERT INTO users (id, username) VALUES (1, 'benchmark')");
+        }
+        identity.setAutoCommit(false);
+        pooled.setAutoCommit(false);
+
+        identityInsert = identity.prepareStatement("""
+                INSERT INTO tasks (title, description, status, priority, due_date, user_id, created_at, updated_at)
+                VALUES (?, ?, 'PENDING', 'MEDIUM', NULL, 1, ?, ?)""", Statement.RETURN_GENERATED_KEYS);
+        pooledInsert = pooled.prepareStatement("""
+                INSERT INTO tasks (id, title, description, status, priority, due_date, user_id, created_at, updated_at)
+                VALUES (?, ?, ?, 'PENDING', 'MEDIUM', NULL, 1, ?, ?)""");
+        nextBlock = pooled.prepareStatement("SELECT nextval('tasks_id_seq')");
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTasks() throws SQLException {
+        try (Statement statement = identity.createStatement()) {
+            statement.execute("TRUNCATE TABLE tasks");
+        }
+        identity.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        pooled.close();
+        try (Statement statement = identity.createStatement()) {
+            statement.execute("DROP TABLE tasks");
+            statement.execute("DROP SEQUENCE tasks_id_seq");
+            statement.execute("DROP TABLE users");
+        }
+        identity.commit();
+        identity.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public long identityInserts() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long last = 0;
+        for (int i = 0; i < CHUNK; i++) {
+            bind(identityInsert, 1, i, now);
+            identityInsert.executeUpdate();
+            try (ResultSet keys = identityInsert.getGeneratedKeys()) {
+                keys.next();
+                last = keys.getLong(1);
+            }
+        }
+        identity.commit();
+        return last;
+    }
+
+    @Benchmark
+    public long pooledBatchInserts() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long next = 1;
+        long blockEnd = 0;
+        for (int i = 0; i < CHUNK; i++) {
+            if (next > blockEnd) {
+                blockEnd = nextValue();
+                next = blockEnd - ALLOCATION_SIZE + 1;
+            }
+            pooledInsert.setLong(1, next++);
+            bind(pooledInsert, 2, i, now);
+            pooledInsert.addBatch();
+            if ((i + 1) % ALLOCATION_SIZE == 0) {
+                pooledInsert.executeBatch();
+            }
+        }
+        pooledInsert.executeBatch();
+        pooled.commit();
+        return next;
+    }
+
+    private long nextValue() throws SQLException {
+        try (ResultSet resultSet = nextBlock.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int from, int i, Timestamp now) throws SQLException {
+        statement.setString(from, "Task " + i);
+        statement.setString(from + 1, "Imported task number " + i);
+        statement.setTimestamp(from + 2, now);
+        statement.setTimestamp(from + 3, now);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TaskInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
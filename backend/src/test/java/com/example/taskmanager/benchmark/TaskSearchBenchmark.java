@@ -0,0 +1,167 @@
+package com.example.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword search latency on PostgreSQL for a user with a large task corpus.
+ *
+ * <ul>
+ *   <li>{@code likeScan} is the previous {@code LOWER(title/description) LIKE '%kw%'}
+ *       query with only the btree indexes</li>
+ *   <li>{@code rankedFullText} is the first page of the ranked query
+ *       {@code TaskSearchRepository} issues, served by the tsvector and trigram GIN indexes</li>
+ * </ul>
+ *
+ * Starts a postgres:15 container through Testcontainers (Docker required). The searched
+ * user owns {@code -Dbenchmark.tasks=N} tasks, 500,000 by default, among as many again
+ * belonging to other users.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSearchBenchmark {
+
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 500_000);
+
+    private static final String[] WORDS = {
+        "budget", "report", "invoice", "meeting", "deploy", "review", "garden", "dentist",
+        "quarterly", "migration", "onboarding", "renewal", "backup", "roadmap", "hiring", "release"
+    };
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private Connection likeConnection;
+    private PreparedStatement likeScan;
+    private PreparedStatement rankedFullText;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("""
+                CREATE TABLE users (
+                    id BIGSERIAL PRIMARY KEY,
+                    username VARCHAR(50) NOT NULL
+                )""");
+            statement.execute("""
+                CREATE TABLE tasks (
+                    id BIGSERIAL PRIMARY KEY,
+                    title VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    status VARCHAR(20) DEFAULT 'PENDING',
+                    priority VARCHAR(10) DEFAULT 'MEDIUM',
+                    due_date DATE,
+                    user_id BIGINT NOT NULL REFERENCES users(id),
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    search_vector TSVECTOR GENERATED ALWAYS AS (
+                        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+                        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+                    ) STORED
+                )""");
+            statement.execute("INSERT INTO users (username) SELECT 'user' || g FROM generate_series(1, 100) AS g");
+
+            // Three random words per title and twelve per description, drawn from the word list plus noise tokens
+            String words = "(ARRAY['" + String.join("','", WORDS) + "'])";
+            statement.execute("""
+                INSERT INTO tasks (title, description, user_id)
+                SELECT
+                    (SELECT string_agg(coalesce(%1$s[1 + floor(random() * 24)::int], 'x' || floor(random() * 1e5)::int), ' ')
+                       FROM generate_series(1, 3 + (g %% 2))),
+                    (SELECT string_agg(coalesce(%1$s[1 + floor(random() * 40)::int], 'w' || floor(random() * 1e6)::int), ' ')
+                       FROM generate_series(1, 12 + (g %% 3))),
+                    CASE WHEN g <= %2$d THEN 1 ELSE 2 + g %% 99 END
+                FROM generate_series(1, %3$d) AS g""".formatted(words, TASKS, TASKS * 2));
+
+            statement.execute("CREATE INDEX idx_tasks_user_created_at ON tasks(user_id, created_at, id)");
+            statement.execute("CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (search_vector)");
+            statement.execute("CREATE INDEX idx_tasks_title_trgm ON tasks USING GIN (lower(title) gin_trgm_ops)");
+            statement.execute("CREATE INDEX idx_tasks_description_trgm ON tasks USING GIN (lower(description) gin_trgm_ops)");
+            statement.execute("ANALYZE users");
+            statement.execute("ANALYZE tasks");
+        }
+
+        // GIN indexes are only reachable through bitmap scans, so this session plans
+        // the LIKE query the way it ran before they existed
+        likeConnection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = likeConnection.createStatement()) {
+            statement.execute("SET enable_bitmapscan = off");
+        }
+        likeScan = likeConnection.prepareStatement("""
+            SELECT t.id, t.title, u.username FROM tasks t JOIN users u ON u.id = t.user_id
+            WHERE t.user_id = 1 AND (lower(t.title) LIKE ? OR lower(t.description) LIKE ?)""");
+        rankedFullText = connection.prepareStatement("""
+            SELECT t.id, t.title, u.username,
+                   ts_rank_cd(t.search_vector, query) + word_similarity(?, lower(t.title)) AS rank,
+                   ts_headline('simple', t.title, query, 'StartSel=<mark>, StopSel=</mark>, HighlightAll=true')
+            FROM tasks t JOIN users u ON u.id = t.user_id CROSS JOIN websearch_to_tsquery('simple', ?) AS query
+            WHERE t.user_id = 1 AND (t.search_vector @@ query
+                OR lower(t.title) LIKE ? ESCAPE '!' OR lower(t.description) LIKE ? ESCAPE '!'
+                OR ? <% lower(t.title))
+            ORDER BY rank DESC, t.id DESC
+            LIMIT 11""");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeConnection.close();
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int likeScan() throws SQLException {
+        String pattern = "%" + randomWord() + "%";
+        likeScan.setString(1, pattern);
+        likeScan.setString(2, pattern);
+        return count(likeScan);
+    }
+
+    @Benchmark
+    public int rankedFullText() throws SQLException {
+        String word = randomWord();
+        rankedFullText.setString(1, word);
+        rankedFullText.setString(2, word);
+        rankedFullText.setString(3, "%" + word + "%");
+        rankedFullText.setString(4, "%" + word + "%");
+        rankedFullText.setString(5, word);
+        return count(rankedFullText);
+    }
+
+    private static String randomWord() {
+        return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TaskSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.util.PrefixIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookup latency distribution against one user's in-memory {@link PrefixIndex}.
+ *
+ * <ul>
+ *   <li>{@code shortPrefix} looks up one or two typed characters, the widest scans</li>
+ *   <li>{@code twoWords} completes the second word of a query whose first word must also match</li>
+ *   <li>{@code upsert} replaces one title, as an update of a task does after commit</li>
+ * </ul>
+ *
+ * Sample-time mode reports p99 directly. The index holds {@code -Dbenchmark.tasks=N}
+ * titles, 5,000 by default, matching {@code app.suggest.max-tasks-per-user}; the setup
+ * prints the estimated heap per indexed task.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSuggestionBenchmark {
+
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 5_000);
+
+    private static final String[] WORDS = {
+        "budget", "report", "invoice", "meeting", "deploy", "review", "garden", "dentist",
+        "quarterly", "migration", "onboarding", "renewal", "backup", "roadmap", "hiring", "release",
+        "call", "email", "plan", "book", "fix", "update", "draft", "prepare", "send", "order"
+    };
+
+    private PrefixIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] ids = new long[TASKS];
+        String[] titles = new String[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            ids[i] = i + 1;
+            titles[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " #" + i;
+        }
+        index = PrefixIndex.of(ids, titles);
+        System.out.printf("%nIndexed %d tasks, ~%d bytes, ~%d bytes per task%n",
+                index.size(), index.estimatedBytes(), index.estimatedBytes() / index.size());
+    }
+
+    @Benchmark
+    public long[] shortPrefix() {
+        String word = randomWord();
+        return index.search(word.substring(0, 1 + ThreadLocalRandom.current().nextInt(2)), 10);
+    }
+
+    @Benchmark
+    public long[] twoWords() {
+        String second = randomWord();
+        return index.search(randomWord() + " " + second.substring(0, 3), 10);
+    }
+
+    @Benchmark
+    public PrefixIndex upsert() {
+        long id = 1 + ThreadLocalRandom.current().nextInt(TASKS);
+        return index.with(id, randomWord() + " " + randomWord() + " #" + id);
+    }
+
+    private static String randomWord() {
+        return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TaskSuggestionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login lookup latency on PostgreSQL with a large users table.
+ *
+ * <ul>
+ *   <li>{@code orQuery} is the previous {@code username = ? OR email = ?} lookup on
+ *       the case-sensitive columns</li>
+ *   <li>{@code byUsernameNormalized} and {@code byEmailNormalized} are the single
+ *       unique-index probes {@code UserRepository.findByUsernameOrEmail} now issues</li>
+ * </ul>
+ *
+ * Starts a postgres:15 container through Testcontainers (Docker required) and fills it
+ * with {@code -Dbenchmark.users=N} rows, 2,000,000 by default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserLookupBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 2_000_000);
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private PreparedStatement orQuery;
+    private PreparedStatement byUsername;
+    private PreparedStatement byEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE users (
+                    id BIGSERIAL PRIMARY KEY,
+                    username VARCHAR(50) NOT NULL UNIQUE,
+                    email VARCHAR(100) NOT NULL UNIQUE,
+                    username_normalized VARCHAR(50) NOT NULL,
+                    email_normalized VARCHAR(100) NOT NULL,
+                    password VARCHAR(255) NOT NULL,
+                    CONSTRAINT uk_users_username_normalized UNIQUE (username_normalized),
+                    CONSTRAINT uk_users_email_normalized UNIQUE (email_normalized)
+                )""");
+            statement.execute("""
+                INSERT INTO users (username, email, username_normalized, email_normalized, password)
+                SELECT 'User' || g, 'User' || g || '@Example.com', 'user' || g, 'user' || g || '@example.com', 'x'
+                FROM generate_series(1, %d) AS g""".formatted(USERS));
+            statement.execute("ANALYZE users");
+        }
+
+        orQuery = connection.prepareStatement("SELECT * FROM users WHERE username = ? OR email = ?");
+        byUsername = connection.prepareStatement("SELECT * FROM users WHERE username_normalized = ?");
+        byEmail = connection.prepareStatement("SELECT * FROM users WHERE email_normalized = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public boolean orQuery() throws SQLException {
+        String email = "User" + randomUser() + "@Example.com";
+        orQuery.setString(1, email);
+        orQuery.setString(2, email);
+        return exists(orQuery);
+    }
+
+    @Benchmark
+    public boolean byUsernameNormalized() throws SQLException {
+        byUsername.setString(1, "user" + randomUser());
+        return exists(byUsername);
+    }
+
+    @Benchmark
+    public boolean byEmailNormalized() throws SQLException {
+        byEmail.setString(1, "user" + randomUser() + "@example.com");
+        return exists(byEmail);
+    }
+
+    private static int randomUser() {
+        return ThreadLocalRandom.current().nextInt(1, USERS + 1);
+    }
+
+    private static boolean exists(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserLookupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.config.SecurityConfig;
+import com.example.taskmanager.dto.RefreshTokenRequest;
+import com.example.taskmanager.dto.SignupRequest;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.security.AuthEntryPointJwt;
+import com.example.taskmanager.security.JwtUtils;
+import com.example.taskmanager.security.LoginRateLimiter;
+import com.example.taskmanager.security.TooManyRequestsException;
+import com.example.taskmanager.service.AvailabilityService;
+import com.example.taskmanager.service.TokenEpochService;
+import com.example.taskmanager.service.TokenRevocationService;
+import com.example.taskmanager.service.UserDetailsServiceImpl;
+import com.example.taskmanager.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The application's own security chain and real token signing, with user lookups and
+// revocations mocked; a pinned BCrypt cost skips the startup calibration
+@WebMvcTest(controllers = AuthController.class, properties = "app.security.bcrypt.cost=4")
+@Import({SecurityConfig.class, AuthEntryPointJwt.class, JwtUtils.class})
+class AuthControllerTest {
+
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private TokenEpochService tokenEpochService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
+
+    @MockBean
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("alice", "alice@example.com", "hash");
+        user.setId(1L);
+        user.setTokenEpoch(2);
+        when(userService.findById(1L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void login_RateLimitedAnswers429WithRetryAfter() throws Exception {
+        // Given
+        doThrow(new TooManyRequestsException("Too many login attempts, please retry later", 30))
+            .when(loginRateLimiter).checkAttempt(anyString(), eq("alice"));
+
+        // When & Then
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("usernameOrEmail", "alice", "password", "secret"))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Too many login attempts, please retry later"));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void register_ShedByHashingBulkheadAnswers429() throws Exception {
+        // Given
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setUsername("alice");
+        signupRequest.setEmail("alice@example.com");
+        signupRequest.setPassword("password123");
+        when(userService.createUser(any(SignupRequest.class)))
+            .thenThrow(new TooManyRequestsException("Too many authentication requests, please retry shortly", 1));
+
+        // When & Then
+        mockMvc.perform(post("/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Too many authentication requests, please retry shortly"));
+    }
+
+    @Test
+    void checkAvailability_RateLimitedAnswers429() throws Exception {
+        // Given
+        doThrow(new TooManyRequestsException("Too many availability checks, please retry later", 5))
+            .when(loginRateLimiter).checkAvailabilityLookup(anyString());
+
+        // When & Then
+        mockMvc.perform(get("/auth/availability").param("username", "alice"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+        verifyNoInteractions(availabilityService);
+    }
+
+    @Test
+    void refresh_IssuesNewPairAndRevokesPresentedToken() throws Exception {
+        // Given
+        String refreshToken = jwtUtils.generateRefreshToken("alice", 1L, "alice@example.com", 2);
+        when(tokenRevocationService.revoke(eq(tokenId(refreshToken)), eq(1L), anyLong())).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(refresh(refreshToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").isNotEmpty())
+                .andExpect(jsonPath("$.data.refreshToken").isNotEmpty())
+                .andExpect(jsonPath("$.data.refreshToken").value(not(refreshToken)));
+    }
+
+    @Test
+    void refresh_AlreadyUsedTokenIsRejected() throws Exception {
+        // Given
+        String refreshToken = jwtUtils.generateRefreshToken("alice", 1L, "alice@example.com", 2);
+        when(tokenRevocationService.revoke(eq(tokenId(refreshToken)), eq(1L), anyLong())).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(refresh(refreshToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Refresh token is no longer valid"));
+    }
+
+    @Test
+    void refresh_RejectsAccessTokenAndOlderEpoch() throws Exception {
+        // Given
+        String accessToken = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 2);
+        String staleRefreshToken = jwtUtils.generateRefreshToken("alice", 1L, "alice@example.com", 1);
+
+        // When & Then
+        mockMvc.perform(refresh(accessToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid refresh token"));
+        mockMvc.perform(refresh(staleRefreshToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Refresh token is no longer valid"));
+        verify(tokenRevocationService, never()).revoke(any(), any(), anyLong());
+    }
+
+    @Test
+    void logout_RevokesAccessAndRefreshTokens() throws Exception {
+        // Given
+        String accessToken = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 2);
+        String refreshToken = jwtUtils.generateRefreshToken("alice", 1L, "alice@example.com", 2);
+
+        // When & Then
+        mockMvc.perform(post("/auth/logout")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+        verify(tokenRevocationService).revoke(eq(tokenId(accessToken)), eq(1L), anyLong());
+        verify(tokenRevocationService).revoke(eq(tokenId(refreshToken)), eq(1L), anyLong());
+    }
+
+    @Test
+    void logout_IgnoresRefreshTokenOfAnotherUser() throws Exception {
+        // Given
+        String accessToken = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 2);
+        String foreignRefreshToken = jwtUtils.generateRefreshToken("bob", 2L, "bob@example.com", 0);
+
+        // When & Then
+        mockMvc.perform(post("/auth/logout")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(foreignRefreshToken))))
+                .andExpect(status().isOk());
+        verify(tokenRevocationService).revoke(eq(tokenId(accessToken)), eq(1L), anyLong());
+        verify(tokenRevocationService, never()).revoke(eq(tokenId(foreignRefreshToken)), any(), anyLong());
+    }
+
+    private MockHttpServletRequestBuilder refresh(String refreshToken) throws Exception {
+        return post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken)));
+    }
+
+    private String tokenId(String token) {
+        return jwtUtils.verifyJwtToken(token).orElseThrow().getTokenId();
+    }
+}
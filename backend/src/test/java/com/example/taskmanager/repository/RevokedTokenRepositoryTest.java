@@ -0,0 +1,60 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.RevokedToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs outside a test transaction, since each insert commits in its own
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RevokedTokenRepositoryTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @AfterEach
+    void tearDown() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void insert_StoresRevocation() {
+        // Given
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant expiresAt = revokedAt.plus(1, ChronoUnit.HOURS);
+
+        // When
+        int inserted = revokedTokenRepository.insert("token-1", 7L, expiresAt, revokedAt);
+
+        // Then
+        assertEquals(1, inserted);
+        RevokedToken stored = revokedTokenRepository.findById("token-1").orElseThrow();
+        assertEquals(7L, stored.getUserId());
+        assertEquals(expiresAt, stored.getExpiresAt());
+        assertEquals(revokedAt, stored.getRevokedAt());
+    }
+
+    @Test
+    void insert_SameTokenTwiceFailsOnPrimaryKey() {
+        // Given
+        Instant now = Instant.now();
+        revokedTokenRepository.insert("refresh-1", 7L, now.plusSeconds(60), now);
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class,
+            () -> revokedTokenRepository.insert("refresh-1", 7L, now.plusSeconds(60), now));
+        assertEquals(1, revokedTokenRepository.count());
+    }
+}
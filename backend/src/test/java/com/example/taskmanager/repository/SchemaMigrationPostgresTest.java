@@ -0,0 +1,116 @@
+package com.example.taskmanager.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The Flyway migrations against a real PostgreSQL, on a fresh database and on one built
+ * by the old database/schema.sql and adopted at the baseline; skipped when Docker is
+ * unavailable. Each test migrates a database of its own.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationPostgresTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Test
+    void adoptedDatabase_EndsWithTheSchemaOfAFreshOne() throws IOException {
+        // Given: the pre-migration schema with a user and a task in it
+        JdbcTemplate fresh = database("fresh");
+        JdbcTemplate upgraded = database("upgraded");
+        upgraded.execute(baselineScript());
+        upgraded.update("INSERT INTO users (username, email, password) VALUES ('Alice', ' Alice@Example.com ', 'hash')");
+        upgraded.update("INSERT INTO tasks (title, description, user_id) SELECT 'Budget', 'Quarterly report', id FROM users");
+
+        // When
+        migrate("fresh");
+        migrate("upgraded");
+
+        // Then
+        assertEquals(schema(fresh), schema(upgraded));
+        Map<String, Object> user = upgraded.queryForMap(
+            "SELECT username_normalized, email_normalized, token_epoch, tasks_version FROM users");
+        assertEquals("alice", user.get("username_normalized"));
+        assertEquals("alice@example.com", user.get("email_normalized"));
+        assertEquals(0, ((Number) user.get("token_epoch")).intValue());
+        assertEquals(0L, ((Number) user.get("tasks_version")).longValue());
+        assertEquals(1, upgraded.queryForObject(
+            "SELECT count(*) FROM tasks WHERE search_vector @@ to_tsquery('simple', 'budget')", Integer.class));
+        assertThrows(DataIntegrityViolationException.class, () -> upgraded.update(
+            "INSERT INTO users (username, email, username_normalized, email_normalized, password) "
+                + "VALUES ('ALICE', 'other@example.com', 'alice', 'other@example.com', 'hash')"));
+    }
+
+    @Test
+    void adoptedDatabase_WithUsersDifferingOnlyByCaseStopsBeforeNormalizing() throws IOException {
+        // Given: two logins the old case-sensitive constraints allowed
+        JdbcTemplate upgraded = database("clashing");
+        upgraded.execute(baselineScript());
+        upgraded.update("INSERT INTO users (username, email, password) VALUES ('Bob', 'bob@example.com', 'hash')");
+        upgraded.update("INSERT INTO users (username, email, password) VALUES ('bob', 'bob2@example.com', 'hash')");
+
+        // When & Then
+        assertThrows(FlywayException.class, () -> migrate("clashing"));
+        assertEquals(0, upgraded.queryForObject("SELECT count(*) FROM information_schema.columns "
+            + "WHERE table_name = 'users' AND column_name = 'username_normalized'", Integer.class));
+        assertEquals(2, upgraded.queryForObject("SELECT count(*) FROM users", Integer.class));
+    }
+
+    private static JdbcTemplate database(String name) {
+        new JdbcTemplate(dataSource(postgres.getDatabaseName())).execute("CREATE DATABASE " + name);
+        return new JdbcTemplate(dataSource(name));
+    }
+
+    private static void migrate(String name) {
+        Flyway.configure()
+                .dataSource(dataSource(name))
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+    }
+
+    private static DriverManagerDataSource dataSource(String name) {
+        String url = postgres.getJdbcUrl().replace("/" + postgres.getDatabaseName() + "?", "/" + name + "?");
+        return new DriverManagerDataSource(url, postgres.getUsername(), postgres.getPassword());
+    }
+
+    /**
+     * The baseline migration is the old database/schema.sql unchanged
+     */
+    private static String baselineScript() throws IOException {
+        return new ClassPathResource("db/migration/V1__baseline.sql").getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static List<Map<String, Object>> schema(JdbcTemplate database) {
+        return database.queryForList("""
+            SELECT 'column' AS kind, table_name AS name,
+                   column_name || ' ' || data_type || ' ' || is_nullable || ' ' || coalesce(column_default, '') AS definition
+            FROM information_schema.columns WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history'
+            UNION ALL
+            SELECT 'index', tablename, indexdef FROM pg_indexes
+            WHERE schemaname = 'public' AND tablename <> 'flyway_schema_history'
+            UNION ALL
+            SELECT 'constraint', conrelid::regclass::text, conname || ' ' || pg_get_constraintdef(oid)
+            FROM pg_constraint WHERE connamespace = 'public'::regnamespace
+                AND conrelid <> 'flyway_schema_history'::regclass
+            ORDER BY 1, 2, 3""");
+    }
+}
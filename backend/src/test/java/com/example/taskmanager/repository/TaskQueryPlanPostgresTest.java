@@ -0,0 +1,168 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every {@link TaskRepository} query against a schema built by the Flyway
+ * migrations and checks with EXPLAIN that none of them scans the whole tasks table.
+ *
+ * Each captured statement is planned as a generic prepared statement, the plan the
+ * server settles on for repeated calls, so the result does not depend on the sample
+ * values. Skipped when Docker is unavailable.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.taskmanager.repository.TaskQueryPlanPostgresTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TaskQueryPlanPostgresTest {
+
+    private static final int USERS = 50;
+    private static final int TASKS_PER_USER = 200;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+            INSERT INTO users (username, email, username_normalized, email_normalized, password)
+            SELECT 'user' || n, 'user' || n || '@example.com', 'user' || n, 'user' || n || '@example.com', 'password'
+            FROM generate_series(1, ?) AS n""", USERS);
+        jdbcTemplate.update("""
+            INSERT INTO tasks (title, description, status, priority, due_date, user_id)
+            SELECT 'Task ' || n, 'Description ' || n,
+                   (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'])[n % 4 + 1],
+                   (ARRAY['LOW', 'MEDIUM', 'HIGH', 'URGENT'])[n % 4 + 1],
+                   CASE WHEN n % 3 = 0 THEN NULL ELSE CURRENT_DATE + (n % 60 - 30) END,
+                   u.id
+            FROM users u, generate_series(1, ?) AS n""", TASKS_PER_USER);
+        jdbcTemplate.execute("ANALYZE");
+        userId = jdbcTemplate.queryForObject("SELECT min(id) FROM users", Long.class);
+        CapturingInspector.statements.clear();
+    }
+
+    @Test
+    void everyQuery_UsesAnIndexOnTasks() {
+        LocalDate today = LocalDate.now();
+        PageRequest page = PageRequest.of(1, 20, Sort.by("createdAt").descending());
+
+        // When
+        taskRepository.findByUserId(userId);
+        taskRepository.findByUserId(userId, page);
+        taskRepository.findByIdAndUserId(1L, userId);
+        taskRepository.findByDueDateAndUserId(today, userId);
+        taskRepository.findTitlesByUserId(userId, PageRequest.of(0, 100));
+        taskRepository.countOverdueTasksByUserId(userId, today);
+        taskRepository.countByStatusAndPriority(userId, today, today.plusDays(7));
+        taskRepository.countOpenByDueDate(userId, today, today.plusDays(7));
+        taskRepository.findResponseByIdAndUserId(1L, userId);
+        taskRepository.findOverdueResponsesByUserId(userId, today, PageRequest.of(1, 20));
+        for (TaskSortField sortField : TaskSortField.values()) {
+            taskRepository.findResponses(userId, TaskFilter.none(), sortField, true, null, 0, 20);
+        }
+        taskRepository.findResponses(userId, TaskFilter.none(), TaskSortField.CREATED_AT, true,
+            new TaskCursor(TaskSortField.CREATED_AT, true, LocalDateTime.now(), Long.MAX_VALUE), 0, 20);
+        taskRepository.findResponses(userId, new TaskFilter(TaskStatus.PENDING, null, null, null, null),
+            TaskSortField.CREATED_AT, true, null, 0, 20);
+        taskRepository.findResponses(userId, new TaskFilter(null, TaskPriority.HIGH, null, null, null),
+            TaskSortField.CREATED_AT, true, null, 0, 20);
+        taskRepository.findResponses(userId, new TaskFilter(null, null, today, today.plusDays(7), null),
+            TaskSortField.TITLE, false, null, 0, 20);
+        taskRepository.countResponses(userId, new TaskFilter(TaskStatus.PENDING, TaskPriority.HIGH, null, null, null));
+        taskRepository.findResponses(userId, new TaskFilter(null, TaskPriority.LOW, today, null, null),
+            TaskSortField.CREATED_AT, true, null, page.getOffset(), page.getPageSize());
+
+        // Then
+        List<String> statements = new ArrayList<>(CapturingInspector.statements);
+        assertTrue(statements.size() >= 19, "captured " + statements.size() + " statements");
+        List<String> sequentialScans = new ArrayList<>();
+        for (String sql : statements) {
+            String plan = explainGeneric(sql);
+            if (plan.contains("Seq Scan on tasks")) {
+                sequentialScans.add(sql + "\n" + plan);
+            }
+        }
+        assertTrue(sequentialScans.isEmpty(), "Sequential scans on tasks:\n" + String.join("\n\n", sequentialScans));
+    }
+
+    private String explainGeneric(String sql) {
+        int parameters = 0;
+        StringBuilder numbered = new StringBuilder();
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        jdbcTemplate.execute("DEALLOCATE ALL");
+        jdbcTemplate.execute("SET plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("PREPARE plan_check AS " + numbered);
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN EXECUTE plan_check" + arguments, String.class);
+        return String.join("\n", lines);
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase(Locale.ROOT).contains("tasks")) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.TaskResponse;
 import com.example.taskmanager.entity.Task;
 import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
@@ -14,6 +15,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -115,122 +117,272 @@ class TaskRepositoryTest {
     }
     
     @Test
-    void findByStatusAndUserId_Success() {
+    void findByDueDateAndUserId_Success() {
+        // Given
+        LocalDate specificDate = testTask1.getDueDate();
+        
         // When
-        List<Task> pendingTasks = taskRepository.findByStatusAndUserId(TaskStatus.PENDING, testUser.getId());
-        List<Task> completedTasks = taskRepository.findByStatusAndUserId(TaskStatus.COMPLETED, testUser.getId());
+        List<Task> tasksOnDate = taskRepository.findByDueDateAndUserId(specificDate, testUser.getId());
         
         // Then
-        assertEquals(1, pendingTasks.size());
-        assertEquals("Task 1", pendingTasks.get(0).getTitle());
-        assertEquals(TaskStatus.PENDING, pendingTasks.get(0).getStatus());
-        
-        assertEquals(1, completedTasks.size());
-        assertEquals("Task 2", completedTasks.get(0).getTitle());
-        assertEquals(TaskStatus.COMPLETED, completedTasks.get(0).getStatus());
+        assertEquals(1, tasksOnDate.size());
+        assertEquals("Task 1", tasksOnDate.get(0).getTitle());
+        assertEquals(specificDate, tasksOnDate.get(0).getDueDate());
     }
     
     @Test
-    void findByPriorityAndUserId_Success() {
+    void countOverdueTasksByUserId_Success() {
         // When
-        List<Task> highPriorityTasks = taskRepository.findByPriorityAndUserId(TaskPriority.HIGH, testUser.getId());
-        List<Task> mediumPriorityTasks = taskRepository.findByPriorityAndUserId(TaskPriority.MEDIUM, testUser.getId());
+        long overdueCount = taskRepository.countOverdueTasksByUserId(testUser.getId(), LocalDate.now());
         
         // Then
-        assertEquals(1, highPriorityTasks.size());
-        assertEquals("Task 1", highPriorityTasks.get(0).getTitle());
-        assertEquals(TaskPriority.HIGH, highPriorityTasks.get(0).getPriority());
-        
-        assertEquals(1, mediumPriorityTasks.size());
-        assertEquals("Task 2", mediumPriorityTasks.get(0).getTitle());
-        assertEquals(TaskPriority.MEDIUM, mediumPriorityTasks.get(0).getPriority());
+        assertEquals(0, overdueCount); // Task 2 is completed, so not counted as overdue
     }
     
     @Test
-    void findByDueDateBeforeAndUserId_Success() {
+    void findOverdueResponsesByUserId_MatchesCountAndSkipsClosedTasks() {
+        // Given
+        LocalDate today = LocalDate.now();
+        for (TaskStatus status : TaskStatus.values()) {
+            Task task = new Task("Overdue " + status, testUser);
+            task.setStatus(status);
+            task.setDueDate(today.minusDays(status.ordinal() + 1));
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        
         // When
-        List<Task> overdueTasks = taskRepository.findByDueDateBeforeAndUserId(LocalDate.now(), testUser.getId());
+        Page<TaskResponse> page = taskRepository.findOverdueResponsesByUserId(testUser.getId(), today, PageRequest.of(0, 1));
+        long count = taskRepository.countOverdueTasksByUserId(testUser.getId(), today);
         
         // Then
-        assertEquals(1, overdueTasks.size());
-        assertEquals("Task 2", overdueTasks.get(0).getTitle());
-        assertTrue(overdueTasks.get(0).getDueDate().isBefore(LocalDate.now()));
+        assertEquals(2, count);
+        assertEquals(count, page.getTotalElements());
+        assertEquals("Overdue In Progress", page.getContent().get(0).getTitle());
+        assertTrue(page.hasNext());
     }
     
     @Test
-    void findByDueDateAndUserId_Success() {
+    void countByStatusAndPriority_GroupsAndBucketsDueDates() {
         // Given
-        LocalDate specificDate = testTask1.getDueDate();
+        LocalDate today = LocalDate.now();
+        Task dueToday = new Task("Task 3", testUser);
+        dueToday.setPriority(TaskPriority.HIGH);
+        dueToday.setDueDate(today);
+        entityManager.persist(dueToday);
+        Task undated = new Task("Task 4", testUser);
+        undated.setPriority(TaskPriority.HIGH);
+        entityManager.persistAndFlush(undated);
         
         // When
-        List<Task> tasksOnDate = taskRepository.findByDueDateAndUserId(specificDate, testUser.getId());
+        List<Object[]> rows = taskRepository.countByStatusAndPriority(testUser.getId(), today, today.plusDays(7));
         
         // Then
-        assertEquals(1, tasksOnDate.size());
-        assertEquals("Task 1", tasksOnDate.get(0).getTitle());
-        assertEquals(specificDate, tasksOnDate.get(0).getDueDate());
+        assertEquals(2, rows.size());
+        Object[] pendingHigh = rows.stream().filter(row -> row[0] == TaskStatus.PENDING).findFirst().orElseThrow();
+        assertEquals(TaskPriority.HIGH, pendingHigh[1]);
+        // total, overdue, today, this week, later, none
+        assertArrayEquals(new long[]{3, 0, 1, 1, 0, 1}, longs(pendingHigh));
+        Object[] completedMedium = rows.stream().filter(row -> row[0] == TaskStatus.COMPLETED).findFirst().orElseThrow();
+        assertArrayEquals(new long[]{1, 1, 0, 0, 0, 0}, longs(completedMedium));
     }
     
     @Test
-    void searchByKeywordAndUserId_Success() {
+    void findResponses_WalksEveryTaskOnceAcrossEqualSortKeys() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task("Same title", entityManager.find(User.class, testUser.getId()));
+            entityManager.persistAndFlush(task);
+        }
+        entityManager.clear();
+        
         // When
-        List<Task> tasksWithKeyword = taskRepository.searchByKeywordAndUserId("Task 1", testUser.getId());
-        List<Task> tasksWithDescription = taskRepository.searchByKeywordAndUserId("Description", testUser.getId());
+        List<TaskResponse> walked = new ArrayList<>();
+        TaskCursor cursor = null;
+        List<TaskResponse> page;
+        do {
+            page = taskRepository.findResponses(testUser.getId(), TaskFilter.none(), TaskSortField.TITLE, false, cursor, 0, 2);
+            walked.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = TaskCursor.decode(
+                    TaskCursor.after(page.get(page.size() - 1), TaskSortField.TITLE, false).encode(),
+                    TaskSortField.TITLE, false);
+            }
+        } while (page.size() == 2);
         
         // Then
-        assertEquals(1, tasksWithKeyword.size());
-        assertEquals("Task 1", tasksWithKeyword.get(0).getTitle());
+        assertEquals(7, walked.size());
+        assertEquals(7, walked.stream().map(TaskResponse::getId).distinct().count());
+        for (int i = 1; i < walked.size(); i++) {
+            TaskResponse previous = walked.get(i - 1);
+            TaskResponse current = walked.get(i);
+            int byTitle = previous.getTitle().compareTo(current.getTitle());
+            assertTrue(byTitle < 0 || (byTitle == 0 && previous.getId() < current.getId()));
+        }
+    }
+    
+    @Test
+    void findResponses_ListsTasksWithoutSortKeyLastInIdOrder() {
+        // Given: three of five tasks without an updatedAt
+        List<Long> undated = new ArrayList<>(List.of(testTask1.getId()));
+        for (int i = 0; i < 2; i++) {
+            undated.add(entityManager.persistAndFlush(
+                new Task("Imported " + i, entityManager.find(User.class, testUser.getId()))).getId());
+        }
+        entityManager.persistAndFlush(new Task("Task 3", entityManager.find(User.class, testUser.getId())));
+        entityManager.getEntityManager().createQuery("UPDATE Task t SET t.updatedAt = NULL WHERE t.id IN :ids")
+            .setParameter("ids", undated).executeUpdate();
+        entityManager.clear();
         
-        assertEquals(2, tasksWithDescription.size());
+        for (boolean descending : new boolean[]{false, true}) {
+            // When
+            List<TaskResponse> walked = walk(TaskSortField.UPDATED_AT, descending, 2);
+            List<TaskResponse> byOffset = new ArrayList<>();
+            for (int offset = 0; offset < 6; offset += 2) {
+                byOffset.addAll(taskRepository.findResponses(testUser.getId(), TaskFilter.none(),
+                    TaskSortField.UPDATED_AT, descending, null, offset, 2));
+            }
+            
+            // Then
+            List<Long> expectedLast = new ArrayList<>(undated);
+            if (descending) {
+                expectedLast.sort((a, b) -> Long.compare(b, a));
+            }
+            List<Long> walkedIds = walked.stream().map(TaskResponse::getId).toList();
+            assertEquals(5, walkedIds.size());
+            assertEquals(expectedLast, walkedIds.subList(2, 5));
+            assertNotNull(walked.get(0).getUpdatedAt());
+            assertNotNull(walked.get(1).getUpdatedAt());
+            assertEquals(walkedIds, byOffset.stream().map(TaskResponse::getId).toList());
+        }
     }
     
     @Test
-    void countByStatusAndUserId_Success() {
+    void findResponses_DescendingByCreatedAt() {
         // When
-        long pendingCount = taskRepository.countByStatusAndUserId(TaskStatus.PENDING, testUser.getId());
-        long completedCount = taskRepository.countByStatusAndUserId(TaskStatus.COMPLETED, testUser.getId());
-        long inProgressCount = taskRepository.countByStatusAndUserId(TaskStatus.IN_PROGRESS, testUser.getId());
+        List<TaskResponse> first = taskRepository.findResponses(
+            testUser.getId(), TaskFilter.none(), TaskSortField.CREATED_AT, true, null, 0, 1);
+        List<TaskResponse> second = taskRepository.findResponses(
+            testUser.getId(), TaskFilter.none(), TaskSortField.CREATED_AT, true,
+            TaskCursor.after(first.get(0), TaskSortField.CREATED_AT, true), 0, 1);
         
         // Then
-        assertEquals(1, pendingCount);
-        assertEquals(1, completedCount);
-        assertEquals(0, inProgressCount);
+        assertEquals(testTask2.getId(), first.get(0).getId());
+        assertEquals(testTask1.getId(), second.get(0).getId());
+        assertEquals("testuser", second.get(0).getUserUsername());
     }
     
     @Test
-    void countOverdueTasksByUserId_Success() {
+    void taskCursor_RejectsTamperedOrMismatchedTokens() {
+        // Given
+        String token = new TaskCursor(TaskSortField.CREATED_AT, true, testTask1.getCreatedAt(), 7L).encode();
+        
         // When
-        long overdueCount = taskRepository.countOverdueTasksByUserId(testUser.getId(), LocalDate.now());
+        TaskCursor decoded = TaskCursor.decode(token, TaskSortField.CREATED_AT, true);
         
         // Then
-        assertEquals(0, overdueCount); // Task 2 is completed, so not counted as overdue
+        assertEquals(7L, decoded.getId());
+        assertEquals(testTask1.getCreatedAt(), decoded.getSortValue());
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(token, TaskSortField.CREATED_AT, false));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(token, TaskSortField.TITLE, true));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not a cursor", TaskSortField.TITLE, true));
+        assertThrows(IllegalArgumentException.class, () -> TaskSortField.fromProperty("password"));
     }
     
     @Test
-    void findTasksWithFilters_Success() {
+    void findResponses_CombinesOnlySuppliedFilters() {
         // Given
-        Pageable pageable = PageRequest.of(0, 10);
+        TaskFilter pendingHigh = new TaskFilter(TaskStatus.PENDING, TaskPriority.HIGH, null, null, null);
+        TaskFilter dueRange = new TaskFilter(null, null, LocalDate.now().minusDays(3), LocalDate.now(), null);
+        TaskFilter keywordAndStatus = new TaskFilter(TaskStatus.COMPLETED, null, null, null, "  DESCRIPTION ");
         
-        // When - Filter by status
-        Page<Task> pendingTasks = taskRepository.findTasksWithFilters(
-            testUser.getId(), TaskStatus.PENDING, null, null, null, pageable);
+        // When
+        List<TaskResponse> pendingHighTasks = taskRepository.findResponses(
+            testUser.getId(), pendingHigh, TaskSortField.CREATED_AT, true, null, 0, 10);
+        List<TaskResponse> dueRangeTasks = taskRepository.findResponses(
+            testUser.getId(), dueRange, TaskSortField.CREATED_AT, true, null, 0, 10);
+        List<TaskResponse> keywordTasks = taskRepository.findResponses(
+            testUser.getId(), keywordAndStatus, TaskSortField.CREATED_AT, true, null, 0, 10);
+        
+        // Then
+        assertEquals(1, pendingHighTasks.size());
+        assertEquals(testTask1.getId(), pendingHighTasks.get(0).getId());
+        assertEquals(1, dueRangeTasks.size());
+        assertEquals(testTask2.getId(), dueRangeTasks.get(0).getId());
+        assertEquals(1, keywordTasks.size());
+        assertEquals(testTask2.getId(), keywordTasks.get(0).getId());
+        assertEquals(1, taskRepository.countResponses(testUser.getId(), pendingHigh));
+        assertEquals(2, taskRepository.countResponses(testUser.getId(), TaskFilter.none()));
+    }
+    
+    @Test
+    void findResponses_TreatsKeywordWildcardsLiterally() {
+        // Given
+        Task discount = new Task("50% off_sale", entityManager.find(User.class, testUser.getId()));
+        entityManager.persistAndFlush(discount);
+        entityManager.clear();
         
-        // When - Filter by priority
-        Page<Task> highPriorityTasks = taskRepository.findTasksWithFilters(
-            testUser.getId(), null, TaskPriority.HIGH, null, null, pageable);
+        // When
+        List<TaskResponse> percent = taskRepository.findResponses(testUser.getId(),
+            new TaskFilter(null, null, null, null, "%"), TaskSortField.TITLE, false, null, 0, 10);
+        List<TaskResponse> underscore = taskRepository.findResponses(testUser.getId(),
+            new TaskFilter(null, null, null, null, "50_"), TaskSortField.TITLE, false, null, 0, 10);
         
-        // When - No filters
-        Page<Task> allTasks = taskRepository.findTasksWithFilters(
-            testUser.getId(), null, null, null, null, pageable);
+        // Then
+        assertEquals(1, percent.size());
+        assertEquals("50% off_sale", percent.get(0).getTitle());
+        assertTrue(underscore.isEmpty());
+    }
+    
+    @Test
+    void findResponses_SkipsOffsetWithoutCursor() {
+        // When
+        List<TaskResponse> secondPage = taskRepository.findResponses(
+            testUser.getId(), TaskFilter.none(), TaskSortField.TITLE, false, null, 1, 10);
         
         // Then
-        assertEquals(1, pendingTasks.getContent().size());
-        assertEquals(TaskStatus.PENDING, pendingTasks.getContent().get(0).getStatus());
+        assertEquals(1, secondPage.size());
+        assertEquals("Task 2", secondPage.get(0).getTitle());
+    }
+    
+    @Test
+    void findResponses_OffsetBeyondIntRangeIsEmpty() {
+        // Given: page 100000 of 100000, whose offset overflows an int
+        long offset = 100_000L * 100_000;
         
-        assertEquals(1, highPriorityTasks.getContent().size());
-        assertEquals(TaskPriority.HIGH, highPriorityTasks.getContent().get(0).getPriority());
+        // When
+        List<TaskResponse> page = taskRepository.findResponses(
+            testUser.getId(), TaskFilter.none(), TaskSortField.TITLE, false, null, offset, 10);
         
-        assertEquals(2, allTasks.getContent().size());
+        // Then
+        assertTrue(page.isEmpty());
+    }
+    
+    /**
+     * Follow encoded cursors through every page, as a client would
+     */
+    private List<TaskResponse> walk(TaskSortField sortField, boolean descending, int pageSize) {
+        List<TaskResponse> walked = new ArrayList<>();
+        TaskCursor cursor = null;
+        List<TaskResponse> page;
+        do {
+            page = taskRepository.findResponses(
+                testUser.getId(), TaskFilter.none(), sortField, descending, cursor, 0, pageSize);
+            walked.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = TaskCursor.decode(
+                    TaskCursor.after(page.get(page.size() - 1), sortField, descending).encode(),
+                    sortField, descending);
+            }
+        } while (page.size() == pageSize);
+        return walked;
+    }
+    
+    private static long[] longs(Object[] row) {
+        long[] values = new long[row.length - 2];
+        for (int i = 2; i < row.length; i++) {
+            values[i - 2] = ((Number) row[i]).longValue();
+        }
+        return values;
     }
 }
-
@@ -0,0 +1,118 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Full-text search path against a real PostgreSQL; skipped when Docker is unavailable
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TaskSearchRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class TaskSearchPostgresTest {
+    
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TaskSearchRepository taskSearchRepository;
+    
+    private User testUser;
+    
+    @BeforeEach
+    void setUp() {
+        // Hibernate creates the tables; add the search column and extension as V10__task_search_vector.sql does
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("""
+            ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+                setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+                setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+            ) STORED""");
+        
+        testUser = new User();
+        testUser.setUsername("searcher");
+        testUser.setEmail("searcher@example.com");
+        testUser.setPassword("password");
+        testUser = entityManager.persistAndFlush(testUser);
+        
+        persistTask("Quarterly budget", "Prepare the report for finance");
+        persistTask("Budget report", "Numbers & <charts>");
+        persistTask("Water plants", null);
+        entityManager.clear();
+    }
+    
+    @Test
+    void search_RanksTitleAboveDescriptionAndHighlights() {
+        // When
+        List<TaskSearchHit> hits = taskSearchRepository.search(testUser.getId(), "report", 0, 10);
+        
+        // Then
+        assertTrue(taskSearchRepository.isFullText());
+        assertEquals(2, hits.size());
+        assertEquals("Budget report", hits.get(0).getTask().getTitle());
+        assertEquals("Budget <mark>report</mark>", hits.get(0).getTitleHighlight());
+        assertTrue(hits.get(1).getDescriptionHighlight().contains("<mark>report</mark>"));
+        assertEquals(2, taskSearchRepository.count(testUser.getId(), "report"));
+    }
+    
+    @Test
+    void search_MatchesTyposThroughTrigrams() {
+        // When
+        List<TaskSearchHit> hits = taskSearchRepository.search(testUser.getId(), "quartely", 0, 10);
+        
+        // Then
+        assertEquals(1, hits.size());
+        assertEquals("Quarterly budget", hits.get(0).getTask().getTitle());
+    }
+    
+    @Test
+    void search_EscapesMarkupInHighlights() {
+        // When
+        List<TaskSearchHit> hits = taskSearchRepository.search(testUser.getId(), "numbers", 0, 10);
+        
+        // Then
+        assertEquals(1, hits.size());
+        assertFalse(hits.get(0).getDescriptionHighlight().contains("<charts>"));
+        assertTrue(hits.get(0).getDescriptionHighlight().contains("&lt;charts&gt;"));
+    }
+    
+    private void persistTask(String title, String description) {
+        Task task = new Task(title, testUser);
+        task.setDescription(description);
+        entityManager.persistAndFlush(task);
+    }
+}
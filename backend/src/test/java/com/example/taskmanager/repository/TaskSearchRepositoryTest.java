@@ -0,0 +1,96 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(TaskSearchRepository.class)
+class TaskSearchRepositoryTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private TaskSearchRepository taskSearchRepository;
+    
+    private User testUser;
+    
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("searcher");
+        testUser.setEmail("searcher@example.com");
+        testUser.setPassword("password");
+        testUser = entityManager.persistAndFlush(testUser);
+        
+        User otherUser = new User();
+        otherUser.setUsername("other");
+        otherUser.setEmail("other@example.com");
+        otherUser.setPassword("password");
+        otherUser = entityManager.persistAndFlush(otherUser);
+        
+        persistTask(testUser, "Pay invoices", "Quarterly <b>report</b> attached");
+        persistTask(testUser, "Write report", "For the board");
+        persistTask(testUser, "Water plants", null);
+        persistTask(otherUser, "Other report", "Not visible");
+        entityManager.clear();
+    }
+    
+    @Test
+    void search_FallsBackToLikeOnH2() {
+        // When & Then
+        assertFalse(taskSearchRepository.isFullText());
+    }
+    
+    @Test
+    void search_RanksTitleMatchesFirstAndStaysWithinUser() {
+        // When
+        List<TaskSearchHit> hits = taskSearchRepository.search(testUser.getId(), "REPORT", 0, 10);
+        
+        // Then
+        assertEquals(2, hits.size());
+        assertEquals("Write report", hits.get(0).getTask().getTitle());
+        assertTrue(hits.get(0).getRank() > hits.get(1).getRank());
+        assertEquals("searcher", hits.get(0).getTask().getUserUsername());
+        assertEquals(2, taskSearchRepository.count(testUser.getId(), "report"));
+    }
+    
+    @Test
+    void search_HighlightsMatchesInEscapedText() {
+        // When
+        List<TaskSearchHit> hits = taskSearchRepository.search(testUser.getId(), "report", 0, 10);
+        
+        // Then
+        assertEquals("Write <mark>report</mark>", hits.get(0).getTitleHighlight());
+        assertEquals("Quarterly &lt;b&gt;<mark>report</mark>&lt;/b&gt; attached", hits.get(1).getDescriptionHighlight());
+    }
+    
+    @Test
+    void search_PaginatesInRankOrder() {
+        // When
+        List<TaskSearchHit> firstPage = taskSearchRepository.search(testUser.getId(), "r", 0, 2);
+        List<TaskSearchHit> secondPage = taskSearchRepository.search(testUser.getId(), "r", 2, 2);
+        
+        // Then
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertTrue(firstPage.stream().noneMatch(hit -> hit.getTask().getId().equals(secondPage.get(0).getTask().getId())));
+    }
+    
+    private void persistTask(User owner, String title, String description) {
+        Task task = new Task(title, owner);
+        task.setDescription(description);
+        entityManager.persistAndFlush(task);
+    }
+}
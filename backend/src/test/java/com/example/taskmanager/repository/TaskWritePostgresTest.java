@@ -0,0 +1,224 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The RETURNING statements of {@link TaskWriteRepository} against a real PostgreSQL;
+ * skipped when Docker is unavailable. Runs outside a test transaction so concurrent
+ * writers commit as in production.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TaskWriteRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskWritePostgresTest {
+    
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+    
+    @Autowired
+    private TaskWriteRepository taskWriteRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transaction;
+    private Long userId;
+    private Long otherUserId;
+    private Long taskId;
+    
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        userId = userRepository.save(user("writer")).getId();
+        otherUserId = userRepository.save(user("intruder")).getId();
+        
+        Task task = new Task("Original", userRepository.getReferenceById(userId));
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.LOW);
+        task.setDueDate(LocalDate.of(2030, 1, 2));
+        taskId = taskRepository.save(task).getId();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+    
+    @Test
+    void update_ReturnsRowAsItWasAndBumpsVersion() {
+        // When
+        Optional<Task> before = transaction.execute(status -> taskWriteRepository.update(taskId, userId, 0L,
+                "Changed", "Now described", TaskStatus.COMPLETED, null, null, LocalDateTime.now()));
+        
+        // Then
+        assertTrue(before.isPresent());
+        assertEquals(TaskStatus.PENDING, before.get().getStatus());
+        assertEquals(TaskPriority.LOW, before.get().getPriority());
+        assertEquals(LocalDate.of(2030, 1, 2), before.get().getDueDate());
+        assertNotNull(before.get().getCreatedAt());
+        assertEquals(0L, before.get().getVersion());
+        
+        Map<String, Object> row = row();
+        assertEquals("Changed", row.get("title"));
+        assertEquals("COMPLETED", row.get("status"));
+        assertEquals("LOW", row.get("priority"));
+        assertNull(row.get("due_date"));
+        assertEquals(1L, ((Number) row.get("version")).longValue());
+    }
+    
+    @Test
+    void update_WithStaleVersionOrOtherOwnerChangesNothing() {
+        // When
+        Optional<Task> stale = transaction.execute(status -> taskWriteRepository.update(taskId, userId, 3L,
+                "Stale", null, null, null, null, LocalDateTime.now()));
+        Optional<Task> foreign = transaction.execute(status -> taskWriteRepository.update(taskId, otherUserId, null,
+                "Foreign", null, null, null, null, LocalDateTime.now()));
+        
+        // Then
+        assertTrue(stale.isEmpty());
+        assertTrue(foreign.isEmpty());
+        assertEquals("Original", row().get("title"));
+        assertEquals(0L, ((Number) row().get("version")).longValue());
+    }
+    
+    @Test
+    void delete_ReturnsDeletedRowOnlyToItsOwner() {
+        // When
+        Optional<Task> foreign = transaction.execute(status -> taskWriteRepository.delete(taskId, otherUserId));
+        Optional<Task> deleted = transaction.execute(status -> taskWriteRepository.delete(taskId, userId));
+        
+        // Then
+        assertTrue(foreign.isEmpty());
+        assertTrue(deleted.isPresent());
+        assertEquals(TaskStatus.PENDING, deleted.get().getStatus());
+        assertEquals(TaskPriority.LOW, deleted.get().getPriority());
+        assertEquals(LocalDate.of(2030, 1, 2), deleted.get().getDueDate());
+        assertEquals(0, taskRepository.count());
+    }
+    
+    @Test
+    void update_SecondWriterAtSameVersionWaitsThenMatchesNothing() throws Exception {
+        // When
+        Optional<Task>[] results = racingUpdates(0L);
+        
+        // Then
+        assertTrue(results[0].isPresent());
+        assertTrue(results[1].isEmpty());
+        assertEquals("First", row().get("title"));
+        assertEquals(1L, ((Number) row().get("version")).longValue());
+    }
+    
+    @Test
+    void update_SecondUnconditionalWriterSeesTheFirstWrite() throws Exception {
+        // When
+        Optional<Task>[] results = racingUpdates(null);
+        
+        // Then: the second writer's old values are the committed first write, not the row it started from
+        assertEquals(0L, results[0].orElseThrow().getVersion());
+        assertEquals(TaskStatus.PENDING, results[0].get().getStatus());
+        assertEquals(1L, results[1].orElseThrow().getVersion());
+        assertEquals(TaskStatus.IN_PROGRESS, results[1].get().getStatus());
+        assertEquals("Second", row().get("title"));
+        assertEquals(2L, ((Number) row().get("version")).longValue());
+    }
+    
+    /**
+     * Two writers of the same task: the first holds its row lock for a while before
+     * committing, and the second starts once the first has written
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<Task>[] racingUpdates(Long expectedVersion) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch firstWritten = new CountDownLatch(1);
+            Future<Optional<Task>> first = executor.submit(() -> transaction.execute(status -> {
+                Optional<Task> before = taskWriteRepository.update(taskId, userId, expectedVersion, "First", null,
+                        TaskStatus.IN_PROGRESS, null, null, LocalDateTime.now());
+                firstWritten.countDown();
+                sleep(300);
+                return before;
+            }));
+            assertTrue(firstWritten.await(10, TimeUnit.SECONDS));
+            Future<Optional<Task>> second = executor.submit(() -> transaction.execute(status ->
+                    taskWriteRepository.update(taskId, userId, expectedVersion, "Second", null,
+                            TaskStatus.COMPLETED, null, null, LocalDateTime.now())));
+            return new Optional[] {first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS)};
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap("SELECT title, status, priority, due_date, version FROM tasks WHERE id = ?",
+                taskId);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
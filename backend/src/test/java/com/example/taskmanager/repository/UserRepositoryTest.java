@@ -0,0 +1,122 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserRepositoryTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private User testUser;
+    
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("TestUser");
+        testUser.setEmail("Test.User@Example.com");
+        testUser.setPassword("password");
+        testUser = entityManager.persistAndFlush(testUser);
+    }
+    
+    @Test
+    void findByUsernameOrEmail_IgnoresCase() {
+        // When
+        Optional<User> byUsername = userRepository.findByUsernameOrEmail("testuser");
+        Optional<User> byEmail = userRepository.findByUsernameOrEmail(" test.user@EXAMPLE.com ");
+        
+        // Then
+        assertTrue(byUsername.isPresent());
+        assertTrue(byEmail.isPresent());
+        assertEquals(testUser.getId(), byUsername.get().getId());
+        assertEquals(testUser.getId(), byEmail.get().getId());
+        assertEquals("TestUser", byUsername.get().getUsername());
+    }
+    
+    @Test
+    void findByUsernameOrEmail_FallsBackToUsernameContainingAt() {
+        // Given
+        User atUser = new User();
+        atUser.setUsername("team@ops");
+        atUser.setEmail("ops@example.com");
+        atUser.setPassword("password");
+        entityManager.persistAndFlush(atUser);
+        
+        // When
+        Optional<User> found = userRepository.findByUsernameOrEmail("Team@Ops");
+        
+        // Then
+        assertTrue(found.isPresent());
+        assertEquals("ops@example.com", found.get().getEmail());
+    }
+    
+    @Test
+    void findByUsernameOrEmail_UnknownLogin() {
+        // When & Then
+        assertFalse(userRepository.findByUsernameOrEmail("nobody@example.com").isPresent());
+        assertFalse(userRepository.findByUsernameOrEmail("").isPresent());
+    }
+    
+    @Test
+    void save_RejectsUsernameDifferingOnlyInCase() {
+        // Given
+        User duplicate = new User();
+        duplicate.setUsername("TESTUSER");
+        duplicate.setEmail("other@example.com");
+        duplicate.setPassword("password");
+        
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(duplicate));
+    }
+    
+    @Test
+    void existsByEmail_IgnoresCase() {
+        // When & Then
+        assertTrue(userRepository.existsByEmail("TEST.USER@example.com"));
+        assertFalse(userRepository.existsByEmail("other@example.com"));
+    }
+    
+    @Test
+    void changePassword_OnlyReplacesTheVerifiedHash() {
+        // When
+        int stale = userRepository.changePassword(testUser.getId(), "other-hash", "new-hash", LocalDateTime.now());
+        int changed = userRepository.changePassword(testUser.getId(), "password", "new-hash", LocalDateTime.now());
+        entityManager.clear();
+        
+        // Then
+        assertEquals(0, stale);
+        assertEquals(1, changed);
+        User reloaded = entityManager.find(User.class, testUser.getId());
+        assertEquals("new-hash", reloaded.getPassword());
+        assertEquals(testUser.getTokenEpoch() + 1, reloaded.getTokenEpoch());
+    }
+    
+    @Test
+    void rehashPassword_KeepsTokenEpochAndSkipsChangedPassword() {
+        // When
+        int stale = userRepository.rehashPassword(testUser.getId(), "other-hash", "rehashed");
+        int rehashed = userRepository.rehashPassword(testUser.getId(), "password", "rehashed");
+        entityManager.clear();
+        
+        // Then
+        assertEquals(0, stale);
+        assertEquals(1, rehashed);
+        User reloaded = entityManager.find(User.class, testUser.getId());
+        assertEquals("rehashed", reloaded.getPassword());
+        assertEquals(testUser.getTokenEpoch(), reloaded.getTokenEpoch());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.TokenEpochService;
+import com.example.taskmanager.service.TokenRevocationService;
+import com.example.taskmanager.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtUtils jwtUtils;
+    private TokenEpochService tokenEpochService;
+    private AuthTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "testSecretKey12345678901234567890123456789");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900_000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtRefreshExpirationMs", 3_600_000L);
+        jwtUtils.init();
+
+        // The real epoch cache, over a mocked epoch column
+        tokenEpochService = new TokenEpochService(userRepository, 60_000, 100);
+
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenEpochService", tokenEpochService);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stateless_CurrentEpochAuthenticatesFromClaimsAlone() throws Exception {
+        // Given
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(2));
+        String token = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 2);
+
+        // When
+        Authentication authentication = authenticate(token);
+
+        // Then
+        UserPrincipal principal = assertInstanceOf(UserPrincipal.class, authentication.getPrincipal());
+        assertEquals(1L, principal.getId());
+        assertEquals("alice", principal.getUsername());
+        assertEquals("alice@example.com", principal.getEmail());
+        assertEquals(2, principal.getTokenEpoch());
+        assertNull(principal.getPassword());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void stateless_EpochIsReadOncePerRecheckInterval() throws Exception {
+        // Given
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(0));
+        String token = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 0);
+
+        // When
+        authenticate(token);
+        SecurityContextHolder.clearContext();
+        authenticate(token);
+
+        // Then
+        verify(userRepository, times(1)).findTokenEpochById(1L);
+    }
+
+    @Test
+    void stateless_TokenFromBeforePasswordChangeIsRejected() throws Exception {
+        // Given: a token accepted, then a password change moves the user to the next epoch
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(2));
+        String oldToken = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 2);
+        assertNotNull(authenticate(oldToken));
+        SecurityContextHolder.clearContext();
+
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(3));
+        tokenEpochService.invalidate(1L);
+        String newToken = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 3);
+
+        // When & Then
+        assertNull(authenticate(oldToken));
+        assertNotNull(authenticate(newToken));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void stateless_TokenOfDeletedUserIsRejected() throws Exception {
+        // Given
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.empty());
+        String token = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 0);
+
+        // When & Then
+        assertNull(authenticate(token));
+    }
+
+    @Test
+    void refreshAndRevokedTokensAreRejectedBeforeAnyLookup() throws Exception {
+        // Given
+        String refreshToken = jwtUtils.generateRefreshToken("alice", 1L, "alice@example.com", 0);
+        String revokedToken = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 0);
+        when(tokenRevocationService.isRevoked(any())).thenReturn(true);
+
+        // When & Then
+        assertNull(authenticate(refreshToken));
+        assertNull(authenticate(revokedToken));
+        verifyNoInteractions(userRepository, userDetailsService);
+    }
+
+    @Test
+    void statelessOff_LoadsPrincipalAndRejectsStaleEpoch() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", false);
+        when(userDetailsService.loadUserById(1L)).thenReturn(new UserPrincipal(1L, "alice", "alice@example.com",
+            "hash", List.of(new SimpleGrantedAuthority("ROLE_USER")), 3));
+        String staleToken = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 2);
+        String currentToken = jwtUtils.generateTokenFromUsername("alice", 1L, "alice@example.com", 3);
+
+        // When & Then
+        assertNull(authenticate(staleToken));
+        assertNotNull(authenticate(currentToken));
+        verifyNoInteractions(userRepository);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
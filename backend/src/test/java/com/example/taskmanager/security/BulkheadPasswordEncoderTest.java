@@ -0,0 +1,110 @@
+package com.example.taskmanager.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadPasswordEncoderTest {
+
+    private final BlockingEncoder delegate = new BlockingEncoder();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BulkheadPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        delegate.release.countDown();
+        encoder.destroy();
+    }
+
+    @Test
+    void encode_RejectsWhenPoolAndQueueAreFull() throws Exception {
+        // Given: one hashing thread, busy, and one queued call
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, 10_000, meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitForQueuedCall();
+
+        // When
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+            () -> encoder.encode("third"));
+
+        // Then
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("auth.password.rejected").count());
+        delegate.release.countDown();
+        assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_RejectsWhenHashingTimesOut() {
+        // Given
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, 50, meterRegistry);
+
+        // When
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+            () -> encoder.matches("password", "hash:password"));
+
+        // Then
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("auth.password.rejected").count());
+    }
+
+    @Test
+    void encode_ReturnsDelegateResultWithinTimeout() {
+        // Given
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, 5_000, meterRegistry);
+        delegate.release.countDown();
+
+        // When & Then
+        assertEquals("hash:password", encoder.encode("password"));
+        assertTrue(encoder.matches("password", "hash:password"));
+        assertEquals(0.0, meterRegistry.counter("auth.password.rejected").count());
+    }
+
+    private void waitForQueuedCall() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.queue.depth").gauge().value() < 1) {
+            assertTrue(System.nanoTime() < deadline, "second call was never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Encoder that holds every call until released, standing in for a slow hash
+     */
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+
+        private void await() {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.taskmanager.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_FlagsHashesAtAnyOtherCost() {
+        // Given
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        // When & Then
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+
+    @Test
+    void matches_AcceptsHashesAtOtherCosts() {
+        // Given
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        // When & Then
+        assertTrue(encoder.matches("secret", legacyHash));
+        assertEquals(4, CalibratedBCryptPasswordEncoder.costOf(legacyHash));
+    }
+
+    @Test
+    void calibrate_StaysWithinConfiguredRange() {
+        // When
+        int unreachableTarget = CalibratedBCryptPasswordEncoder.calibrate(0, 5, 6);
+        int generousTarget = CalibratedBCryptPasswordEncoder.calibrate(10_000, 4, 6);
+
+        // Then
+        assertEquals(5, unreachableTarget);
+        assertEquals(6, generousTarget);
+    }
+}
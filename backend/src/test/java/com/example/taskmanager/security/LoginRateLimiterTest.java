@@ -0,0 +1,55 @@
+package com.example.taskmanager.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private LoginRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        // 3 attempts per IP, 2 per username, 4 availability lookups, refilling far slower than the test runs
+        rateLimiter = new LoginRateLimiter(3, 1, 2, 1, 4, 1, 1000, (MeterRegistry) null);
+    }
+
+    @Test
+    void checkAttempt_RejectsUsernameOverCapacity() {
+        // Given
+        rateLimiter.checkAttempt("10.0.0.1", "alice");
+        rateLimiter.checkAttempt("10.0.0.2", "Alice");
+
+        // When & Then
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+            () -> rateLimiter.checkAttempt("10.0.0.3", " ALICE "));
+        assertTrue(exception.getRetryAfterSeconds() > 0);
+    }
+
+    @Test
+    void checkAttempt_RejectsIpOverCapacityAcrossUsernames() {
+        // Given
+        rateLimiter.checkAttempt("10.0.0.1", "alice");
+        rateLimiter.checkAttempt("10.0.0.1", "bob");
+        rateLimiter.checkAttempt("10.0.0.1", "carol");
+
+        // When & Then
+        assertThrows(TooManyRequestsException.class,
+            () -> rateLimiter.checkAttempt("10.0.0.1", "dave"));
+        assertDoesNotThrow(() -> rateLimiter.checkAttempt("10.0.0.2", "dave"));
+    }
+
+    @Test
+    void checkAvailabilityLookup_HasItsOwnBudget() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.checkAvailabilityLookup("10.0.0.1");
+        }
+
+        // When & Then
+        assertThrows(TooManyRequestsException.class, () -> rateLimiter.checkAvailabilityLookup("10.0.0.1"));
+        assertDoesNotThrow(() -> rateLimiter.checkAttempt("10.0.0.1", "alice"));
+    }
+}
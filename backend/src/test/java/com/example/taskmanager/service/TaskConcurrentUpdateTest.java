@@ -0,0 +1,149 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskPatchRequest;
+import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskCounterRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSearchRepository;
+import com.example.taskmanager.repository.TaskWriteRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several writers increment a counter kept in one task's title, each reading the task
+ * and patching it with the version it read, and retrying when another writer got there
+ * first. Runs outside a test transaction so every write commits as in production.
+ * A lost update would leave the title short of the number of writes that succeeded.
+ */
+@DataJpaTest
+@Import({TaskService.class, TaskSearchRepository.class, TaskWriteRepository.class, TaskSuggestionService.class,
+         TaskCounterService.class, TaskVersionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskConcurrentUpdateTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskConcurrentUpdateTest.class);
+
+    private static final int WRITERS = 8;
+    private static final int INCREMENTS = 25;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private TaskResponse task;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("contended");
+        user.setEmail("contended@example.com");
+        user.setPassword("password");
+        userId = userRepository.save(user).getId();
+        task = taskService.createTask(
+                new TaskCreateRequest("0", null, TaskStatus.PENDING, TaskPriority.MEDIUM, null), userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskCounterRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void patchTask_WithExpectedVersionLosesNoUpdatesUnderContention() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                int done = 0;
+                while (done < INCREMENTS) {
+                    TaskResponse current = taskService.getTaskById(task.getId(), userId);
+                    TaskPatchRequest patch = new TaskPatchRequest();
+                    patch.setTitle(String.valueOf(Integer.parseInt(current.getTitle()) + 1));
+                    try {
+                        taskService.patchTask(task.getId(), patch, current.getVersion(), userId);
+                        done++;
+                    } catch (ConcurrencyFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // When
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        executor.shutdown();
+
+        // Then: every successful write is counted once, and each moved the version by one
+        int writes = WRITERS * INCREMENTS;
+        TaskResponse result = taskService.getTaskById(task.getId(), userId);
+        assertEquals(String.valueOf(writes), result.getTitle());
+        assertEquals(task.getVersion() + writes, result.getVersion());
+        logger.info("{} writers committed {} updates to one task in {} ms ({} updates/s), retrying {} conflicts",
+                WRITERS, writes, elapsedMillis, writes * 1000L / elapsedMillis, conflicts.get());
+    }
+
+    @Test
+    void patchTask_WithStaleVersionIsRejectedAndChangesNothing() {
+        // Given
+        TaskPatchRequest first = new TaskPatchRequest();
+        first.setDescription("first");
+        taskService.patchTask(task.getId(), first, task.getVersion(), userId);
+
+        // When
+        TaskPatchRequest second = new TaskPatchRequest();
+        second.setDescription("second");
+
+        // Then
+        assertThrows(ConcurrencyFailureException.class,
+                () -> taskService.patchTask(task.getId(), second, task.getVersion(), userId));
+        TaskResponse result = taskService.getTaskById(task.getId(), userId);
+        assertEquals("first", result.getDescription());
+        assertEquals(task.getVersion() + 1, result.getVersion());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.entity.TaskCounter;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskCounterRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSearchRepository;
+import com.example.taskmanager.repository.TaskWriteRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs outside a test transaction so counters are created, adjusted and reconciled
+ * by the same committed transactions as in production.
+ */
+@DataJpaTest
+@Import({TaskService.class, TaskSearchRepository.class, TaskWriteRepository.class, TaskSuggestionService.class,
+         TaskCounterService.class, TaskVersionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskCounterServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("tally");
+        user.setEmail("tally@example.com");
+        user.setPassword("password");
+        userId = userRepository.save(user).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskCounterRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void taskWrites_KeepCountersInStep() {
+        // Given
+        taskService.createTask(request("Before", TaskStatus.PENDING, LocalDate.now().minusDays(1)), userId);
+        assertEquals(1, taskService.getTaskStatistics(userId).getTotalTasks());
+
+        // When
+        TaskResponse created = taskService.createTask(request("Report", TaskStatus.PENDING, null), userId);
+        taskService.updateTask(created.getId(), request("Report", TaskStatus.COMPLETED, LocalDate.now()), null, userId);
+        TaskResponse removed = taskService.createTask(request("Removed", TaskStatus.IN_PROGRESS, null), userId);
+        taskService.deleteTask(removed.getId(), userId);
+
+        // Then
+        TaskService.TaskStatistics statistics = taskService.getTaskStatistics(userId);
+        assertEquals(2, statistics.getTotalTasks());
+        assertEquals(1, statistics.getPendingTasks());
+        assertEquals(1, statistics.getCompletedTasks());
+        assertEquals(0, statistics.getInProgressTasks());
+        assertEquals(1, statistics.getOverdueTasks());
+        assertEquals(0, statistics.getOpenTasksByDueDate().get(TaskService.DueDateBucket.NONE));
+        assertEquals(1, counter(TaskStatus.COMPLETED).getDatedCount());
+    }
+
+    @Test
+    void createCounters_KeepsCountersAnotherRequestCreatedFirst() {
+        // Given: a request that counted no tasks loses the race to one that counted the task
+        taskService.createTask(request("Task", TaskStatus.PENDING, null), userId);
+        taskService.getTaskStatistics(userId);
+
+        // When
+        taskCounterService.createCounters(userId, List.of());
+
+        // Then
+        assertEquals(1, counter(TaskStatus.PENDING).getTaskCount());
+        assertEquals(TaskStatus.values().length * TaskPriority.values().length, taskCounterRepository.count());
+        assertEquals(1, taskService.getTaskStatistics(userId).getTotalTasks());
+    }
+
+    @Test
+    void reconcileAll_RepairsDriftedCounters() {
+        // Given
+        taskService.createTask(request("Task", TaskStatus.PENDING, null), userId);
+        taskService.getTaskStatistics(userId);
+        TaskCounter pending = counter(TaskStatus.PENDING);
+        pending.setTaskCount(7);
+        taskCounterRepository.save(pending);
+        taskCounterRepository.delete(counter(TaskStatus.CANCELLED));
+
+        // When
+        taskCounterService.reconcileAll();
+
+        // Then
+        assertEquals(1, counter(TaskStatus.PENDING).getTaskCount());
+        assertEquals(0, counter(TaskStatus.CANCELLED).getTaskCount());
+        assertFalse(taskCounterService.reconcile(userId));
+    }
+
+    private TaskCounter counter(TaskStatus status) {
+        return taskCounterRepository.findById(new TaskCounter.Key(userId, status, TaskPriority.MEDIUM)).orElseThrow();
+    }
+
+    private static TaskCreateRequest request(String title, TaskStatus status, LocalDate dueDate) {
+        return new TaskCreateRequest(title, null, status, TaskPriority.MEDIUM, dueDate);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskImportReport;
+import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskCounterRepository;
+import com.example.taskmanager.repository.TaskFilter;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSearchRepository;
+import com.example.taskmanager.repository.TaskSortField;
+import com.example.taskmanager.repository.TaskWriteRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.util.CsvWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs outside a test transaction so each chunk commits on its own as in production
+ */
+@DataJpaTest(properties = {"app.tasks.import.chunk-size=2", "app.tasks.import.max-rows=6"})
+@Import({TaskService.class, TaskSearchRepository.class, TaskWriteRepository.class, TaskSuggestionService.class,
+         TaskCounterService.class, TaskVersionService.class, TaskImportService.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskImportServiceTest {
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("importer");
+        user.setEmail("importer@example.com");
+        user.setPassword("password");
+        userId = userRepository.save(user).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskCounterRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importNdjson_SavesValidRowsAndReportsRejectedLines() {
+        // Given
+        taskService.getTaskStatistics(userId);
+        String input = """
+                {"title":"One","priority":"HIGH","dueDate":"2030-01-01"}
+
+                {"title":""}
+                {"title":"Two","status":"DONE"}
+                not json
+                {"title":"Three","status":"COMPLETED","id":99}
+                {"title":"Four","description":"Details"}
+                """;
+
+        // When
+        TaskImportReport report = taskImportService.importTasks(
+                userId, TaskImportService.Format.NDJSON, new StringReader(input));
+
+        // Then
+        assertEquals(3, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertNull(report.getAbortedReason());
+        assertEquals(List.of(3, 4, 5), report.getErrors().stream().map(TaskImportReport.RowError::getLine).toList());
+        assertEquals("Title is required", report.getErrors().get(0).getErrors().get("title"));
+        assertTrue(report.getErrors().get(1).getErrors().containsKey("status"));
+        assertTrue(report.getErrors().get(2).getErrors().containsKey("record"));
+
+        TaskService.TaskStatistics statistics = taskService.getTaskStatistics(userId);
+        assertEquals(3, statistics.getTotalTasks());
+        assertEquals(1, statistics.getCompletedTasks());
+        assertEquals(1, statistics.getTasksByPriority().get(TaskPriority.HIGH));
+        assertEquals(2, statistics.getTasksByPriority().get(TaskPriority.MEDIUM));
+    }
+
+    @Test
+    void importCsv_ReadsQuotedFieldsAndIgnoresUnknownColumns() {
+        // Given
+        String input = "\uFEFFid,Title,description,status,dueDate\r\n"
+                + "1,Alpha,\"multi\nline, desc\",in_progress,2030-02-03\r\n"
+                + "2,Beta,,PENDING,not-a-date\r\n";
+
+        // When
+        TaskImportReport report = taskImportService.importTasks(
+                userId, TaskImportService.Format.CSV, new StringReader(input));
+
+        // Then
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getErrors().containsKey("dueDate"));
+
+        TaskResponse alpha = tasks(userId).get(0);
+        assertEquals("Alpha", alpha.getTitle());
+        assertEquals("multi\nline, desc", alpha.getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, alpha.getStatus());
+        assertEquals(TaskPriority.MEDIUM, alpha.getPriority());
+        assertEquals(LocalDate.of(2030, 2, 3), alpha.getDueDate());
+    }
+
+    @Test
+    void importCsv_ReadsBackExportedTasks() throws IOException {
+        // Given
+        taskService.createTask(new TaskCreateRequest("=HYPERLINK(\"http://x\")", "-1, then 'more'",
+                TaskStatus.IN_PROGRESS, TaskPriority.HIGH, LocalDate.of(2030, 4, 5)), userId);
+        taskService.createTask(new TaskCreateRequest("'Quoted'", null,
+                TaskStatus.COMPLETED, TaskPriority.LOW, null), userId);
+        StringWriter exported = new StringWriter();
+        CsvWriter csv = new CsvWriter(exported);
+        TaskCsvFormat.writeHeader(csv);
+        taskService.streamTasks(userId, new TaskFilter(null, null, null, null, null), TaskSortField.CREATED_AT, false,
+                task -> {
+                    try {
+                        TaskCsvFormat.writeTask(csv, task);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        User other = new User();
+        other.setUsername("copier");
+        other.setEmail("copier@example.com");
+        other.setPassword("password");
+        Long otherUserId = userRepository.save(other).getId();
+
+        // When
+        TaskImportReport report = taskImportService.importTasks(
+                otherUserId, TaskImportService.Format.CSV, new StringReader(exported.toString()));
+
+        // Then
+        assertTrue(exported.toString().contains(",IN_PROGRESS,HIGH,"));
+        assertEquals(2, report.getImported());
+        assertEquals(0, report.getFailed());
+        List<TaskResponse> original = tasks(userId);
+        List<TaskResponse> copied = tasks(otherUserId);
+        for (TaskResponse task : original) {
+            TaskResponse copy = copied.stream().filter(c -> c.getTitle().equals(task.getTitle())).findFirst().orElseThrow();
+            assertEquals(task.getDescription(), copy.getDescription());
+            assertEquals(task.getStatus(), copy.getStatus());
+            assertEquals(task.getPriority(), copy.getPriority());
+            assertEquals(task.getDueDate(), copy.getDueDate());
+        }
+    }
+
+    @Test
+    void importNdjson_BeyondMaxRows_KeepsEarlierRowsAndAborts() {
+        // Given
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 8; i++) {
+            input.append("{\"title\":\"Task ").append(i).append("\"}\n");
+        }
+
+        // When
+        TaskImportReport report = taskImportService.importTasks(
+                userId, TaskImportService.Format.NDJSON, new StringReader(input.toString()));
+
+        // Then
+        assertEquals(6, report.getImported());
+        assertEquals("Line 7: imports are limited to 6 rows", report.getAbortedReason());
+        assertEquals(6, taskRepository.count());
+        assertEquals(6, taskService.getTaskStatistics(userId).getTotalTasks());
+    }
+
+    @Test
+    void importCsv_WithoutTitleColumn_Aborts() {
+        // When
+        TaskImportReport report = taskImportService.importTasks(
+                userId, TaskImportService.Format.CSV, new StringReader("name\nAlpha\n"));
+
+        // Then
+        assertEquals(0, report.getImported());
+        assertEquals("CSV header must include a title column", report.getAbortedReason());
+        assertEquals(0, taskRepository.count());
+    }
+
+    private List<TaskResponse> tasks(Long owner) {
+        return taskService.findTasks(owner, TaskFilter.none(), TaskSortField.CREATED_AT, false, null, 0, 10, false)
+                .getContent();
+    }
+}
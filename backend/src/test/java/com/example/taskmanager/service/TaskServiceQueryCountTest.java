@@ -0,0 +1,324 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.TaskBulkRequest;
+import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskCursor;
+import com.example.taskmanager.repository.TaskFilter;
+import com.example.taskmanager.repository.TaskSearchRepository;
+import com.example.taskmanager.repository.TaskSortField;
+import com.example.taskmanager.repository.TaskWriteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Asserts the exact number of SQL statements each task read path issues, so a
+ * lazy owner lookup per row cannot creep back in, that single-task writes take one
+ * statement besides the counters they move, and that bulk writes stay set-based
+ * however many tasks they touch.
+ */
+@DataJpaTest(properties = {
+    "app.tasks.stream.page-size=2",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.taskmanager.service.TaskServiceQueryCountTest$SequenceCalls"
+})
+@Import({TaskService.class, TaskSearchRepository.class, TaskWriteRepository.class, TaskSuggestionService.class,
+         TaskCounterService.class, TaskVersionService.class})
+class TaskServiceQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskService taskService;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("counter");
+        user.setEmail("counter@example.com");
+        user.setPassword("password");
+        userId = entityManager.persistAndFlush(user).getId();
+
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task("Task " + i, user);
+            task.setDescription("Description " + i);
+            task.setStatus(i % 2 == 0 ? TaskStatus.PENDING : TaskStatus.COMPLETED);
+            task.setPriority(TaskPriority.HIGH);
+            task.setDueDate(LocalDate.now().minusDays(i + 1));
+            taskId = entityManager.persistAndFlush(task).getId();
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findTasks_IssuesOneStatementWithoutTotal() {
+        CursorPage<TaskResponse> first = countStatements(1, () -> taskService.findTasks(
+            userId, TaskFilter.none(), TaskSortField.CREATED_AT, true, null, 0, 2, false));
+        TaskCursor cursor = TaskCursor.decode(first.getNextCursor(), TaskSortField.CREATED_AT, true);
+        CursorPage<TaskResponse> second = countStatements(2, () -> taskService.findTasks(
+            userId, TaskFilter.none(), TaskSortField.CREATED_AT, true, cursor, 0, 2, true));
+
+        assertEquals(2, first.getContent().size());
+        assertNull(first.getTotalElements());
+        assertEquals(2, second.getContent().size());
+        assertEquals(5L, second.getTotalElements());
+        assertTrue(second.hasNext());
+    }
+
+    @Test
+    void findTasks_CombinedFiltersIssueOneStatement() {
+        TaskFilter filter = new TaskFilter(TaskStatus.PENDING, TaskPriority.HIGH,
+            LocalDate.now().minusDays(4), LocalDate.now(), "task");
+        CursorPage<TaskResponse> page = countStatements(1, () -> taskService.findTasks(
+            userId, filter, TaskSortField.TITLE, false, null, 0, 10, false));
+
+        assertEquals(List.of("Task 0", "Task 2"), page.getContent().stream().map(TaskResponse::getTitle).toList());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void streamTasks_IssuesOneStatementPerPageInSortOrder() {
+        // Three matching tasks in pages of two
+        List<String> titles = new ArrayList<>();
+        long count = countStatements(2, () -> taskService.streamTasks(
+            userId, new TaskFilter(TaskStatus.PENDING, null, null, null, null), TaskSortField.TITLE, true,
+            task -> titles.add(task.getTitle())));
+
+        assertEquals(3, count);
+        assertEquals(List.of("Task 4", "Task 2", "Task 0"), titles);
+    }
+
+    @Test
+    void getTaskById_IssuesOneStatement() {
+        TaskResponse task = countStatements(1, () -> taskService.getTaskById(taskId, userId));
+
+        assertEquals(taskId, task.getId());
+        assertEquals(userId, task.getUserId());
+        assertEquals("counter", task.getUserUsername());
+    }
+
+    @Test
+    void getOverdueTasks_IssuesPageAndCountStatementsAndSkipsCompleted() {
+        Page<TaskResponse> tasks = countStatements(2, () -> taskService.getOverdueTasks(userId, PageRequest.of(0, 2)));
+
+        assertEquals(2, tasks.getContent().size());
+        assertEquals(3, tasks.getTotalElements());
+        assertTrue(tasks.getContent().stream().noneMatch(task -> task.getStatus() == TaskStatus.COMPLETED));
+    }
+
+    @Test
+    void getTaskStatistics_ReadsCountersAfterFirstCall() {
+        TaskService.TaskStatistics first = taskService.getTaskStatistics(userId);
+        // Counter range plus the live count of open dated tasks
+        TaskService.TaskStatistics second = countStatements(2, () -> taskService.getTaskStatistics(userId));
+
+        assertEquals(5, first.getTotalTasks());
+        assertEquals(5, second.getTotalTasks());
+        assertEquals(2, second.getCompletedTasks());
+        assertEquals(3, second.getOverdueTasks());
+    }
+
+    @Test
+    void createTask_IssuesOneInsertWithoutLoadingTheOwner() {
+        // Given
+        taskService.getTaskStatistics(userId);
+        TaskCreateRequest request = new TaskCreateRequest("Task 5", null, TaskStatus.PENDING, TaskPriority.LOW, null);
+
+        // When: the insert, the one counter it joins and the user's task version
+        TaskResponse created = countStatements(3, () -> {
+            TaskResponse response = taskService.createTask(request, userId);
+            // Inserts wait for the flush so they can batch; the transaction would commit here
+            entityManager.flush();
+            return response;
+        });
+
+        // Then
+        assertEquals(userId, created.getUserId());
+        assertNull(created.getUserUsername());
+        assertEquals(6, taskService.getTaskStatistics(userId).getTotalTasks());
+    }
+
+    @Test
+    void updateTask_IssuesOneTaskUpdate() {
+        // Given
+        TaskResponse before = taskService.getTaskById(taskId, userId);
+        TaskCreateRequest request = new TaskCreateRequest("Renamed", null, null, null, LocalDate.now().plusDays(1));
+
+        // When: status, priority and having a due date are unchanged, so no counter moves; then the version
+        TaskResponse updated = countStatements(2,
+            () -> taskService.updateTask(taskId, request, before.getVersion(), userId));
+
+        // Then
+        assertEquals("Renamed", updated.getTitle());
+        assertEquals(TaskStatus.PENDING, updated.getStatus());
+        assertEquals(TaskPriority.HIGH, updated.getPriority());
+        assertEquals(before.getCreatedAt(), updated.getCreatedAt());
+        assertEquals(before.getVersion() + 1, updated.getVersion());
+        TaskResponse stored = taskService.getTaskById(taskId, userId);
+        assertEquals("Renamed", stored.getTitle());
+        assertNull(stored.getDescription());
+        assertEquals(updated.getVersion(), stored.getVersion());
+    }
+
+    @Test
+    void updateTask_WithStaleVersionChangesNothing() {
+        // Given
+        TaskCreateRequest request = new TaskCreateRequest("Renamed", null, null, null, null);
+
+        // When: the update matches no row, then one lookup tells a stale version from a missing task
+        countStatements(2, () -> assertThrows(OptimisticLockingFailureException.class,
+            () -> taskService.updateTask(taskId, request, 7L, userId)));
+
+        // Then
+        assertEquals("Task 4", taskService.getTaskById(taskId, userId).getTitle());
+    }
+
+    @Test
+    void deleteTask_IssuesOneDeleteAndUncountsTheTask() {
+        // Given
+        taskService.getTaskStatistics(userId);
+        assertThrows(RuntimeException.class, () -> taskService.deleteTask(taskId, userId + 1));
+
+        // When: the delete, the counter it leaves and the version
+        countStatements(3, () -> {
+            taskService.deleteTask(taskId, userId);
+            return null;
+        });
+
+        // Then
+        assertEquals(4, tasks(TaskFilter.none()).size());
+        assertEquals(4, taskService.getTaskStatistics(userId).getTotalTasks());
+    }
+
+    @Test
+    void updateTasks_MarksAllCompleteInOneUpdateAndMovesCounters() {
+        // Given
+        taskService.getTaskStatistics(userId);
+        TaskBulkRequest request = new TaskBulkRequest();
+        request.setFilter(new TaskBulkRequest.Filter());
+        request.setStatus(TaskStatus.COMPLETED);
+
+        // When: count, update, one counter out and one in, then the version
+        int updated = countStatements(5, () -> taskService.updateTasks(request, userId));
+
+        // Then: tasks already complete are not rewritten
+        assertEquals(3, updated);
+        assertEquals(5, tasks(new TaskFilter(TaskStatus.COMPLETED, null, null, null, null)).size());
+        assertEquals(5, taskService.getTaskStatistics(userId).getCompletedTasks());
+    }
+
+    @Test
+    void updateTasks_ClearsDueDatesOfSelectedIds() {
+        // Given
+        TaskBulkRequest request = new TaskBulkRequest();
+        request.setIds(List.of(taskId, taskId + 1000));
+        request.setDueDate(null);
+
+        // When
+        int updated = countStatements(5, () -> taskService.updateTasks(request, userId));
+
+        // Then
+        assertEquals(1, updated);
+        assertNull(taskService.getTaskById(taskId, userId).getDueDate());
+    }
+
+    @Test
+    void updateTasks_RejectsRequestWithoutChanges() {
+        TaskBulkRequest request = new TaskBulkRequest();
+        request.setIds(List.of(taskId));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.updateTasks(request, userId));
+    }
+
+    @Test
+    void deleteTasks_ClearsCompletedInOneDelete() {
+        // Given
+        taskService.getTaskStatistics(userId);
+        TaskBulkRequest.Filter completed = new TaskBulkRequest.Filter();
+        completed.setStatus(TaskStatus.COMPLETED);
+        TaskBulkRequest request = new TaskBulkRequest();
+        request.setFilter(completed);
+
+        // When: count, delete, the one counter emptied and the version
+        int deleted = countStatements(4, () -> taskService.deleteTasks(request, userId));
+
+        // Then
+        assertEquals(2, deleted);
+        assertEquals(3, tasks(TaskFilter.none()).size());
+        assertEquals(3, taskService.getTaskStatistics(userId).getTotalTasks());
+    }
+
+    @Test
+    void deleteTasks_RejectsRequestWithoutSelection() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.deleteTasks(new TaskBulkRequest(), userId));
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        // Start from an empty persistence context so nothing is served from the first-level cache
+        entityManager.clear();
+        statistics.clear();
+        long sequenceCalls = SequenceCalls.COUNT.get();
+
+        T result = call.get();
+
+        long issued = statistics.getPrepareStatementCount() - (SequenceCalls.COUNT.get() - sequenceCalls);
+        assertEquals(expected, issued, "SQL statements issued");
+        return result;
+    }
+
+    private List<TaskResponse> tasks(TaskFilter filter) {
+        return taskService.findTasks(userId, filter, TaskSortField.CREATED_AT, false, null, 0, 10, false).getContent();
+    }
+
+    /**
+     * Counts the sequence calls that reserve a block of ids. Whether one falls inside a
+     * counted call depends on how many tasks earlier tests created, so they are left out.
+     */
+    public static class SequenceCalls implements StatementInspector {
+
+        static final AtomicLong COUNT = new AtomicLong();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase(Locale.ROOT).contains("next value for")) {
+                COUNT.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.taskmanager.service;
 
 import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskPatchRequest;
 import com.example.taskmanager.dto.TaskResponse;
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskCounter;
 import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
 import com.example.taskmanager.entity.User;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskWriteRepository;
 import com.example.taskmanager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -38,6 +42,18 @@ class TaskServiceTest {
     @Mock
     private UserRepository userRepository;
     
+    @Mock
+    private TaskWriteRepository taskWriteRepository;
+    
+    @Mock
+    private TaskSuggestionService taskSuggestionService;
+    
+    @Mock
+    private TaskCounterService taskCounterService;
+    
+    @Mock
+    private TaskVersionService taskVersionService;
+    
     @InjectMocks
     private TaskService taskService;
     
@@ -75,8 +91,9 @@ class TaskServiceTest {
     @Test
     void createTask_Success() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        when(taskVersionService.bump(1L)).thenReturn(true);
         
         // When
         TaskResponse result = taskService.createTask(taskCreateRequest, 1L);
@@ -89,65 +106,31 @@ class TaskServiceTest {
         assertEquals(TaskPriority.MEDIUM, result.getPriority());
         assertEquals(1L, result.getUserId());
         
-        verify(userRepository).findById(1L);
+        verify(userRepository, never()).findById(anyLong());
         verify(taskRepository).save(any(Task.class));
+        verify(taskCounterService).taskAdded(1L, testTask);
+        verify(taskSuggestionService).recordTask(1L, 1L, "Test Task");
+        verify(taskVersionService).bump(1L);
     }
     
     @Test
     void createTask_UserNotFound() {
-        // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        // Given: the unknown owner has no row for the version bump to update
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        when(taskVersionService.bump(1L)).thenReturn(false);
         
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, 
+        RuntimeException exception = assertThrows(RuntimeException.class,
             () -> taskService.createTask(taskCreateRequest, 1L));
         
         assertEquals("User not found with ID: 1", exception.getMessage());
-        verify(userRepository).findById(1L);
-        verify(taskRepository, never()).save(any(Task.class));
-    }
-    
-    @Test
-    void getAllTasksByUser_Success() {
-        // Given
-        List<Task> tasks = Arrays.asList(testTask);
-        when(taskRepository.findByUserId(1L)).thenReturn(tasks);
-        
-        // When
-        List<TaskResponse> result = taskService.getAllTasksByUser(1L);
-        
-        // Then
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("Test Task", result.get(0).getTitle());
-        
-        verify(taskRepository).findByUserId(1L);
-    }
-    
-    @Test
-    void getTasksByUserWithPagination_Success() {
-        // Given
-        List<Task> tasks = Arrays.asList(testTask);
-        Page<Task> taskPage = new PageImpl<>(tasks);
-        Pageable pageable = PageRequest.of(0, 10);
-        
-        when(taskRepository.findByUserId(1L, pageable)).thenReturn(taskPage);
-        
-        // When
-        Page<TaskResponse> result = taskService.getTasksByUserWithPagination(1L, pageable);
-        
-        // Then
-        assertNotNull(result);
-        assertEquals(1, result.getContent().size());
-        assertEquals("Test Task", result.getContent().get(0).getTitle());
-        
-        verify(taskRepository).findByUserId(1L, pageable);
     }
     
     @Test
     void getTaskById_Success() {
         // Given
-        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(new TaskResponse(testTask)));
         
         // When
         TaskResponse result = taskService.getTaskById(1L, 1L);
@@ -157,20 +140,20 @@ class TaskServiceTest {
         assertEquals("Test Task", result.getTitle());
         assertEquals(1L, result.getId());
         
-        verify(taskRepository).findByIdAndUserId(1L, 1L);
+        verify(taskRepository).findResponseByIdAndUserId(1L, 1L);
     }
     
     @Test
     void getTaskById_TaskNotFound() {
         // Given
-        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.empty());
+        when(taskRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.empty());
         
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, 
             () -> taskService.getTaskById(1L, 1L));
         
         assertEquals("Task not found with ID: 1", exception.getMessage());
-        verify(taskRepository).findByIdAndUserId(1L, 1L);
+        verify(taskRepository).findResponseByIdAndUserId(1L, 1L);
     }
     
     @Test
@@ -182,19 +165,14 @@ class TaskServiceTest {
         updateRequest.setStatus(TaskStatus.IN_PROGRESS);
         updateRequest.setPriority(TaskPriority.HIGH);
         
-        Task updatedTask = new Task();
-        updatedTask.setId(1L);
-        updatedTask.setTitle("Updated Task");
-        updatedTask.setDescription("Updated Description");
-        updatedTask.setStatus(TaskStatus.IN_PROGRESS);
-        updatedTask.setPriority(TaskPriority.HIGH);
-        updatedTask.setUser(testUser);
-        
-        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(updatedTask);
+        testTask.setVersion(4L);
+        when(taskWriteRepository.update(eq(1L), eq(1L), isNull(), eq("Updated Task"), eq("Updated Description"),
+                eq(TaskStatus.IN_PROGRESS), eq(TaskPriority.HIGH), isNull(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(testTask));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         
         // When
-        TaskResponse result = taskService.updateTask(1L, updateRequest, 1L);
+        TaskResponse result = taskService.updateTask(1L, updateRequest, null, 1L);
         
         // Then
         assertNotNull(result);
@@ -202,87 +180,109 @@ class TaskServiceTest {
         assertEquals("Updated Description", result.getDescription());
         assertEquals(TaskStatus.IN_PROGRESS, result.getStatus());
         assertEquals(TaskPriority.HIGH, result.getPriority());
+        assertNull(result.getDueDate());
+        assertEquals(5L, result.getVersion());
         
-        verify(taskRepository).findByIdAndUserId(1L, 1L);
-        verify(taskRepository).save(any(Task.class));
+        verify(taskRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
     }
     
     @Test
-    void deleteTask_Success() {
+    void updateTask_RejectsStaleVersion() {
         // Given
-        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
-        
-        // When
-        taskService.deleteTask(1L, 1L);
+        when(taskWriteRepository.update(eq(1L), eq(1L), eq(3L), anyString(), anyString(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(taskRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
         
-        // Then
-        verify(taskRepository).findByIdAndUserId(1L, 1L);
-        verify(taskRepository).delete(testTask);
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> taskService.updateTask(1L, taskCreateRequest, 3L, 1L));
+        verify(taskCounterService, never()).taskChanged(anyLong(), any(), any(), anyBoolean(), any());
     }
     
     @Test
-    void deleteTask_TaskNotFound() {
+    void patchTask_ChangesOnlyPresentFields() {
         // Given
-        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.empty());
+        testTask.setVersion(4L);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.saveAndFlush(testTask)).thenAnswer(invocation -> {
+            // The flush of a dirty entity bumps its version
+            testTask.setVersion(5L);
+            return testTask;
+        });
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setStatus(TaskStatus.COMPLETED);
+        patch.setDueDate(null);
         
-        // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, 
-            () -> taskService.deleteTask(1L, 1L));
+        // When
+        TaskResponse result = taskService.patchTask(1L, patch, 4L, 1L);
         
-        assertEquals("Task not found with ID: 1", exception.getMessage());
-        verify(taskRepository).findByIdAndUserId(1L, 1L);
-        verify(taskRepository, never()).delete(any(Task.class));
+        // Then
+        assertEquals("Test Task", result.getTitle());
+        assertEquals("Test Description", result.getDescription());
+        assertEquals(TaskStatus.COMPLETED, result.getStatus());
+        assertEquals(TaskPriority.MEDIUM, result.getPriority());
+        assertNull(result.getDueDate());
+        verify(taskCounterService).taskChanged(1L, TaskStatus.PENDING, TaskPriority.MEDIUM, true, testTask);
+        verify(taskSuggestionService, never()).recordTask(anyLong(), anyLong(), anyString());
+        verify(taskVersionService).bump(1L);
     }
     
     @Test
-    void getTasksByStatus_Success() {
+    void patchTask_WithoutChangesKeepsVersion() {
         // Given
-        List<Task> tasks = Arrays.asList(testTask);
-        when(taskRepository.findByStatusAndUserId(TaskStatus.PENDING, 1L)).thenReturn(tasks);
+        testTask.setVersion(4L);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.saveAndFlush(testTask)).thenReturn(testTask);
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setStatus(TaskStatus.PENDING);
         
         // When
-        List<TaskResponse> result = taskService.getTasksByStatus(TaskStatus.PENDING, 1L);
+        TaskResponse result = taskService.patchTask(1L, patch, 4L, 1L);
         
         // Then
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(TaskStatus.PENDING, result.get(0).getStatus());
+        assertEquals(4L, result.getVersion());
+        verify(taskVersionService, never()).bump(anyLong());
+    }
+    
+    @Test
+    void patchTask_RejectsRemovingTitle() {
+        // Given
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setTitle(null);
         
-        verify(taskRepository).findByStatusAndUserId(TaskStatus.PENDING, 1L);
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> taskService.patchTask(1L, patch, null, 1L));
+        verify(taskRepository, never()).findByIdAndUserId(anyLong(), anyLong());
     }
     
     @Test
-    void getTasksByPriority_Success() {
+    void deleteTask_Success() {
         // Given
-        List<Task> tasks = Arrays.asList(testTask);
-        when(taskRepository.findByPriorityAndUserId(TaskPriority.MEDIUM, 1L)).thenReturn(tasks);
+        when(taskWriteRepository.delete(1L, 1L)).thenReturn(Optional.of(testTask));
         
         // When
-        List<TaskResponse> result = taskService.getTasksByPriority(TaskPriority.MEDIUM, 1L);
+        taskService.deleteTask(1L, 1L);
         
         // Then
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(TaskPriority.MEDIUM, result.get(0).getPriority());
-        
-        verify(taskRepository).findByPriorityAndUserId(TaskPriority.MEDIUM, 1L);
+        verify(taskRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+        verify(taskCounterService).taskRemoved(1L, testTask);
+        verify(taskSuggestionService).removeTask(1L, 1L);
+        verify(taskVersionService).bump(1L);
     }
     
     @Test
-    void searchTasks_Success() {
+    void deleteTask_TaskNotFound() {
         // Given
-        List<Task> tasks = Arrays.asList(testTask);
-        when(taskRepository.searchByKeywordAndUserId("test", 1L)).thenReturn(tasks);
-        
-        // When
-        List<TaskResponse> result = taskService.searchTasks("test", 1L);
+        when(taskWriteRepository.delete(1L, 1L)).thenReturn(Optional.empty());
         
-        // Then
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertTrue(result.get(0).getTitle().toLowerCase().contains("test"));
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, 
+            () -> taskService.deleteTask(1L, 1L));
         
-        verify(taskRepository).searchByKeywordAndUserId("test", 1L);
+        assertEquals("Task not found with ID: 1", exception.getMessage());
+        verify(taskCounterService, never()).taskRemoved(anyLong(), any(Task.class));
+        verify(taskVersionService, never()).bump(anyLong());
     }
     
     @Test
@@ -295,29 +295,30 @@ class TaskServiceTest {
         overdueTask.setDueDate(LocalDate.now().minusDays(1));
         overdueTask.setUser(testUser);
         
-        List<Task> overdueTasks = Arrays.asList(overdueTask);
-        when(taskRepository.findByDueDateBeforeAndUserId(any(LocalDate.class), eq(1L)))
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<TaskResponse> overdueTasks = new PageImpl<>(Arrays.asList(new TaskResponse(overdueTask)), pageable, 1);
+        when(taskRepository.findOverdueResponsesByUserId(eq(1L), any(LocalDate.class), eq(pageable)))
             .thenReturn(overdueTasks);
         
         // When
-        List<TaskResponse> result = taskService.getOverdueTasks(1L);
+        Page<TaskResponse> result = taskService.getOverdueTasks(1L, pageable);
         
         // Then
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertTrue(result.get(0).getDueDate().isBefore(LocalDate.now()));
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.getContent().get(0).getDueDate().isBefore(LocalDate.now()));
         
-        verify(taskRepository).findByDueDateBeforeAndUserId(any(LocalDate.class), eq(1L));
+        verify(taskRepository).findOverdueResponsesByUserId(eq(1L), any(LocalDate.class), eq(pageable));
     }
     
     @Test
-    void getTaskStatistics_Success() {
+    void getTaskStatistics_CreatesCountersOnFirstRead() {
         // Given
-        when(taskRepository.countByStatusAndUserId(null, 1L)).thenReturn(10L);
-        when(taskRepository.countByStatusAndUserId(TaskStatus.PENDING, 1L)).thenReturn(3L);
-        when(taskRepository.countByStatusAndUserId(TaskStatus.IN_PROGRESS, 1L)).thenReturn(2L);
-        when(taskRepository.countByStatusAndUserId(TaskStatus.COMPLETED, 1L)).thenReturn(5L);
-        when(taskRepository.countOverdueTasksByUserId(eq(1L), any(LocalDate.class))).thenReturn(1L);
+        when(taskRepository.countByStatusAndPriority(eq(1L), any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of(
+            new Object[]{TaskStatus.PENDING, TaskPriority.HIGH, 3L, 1L, 1L, 0L, 0L, 1L},
+            new Object[]{TaskStatus.IN_PROGRESS, TaskPriority.LOW, 2L, 0L, 0L, 2L, 0L, 0L},
+            new Object[]{TaskStatus.COMPLETED, TaskPriority.HIGH, 4L, 3L, 0L, 0L, 0L, 1L},
+            new Object[]{TaskStatus.CANCELLED, TaskPriority.URGENT, 1L, 1L, 0L, 0L, 0L, 0L}));
         
         // When
         TaskService.TaskStatistics result = taskService.getTaskStatistics(1L);
@@ -327,8 +328,56 @@ class TaskServiceTest {
         assertEquals(10L, result.getTotalTasks());
         assertEquals(3L, result.getPendingTasks());
         assertEquals(2L, result.getInProgressTasks());
+        assertEquals(4L, result.getCompletedTasks());
+        assertEquals(1L, result.getCancelledTasks());
+        assertEquals(40.0, result.getCompletionRate());
+        assertEquals(7L, result.getTasksByPriority().get(TaskPriority.HIGH));
+        assertEquals(0L, result.getTasksByPriority().get(TaskPriority.MEDIUM));
+        assertEquals(4L, result.getTasksByStatusAndPriority().get(TaskStatus.COMPLETED).get(TaskPriority.HIGH));
+        // Completed and cancelled tasks are never overdue
+        assertEquals(1L, result.getOverdueTasks());
+        assertEquals(2L, result.getOpenTasksByDueDate().get(TaskService.DueDateBucket.THIS_WEEK));
+        assertEquals(1L, result.getOpenTasksByDueDate().get(TaskService.DueDateBucket.NONE));
+        verify(taskRepository, times(1)).countByStatusAndPriority(eq(1L), any(LocalDate.class), any(LocalDate.class));
+        verify(taskCounterService).createCounters(eq(1L), anyList());
+    }
+    
+    @Test
+    void getTaskStatistics_ReadsCountersAndCountsOnlyOpenDueDates() {
+        // Given
+        when(taskCounterService.getCounters(1L)).thenReturn(List.of(
+            new TaskCounter(1L, TaskStatus.PENDING, TaskPriority.HIGH, 3, 2),
+            new TaskCounter(1L, TaskStatus.COMPLETED, TaskPriority.LOW, 5, 5)));
+        when(taskRepository.countOpenByDueDate(eq(1L), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.<Object[]>of(new Object[]{1L, 0L, 1L, 0L}));
+        
+        // When
+        TaskService.TaskStatistics result = taskService.getTaskStatistics(1L);
+        
+        // Then
+        assertEquals(8L, result.getTotalTasks());
         assertEquals(5L, result.getCompletedTasks());
         assertEquals(1L, result.getOverdueTasks());
+        assertEquals(1L, result.getOpenTasksByDueDate().get(TaskService.DueDateBucket.THIS_WEEK));
+        assertEquals(1L, result.getOpenTasksByDueDate().get(TaskService.DueDateBucket.NONE));
+        verify(taskRepository, never()).countByStatusAndPriority(anyLong(), any(LocalDate.class), any(LocalDate.class));
+        verify(taskCounterService, never()).createCounters(anyLong(), anyList());
+    }
+    
+    @Test
+    void updateTask_MovesTaskBetweenCounters() {
+        // Given
+        testTask.setVersion(0L);
+        when(taskWriteRepository.update(eq(1L), eq(1L), isNull(), anyString(), anyString(), any(), any(), any(), any()))
+                .thenReturn(Optional.of(testTask));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        taskCreateRequest.setStatus(TaskStatus.COMPLETED);
+        
+        // When
+        taskService.updateTask(1L, taskCreateRequest, null, 1L);
+        
+        // Then
+        verify(taskCounterService).taskChanged(eq(1L), eq(TaskStatus.PENDING), eq(TaskPriority.MEDIUM), eq(true),
+                argThat(task -> task.getStatus() == TaskStatus.COMPLETED && task.getDueDate() != null));
     }
 }
-
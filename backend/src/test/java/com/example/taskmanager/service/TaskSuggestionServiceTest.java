@@ -0,0 +1,90 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskSuggestion;
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSuggestionServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private TaskSuggestionService suggestionService;
+
+    @BeforeEach
+    void setUp() {
+        // 2 tasks per user, idle after 30 minutes, 1 MB of indexes
+        suggestionService = new TaskSuggestionService(taskRepository, 2, 30, 1, nanos::get);
+    }
+
+    @Test
+    void suggest_BuildsIndexOnceFromMostRecentTasks() {
+        // Given
+        when(taskRepository.findTitlesByUserId(eq(1L), any(Pageable.class))).thenReturn(List.of(
+            new Object[]{7L, "Plan sprint"}, new Object[]{5L, "Pay invoices"}));
+
+        // When
+        List<TaskSuggestion> first = suggestionService.suggest(1L, "p", 10);
+        List<TaskSuggestion> second = suggestionService.suggest(1L, "pla", 10);
+
+        // Then
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertEquals(7L, second.get(0).getId());
+        assertEquals("Plan sprint", second.get(0).getTitle());
+        verify(taskRepository).findTitlesByUserId(1L, Pageable.ofSize(2));
+        assertEquals(2, suggestionService.indexedTasks());
+        assertTrue(suggestionService.bytesPerTask() > 0);
+    }
+
+    @Test
+    void recordAndRemove_UpdateLoadedIndexesOnly() {
+        // Given
+        when(taskRepository.findTitlesByUserId(eq(1L), any(Pageable.class)))
+            .thenReturn(List.<Object[]>of(new Object[]{5L, "Pay invoices"}));
+        suggestionService.suggest(1L, "pay", 10);
+
+        // When
+        suggestionService.recordTask(1L, 5L, "Pay rent");
+        suggestionService.recordTask(1L, 6L, "Renew passport");
+        suggestionService.removeTask(1L, 6L);
+        suggestionService.recordTask(2L, 8L, "Not loaded");
+
+        // Then
+        List<TaskSuggestion> suggestions = suggestionService.suggest(1L, "re", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals("Pay rent", suggestions.get(0).getTitle());
+        assertEquals(1, suggestionService.indexedTasks());
+        verify(taskRepository, times(1)).findTitlesByUserId(eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void suggest_ReloadsIndexAfterIdleExpiry() {
+        // Given
+        when(taskRepository.findTitlesByUserId(eq(1L), any(Pageable.class)))
+            .thenReturn(List.<Object[]>of(new Object[]{5L, "Pay invoices"}));
+        suggestionService.suggest(1L, "pay", 10);
+
+        // When
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        suggestionService.suggest(1L, "pay", 10);
+
+        // Then
+        verify(taskRepository, times(2)).findTitlesByUserId(eq(1L), any(Pageable.class));
+    }
+}
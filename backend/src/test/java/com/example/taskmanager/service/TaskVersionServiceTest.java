@@ -0,0 +1,154 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskCreateRequest;
+import com.example.taskmanager.dto.TaskResponse;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskCounterRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSearchRepository;
+import com.example.taskmanager.repository.TaskWriteRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs outside a test transaction so each write commits, or rolls back, as in production.
+ */
+@DataJpaTest
+@Import({TaskService.class, TaskSearchRepository.class, TaskWriteRepository.class, TaskSuggestionService.class,
+         TaskCounterService.class, TaskVersionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskVersionServiceTest {
+
+    @Autowired
+    private TaskVersionService taskVersionService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long otherUserId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(user("versioned")).getId();
+        otherUserId = userRepository.save(user("bystander")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskCounterRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void etag_IsWeakAndDiffersBetweenUsers() {
+        // When
+        String etag = taskVersionService.etag(userId);
+
+        // Then
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(etag, taskVersionService.etag(userId));
+        assertEquals(taskVersionService.current(userId), taskVersionService.current(otherUserId));
+        assertNotEquals(etag, taskVersionService.etag(otherUserId));
+    }
+
+    @Test
+    void taskWrites_ChangeEtagOnCommit() {
+        // Given
+        String initial = taskVersionService.etag(userId);
+        String bystander = taskVersionService.etag(otherUserId);
+
+        // When
+        TaskResponse created = taskService.createTask(request("Draft"), userId);
+        String afterCreate = taskVersionService.etag(userId);
+        taskService.updateTask(created.getId(), request("Final"), null, userId);
+        String afterUpdate = taskVersionService.etag(userId);
+        taskService.deleteTask(created.getId(), userId);
+
+        // Then
+        assertNotEquals(initial, afterCreate);
+        assertNotEquals(afterCreate, afterUpdate);
+        assertNotEquals(afterUpdate, taskVersionService.etag(userId));
+        assertEquals(bystander, taskVersionService.etag(otherUserId));
+    }
+
+    @Test
+    void createTask_ForUnknownUserFailsBeforeInserting() {
+        // Given
+        Long unknownUserId = otherUserId + 1000;
+
+        // When
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskService.createTask(request("Orphan"), unknownUserId));
+
+        // Then
+        assertEquals("User not found with ID: " + unknownUserId, exception.getMessage());
+        assertEquals(0, taskRepository.count());
+        assertEquals(0, taskCounterRepository.count());
+    }
+
+    @Test
+    void bump_IsUndoneByRollback() {
+        // Given
+        long before = taskVersionService.current(userId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            taskVersionService.bump(userId);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(before, taskVersionService.current(userId));
+    }
+
+    @Test
+    void bump_RequiresTransaction() {
+        // When & Then
+        assertThrows(IllegalTransactionStateException.class, () -> taskVersionService.bump(userId));
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+
+    private static TaskCreateRequest request(String title) {
+        TaskCreateRequest request = new TaskCreateRequest();
+        request.setTitle(title);
+        request.setStatus(TaskStatus.PENDING);
+        request.setPriority(TaskPriority.MEDIUM);
+        return request;
+    }
+}
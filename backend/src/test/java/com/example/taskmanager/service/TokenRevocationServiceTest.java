@@ -0,0 +1,128 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.RevokedToken;
+import com.example.taskmanager.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final long TICK_MS = 60_000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final AtomicLong now = new AtomicLong(START);
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(revokedTokenRepository, 1_000, TICK_MS, 3_600_000, now::get);
+    }
+
+    @Test
+    void revoke_IsSeenImmediatelyAndPersisted() {
+        // When
+        boolean revoked = revocationService.revoke("token-1", 1L, START + 900_000);
+
+        // Then
+        assertTrue(revoked);
+        assertTrue(revocationService.isRevoked("token-1"));
+        assertFalse(revocationService.isRevoked("token-2"));
+        assertFalse(revocationService.isRevoked(null));
+        verify(revokedTokenRepository).insert("token-1", 1L,
+            Instant.ofEpochMilli(START + 900_000), Instant.ofEpochMilli(START));
+    }
+
+    @Test
+    void revoke_SecondRevocationOfSameTokenIsReported() {
+        // Given
+        revocationService.revoke("refresh-1", 1L, START + 900_000);
+
+        // When & Then
+        assertFalse(revocationService.revoke("refresh-1", 1L, START + 900_000));
+        verify(revokedTokenRepository, times(1)).insert(eq("refresh-1"), anyLong(), any(), any());
+    }
+
+    @Test
+    void revoke_TokenAlreadyStoredByAnotherInstanceIsReported() {
+        // Given
+        when(revokedTokenRepository.insert(eq("refresh-1"), anyLong(), any(), any()))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When
+        boolean revoked = revocationService.revoke("refresh-1", 1L, START + 900_000);
+
+        // Then
+        assertFalse(revoked);
+        assertTrue(revocationService.isRevoked("refresh-1"));
+    }
+
+    @Test
+    void maintain_DropsEntriesOnceTokenHasExpired() {
+        // Given
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(Collections.emptyList());
+        when(revokedTokenRepository.findRevokedSince(any(), any())).thenReturn(Collections.emptyList());
+        revocationService.loadRevocations();
+        revocationService.revoke("short", 1L, START + 2 * TICK_MS);
+        revocationService.revoke("long", 1L, START + 30 * TICK_MS);
+
+        // When
+        now.set(START + 3 * TICK_MS);
+        revocationService.maintain();
+
+        // Then
+        assertFalse(revocationService.isRevoked("short"));
+        assertTrue(revocationService.isRevoked("long"));
+        assertEquals(1, revocationService.size());
+        verify(revokedTokenRepository).deleteExpired(Instant.ofEpochMilli(START + 3 * TICK_MS));
+    }
+
+    @Test
+    void loadRevocations_RestoresLiveRevocationsAfterRestart() {
+        // Given
+        RevokedToken stored = new RevokedToken("token-1", 1L,
+            Instant.ofEpochMilli(START + 900_000), Instant.ofEpochMilli(START - 1_000));
+        when(revokedTokenRepository.findByExpiresAtAfter(Instant.ofEpochMilli(START))).thenReturn(List.of(stored));
+
+        // When
+        revocationService.loadRevocations();
+
+        // Then
+        assertTrue(revocationService.isRevoked("token-1"));
+        verify(revokedTokenRepository, never()).insert(any(), any(), any(), any());
+    }
+
+    @Test
+    void maintain_PicksUpRevocationsFromOtherInstances() {
+        // Given
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(Collections.emptyList());
+        revocationService.loadRevocations();
+        RevokedToken remote = new RevokedToken("remote", 2L,
+            Instant.ofEpochMilli(START + 900_000), Instant.ofEpochMilli(START + 10_000));
+        when(revokedTokenRepository.findRevokedSince(any(), any())).thenReturn(List.of(remote));
+
+        // When
+        now.set(START + TICK_MS);
+        revocationService.maintain();
+
+        // Then
+        assertTrue(revocationService.isRevoked("remote"));
+    }
+}
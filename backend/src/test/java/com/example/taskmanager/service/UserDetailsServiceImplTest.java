@@ -0,0 +1,190 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+
+    private static final long TTL_MS = 60_000;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    private UserDetailsServiceImpl userDetailsService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new UserDetailsServiceImpl(userRepository, TTL_MS, 100, ticker);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("old-hash");
+    }
+
+    @Test
+    void loadUserByUsername_CachesPrincipal() {
+        // Given
+        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(testUser));
+
+        // When
+        UserDetails first = userDetailsService.loadUserByUsername("testuser");
+        UserDetails second = userDetailsService.loadUserByUsername("testuser");
+
+        // Then
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsernameOrEmail("testuser");
+        assertEquals(1, userDetailsService.getCacheStats().getHits());
+        assertEquals(1, userDetailsService.getCacheStats().getMisses());
+    }
+
+    @Test
+    void loadUserById_ReusesEntryLoadedByUsername() {
+        // Given
+        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(testUser));
+        userDetailsService.loadUserByUsername("testuser");
+
+        // When
+        UserPrincipal principal = userDetailsService.loadUserById(1L);
+
+        // Then
+        assertEquals("testuser", principal.getUsername());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void evictUser_ChangedPasswordIsSeenOnNextLoad() {
+        // Given
+        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(testUser));
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserById(1L);
+
+        User changed = copyOf(testUser);
+        changed.setPassword("new-hash");
+        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(changed));
+
+        // When
+        userDetailsService.evictUser(1L);
+
+        // Then
+        assertEquals("new-hash", userDetailsService.loadUserByUsername("testuser").getPassword());
+        assertEquals("new-hash", userDetailsService.loadUserById(1L).getPassword());
+        assertEquals(1, userDetailsService.getCacheStats().getInvalidations());
+    }
+
+    @Test
+    void evictUser_DeletedAccountIsNotAuthenticated() {
+        // Given
+        when(userRepository.findByUsernameOrEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        userDetailsService.loadUserByUsername("test@example.com");
+        when(userRepository.findByUsernameOrEmail("test@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When
+        userDetailsService.evictUser(1L);
+
+        // Then
+        assertThrows(UsernameNotFoundException.class,
+            () -> userDetailsService.loadUserByUsername("test@example.com"));
+        assertThrows(UsernameNotFoundException.class,
+            () -> userDetailsService.loadUserById(1L));
+    }
+
+    @Test
+    void staleEntry_IsNotServedBeyondTtlWithoutEviction() {
+        // Given - account changed on another instance, so no local eviction happens
+        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(testUser));
+        userDetailsService.loadUserByUsername("testuser");
+
+        User changed = copyOf(testUser);
+        changed.setPassword("new-hash");
+        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(changed));
+
+        // When - just inside the TTL the old entry may still be served
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS - 1));
+        assertEquals("old-hash", userDetailsService.loadUserByUsername("testuser").getPassword());
+
+        // Then - once the TTL has elapsed it never is
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals("new-hash", userDetailsService.loadUserByUsername("testuser").getPassword());
+    }
+
+    @Test
+    void staleEntry_RevokedAccountIsRejectedAfterTtl() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        userDetailsService.loadUserById(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS));
+
+        // Then
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserById(1L));
+    }
+
+    @Test
+    void updatePassword_StoresRehashAndDropsCachedPrincipal() {
+        // Given
+        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(testUser));
+        UserDetails cached = userDetailsService.loadUserByUsername("testuser");
+        when(userRepository.rehashPassword(1L, "old-hash", "rehashed")).thenReturn(1);
+        User rehashed = copyOf(testUser);
+        rehashed.setPassword("rehashed");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(rehashed));
+
+        // When
+        UserDetails updated = userDetailsService.updatePassword(cached, "rehashed");
+
+        // Then
+        assertEquals("rehashed", updated.getPassword());
+        assertEquals("rehashed", userDetailsService.loadUserById(1L).getPassword());
+        assertEquals(0, ((UserPrincipal) updated).getTokenEpoch());
+        assertEquals(1, userDetailsService.getCacheStats().getInvalidations());
+    }
+
+    @Test
+    void updatePassword_KeepsPasswordChangedSinceLogin() {
+        // Given
+        when(userRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(testUser));
+        UserDetails cached = userDetailsService.loadUserByUsername("testuser");
+        when(userRepository.rehashPassword(1L, "old-hash", "rehashed")).thenReturn(0);
+
+        // When
+        UserDetails updated = userDetailsService.updatePassword(cached, "rehashed");
+
+        // Then
+        assertSame(cached, updated);
+        assertEquals(0, userDetailsService.getCacheStats().getInvalidations());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User(user.getUsername(), user.getEmail(), user.getPassword());
+        copy.setId(user.getId());
+        copy.setTokenEpoch(user.getTokenEpoch());
+        return copy;
+    }
+}
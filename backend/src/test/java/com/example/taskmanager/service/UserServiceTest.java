@@ -0,0 +1,178 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.SignupRequest;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserService userService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("old-hash");
+    }
+
+    @Test
+    void createUser_SingleInsertAndRecordsAvailability() {
+        // Given
+        SignupRequest request = new SignupRequest();
+        request.setUsername("NewUser");
+        request.setEmail("new@example.com");
+        request.setPassword("password");
+        when(passwordEncoder.encode("password")).thenReturn("hash");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        User created = userService.createUser(request);
+
+        // Then
+        assertEquals("newuser", created.getUsernameNormalized());
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(availabilityService).recordRegistration(created);
+    }
+
+    @Test
+    void createUser_MapsUniqueViolationsToSignupErrors() {
+        // Given
+        SignupRequest request = new SignupRequest();
+        request.setUsername("testuser");
+        request.setEmail("test@example.com");
+        request.setPassword("password");
+        when(passwordEncoder.encode("password")).thenReturn("hash");
+        when(userRepository.saveAndFlush(any(User.class)))
+            .thenThrow(uniqueViolation(User.UK_USERNAME_NORMALIZED))
+            .thenThrow(uniqueViolation(User.UK_EMAIL_NORMALIZED.toUpperCase()));
+
+        // When & Then
+        RuntimeException usernameTaken = assertThrows(RuntimeException.class, () -> userService.createUser(request));
+        RuntimeException emailTaken = assertThrows(RuntimeException.class, () -> userService.createUser(request));
+        assertEquals("Username is already taken!", usernameTaken.getMessage());
+        assertEquals("Email is already in use!", emailTaken.getMessage());
+        verify(availabilityService, never()).recordRegistration(any());
+    }
+
+    @Test
+    void changePassword_HashesBeforeConditionalUpdateAndEvictsCachedAccount() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("old", "old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("new-hash");
+        when(userRepository.changePassword(eq(1L), eq("old-hash"), eq("new-hash"), any())).thenReturn(1);
+
+        // When
+        userService.changePassword(1L, "old", "new");
+
+        // Then
+        InOrder order = inOrder(passwordEncoder, transactionManager, userRepository);
+        order.verify(passwordEncoder).encode("new");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).changePassword(eq(1L), eq("old-hash"), eq("new-hash"), any());
+        order.verify(transactionManager).commit(any());
+        verify(userDetailsService).evictUser(1L);
+        verify(tokenEpochService).invalidate(1L);
+    }
+
+    @Test
+    void changePassword_ConcurrentChangeFailsWithoutEvicting() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("old", "old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("new-hash");
+        when(userRepository.changePassword(eq(1L), eq("old-hash"), eq("new-hash"), any())).thenReturn(0);
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> userService.changePassword(1L, "old", "new"));
+        verify(transactionManager).rollback(any());
+        verify(userDetailsService, never()).evictUser(anyLong());
+    }
+
+    @Test
+    void changePassword_WrongCurrentPasswordKeepsCache() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("wrong", "old-hash")).thenReturn(false);
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> userService.changePassword(1L, "wrong", "new"));
+        verify(userDetailsService, never()).evictUser(anyLong());
+    }
+
+    @Test
+    void updateUser_EvictsCachedAccount() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        // When
+        userService.updateUser(1L, "Test", "User");
+
+        // Then
+        verify(userDetailsService).evictUser(1L);
+    }
+
+    @Test
+    void deleteUser_EvictsCachedAccount() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // When
+        userService.deleteUser(1L);
+
+        // Then
+        verify(userRepository).delete(testUser);
+        verify(userDetailsService).evictUser(1L);
+        verify(tokenEpochService).invalidate(1L);
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraintName) {
+        ConstraintViolationException cause = new ConstraintViolationException(
+            "duplicate key", new SQLException("duplicate key", "23505"), constraintName);
+        return new DataIntegrityViolationException("could not execute statement", cause);
+    }
+}
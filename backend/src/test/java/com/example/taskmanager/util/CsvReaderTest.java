@@ -0,0 +1,50 @@
+package com.example.taskmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readRecord_HandlesQuotesLineBreaksAndBlankLines() throws IOException {
+        // Given
+        CsvReader csv = new CsvReader(new StringReader("a,\"b,\"\"c\"\"\"\r\n\r\n\"multi\nline\",\n last"), 1000);
+
+        // When & Then
+        assertEquals(List.of("a", "b,\"c\""), csv.readRecord());
+        assertEquals(1, csv.getRecordLine());
+        assertEquals(List.of("multi\nline", ""), csv.readRecord());
+        assertEquals(3, csv.getRecordLine());
+        assertEquals(List.of(" last"), csv.readRecord());
+        assertEquals(5, csv.getRecordLine());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void stripFormulaGuard_UndoesCsvWriterGuard() throws IOException {
+        // Given
+        List<String> values = List.of("=1+1", "-2", "'=quoted", "''twice", "'plain", "plain", "'");
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRow(values.toArray());
+
+        // When
+        List<String> read = new CsvReader(new StringReader(out.toString()), 1000).readRecord();
+
+        // Then
+        assertEquals(values, read.stream().map(CsvReader::stripFormulaGuard).toList());
+        assertNull(CsvReader.stripFormulaGuard(null));
+    }
+
+    @Test
+    void readRecord_RejectsUnterminatedAndOversizedRecords() {
+        // When & Then
+        assertThrows(IOException.class, () -> new CsvReader(new StringReader("\"open,field"), 1000).readRecord());
+        assertThrows(IOException.class, () -> new CsvReader(new StringReader("0123456789,x"), 5).readRecord());
+    }
+}
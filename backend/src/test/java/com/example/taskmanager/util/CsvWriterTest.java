@@ -0,0 +1,42 @@
+package com.example.taskmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvWriterTest {
+
+    private final StringWriter out = new StringWriter();
+    private final CsvWriter csv = new CsvWriter(out);
+
+    @Test
+    void writeRow_LeavesPlainFieldsUnquoted() throws IOException {
+        // When
+        csv.writeRow(1L, "Write report", null, 2.5);
+
+        // Then
+        assertEquals("1,Write report,,2.5\r\n", out.toString());
+    }
+
+    @Test
+    void writeRow_QuotesDelimitersQuotesAndLineBreaks() throws IOException {
+        // When
+        csv.writeRow("a,b", "say \"hi\"", "line\nbreak", "");
+
+        // Then
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"line\nbreak\",\r\n", out.toString());
+    }
+
+    @Test
+    void writeRow_GuardsTextThatSpreadsheetsRunAsFormulas() throws IOException {
+        // When
+        csv.writeRow("=HYPERLINK(\"x\")", "+1", "-2", "@SUM(A1)", "'=quoted", "''twice", "'plain", -3, "a=b");
+
+        // Then
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\",'+1,'-2,'@SUM(A1),''=quoted,'''twice,'plain,-3,a=b\r\n",
+                out.toString());
+    }
+}
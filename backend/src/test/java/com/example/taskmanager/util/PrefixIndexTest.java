@@ -0,0 +1,74 @@
+package com.example.taskmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = PrefixIndex.of(
+        new long[]{3, 1, 2},
+        new String[]{"Review pull request", "Write release notes", "Renew passport"});
+
+    @Test
+    void search_MatchesPrefixOfAnyTitleWord() {
+        // When & Then
+        assertArrayEquals(new long[]{1, 2, 3}, sorted(index.search("re", 10)));
+        assertArrayEquals(new long[]{2}, index.search("PASS", 10));
+        assertArrayEquals(new long[]{1}, index.search("notes", 10));
+        assertArrayEquals(new long[0], index.search("xyz", 10));
+        assertArrayEquals(new long[0], index.search("  ", 10));
+    }
+
+    @Test
+    void search_RequiresEveryEarlierWordAndHonoursLimit() {
+        // When & Then
+        assertArrayEquals(new long[]{3}, index.search("pull re", 10));
+        assertArrayEquals(new long[]{1}, index.search("write, rel", 10));
+        assertArrayEquals(new long[0], index.search("renew pu", 10));
+        assertEquals(2, index.search("re", 2).length);
+    }
+
+    @Test
+    void with_ReplacesTitleAndWithoutRemovesEntry() {
+        // Given
+        PrefixIndex updated = index.with(2, "Book flights").with(4, "Reply to landlord").without(3);
+
+        // When & Then
+        assertEquals(3, updated.size());
+        assertEquals("Book flights", updated.titleOf(2));
+        assertNull(updated.titleOf(3));
+        assertArrayEquals(new long[0], updated.search("passport", 10));
+        assertArrayEquals(new long[]{1, 4}, sorted(updated.search("re", 10)));
+        assertEquals(3, index.size(), "the original index is unchanged");
+        assertSame(updated, updated.without(99));
+    }
+
+    @Test
+    void estimatedBytes_TracksIncrementalUpdatesExactly() {
+        // Given
+        PrefixIndex updated = index.with(2, "Book flights").with(4, "Reply to landlord").without(3);
+        PrefixIndex rebuilt = PrefixIndex.of(new long[]{1, 2, 4},
+            new String[]{"Write release notes", "Book flights", "Reply to landlord"});
+
+        // When & Then
+        assertEquals(rebuilt.estimatedBytes(), updated.estimatedBytes());
+        assertEquals(0, PrefixIndex.empty().estimatedBytes());
+    }
+
+    @Test
+    void tokenize_FoldsCaseDeduplicatesAndCapsTokens() {
+        // When & Then
+        assertEquals(List.of("fix", "bug", "42"), PrefixIndex.tokenize("Fix BUG #42 - fix"));
+        assertEquals(PrefixIndex.MAX_TOKENS_PER_ENTRY, PrefixIndex.tokenize("a b c d e f g h i j k l m n o p q r s").size());
+        assertEquals(PrefixIndex.MAX_TOKEN_LENGTH, PrefixIndex.tokenize("x".repeat(100)).get(0).length());
+    }
+
+    private static long[] sorted(long[] ids) {
+        long[] copy = ids.clone();
+        java.util.Arrays.sort(copy);
+        return copy;
+    }
+}
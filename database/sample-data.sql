@@ -0,0 +1,11 @@
+-- Sample users and tasks for local development; run after the backend has migrated the schema
+
+INSERT INTO users (username, email, username_normalized, email_normalized, password, first_name, last_name) VALUES
+('admin', 'admin@example.com', 'admin', 'admin@example.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'Admin', 'User'),
+('ysn_abhir', 'yassine@example.com', 'ysn_abhir', 'yassine@example.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'yassine', 'Abhir');
+
+INSERT INTO tasks (title, description, status, priority, due_date, user_id) VALUES
+('Complete project documentation', 'Write comprehensive documentation for the CRUD application', 'IN_PROGRESS', 'HIGH', '2025-07-01', 1),
+('Review code changes', 'Review and approve pending pull requests', 'PENDING', 'MEDIUM', '2025-06-25', 1),
+('Setup CI/CD pipeline', 'Configure automated testing and deployment', 'PENDING', 'HIGH', '2025-06-30', 2),
+('Update dependencies', 'Update all project dependencies to latest versions', 'COMPLETED', 'LOW', '2025-06-20', 2);
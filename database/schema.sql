@@ -3,47 +3,8 @@
 -- Create database and user
 CREATE DATABASE taskmanager;
 
--- Create users table
-CREATE TABLE IF NOT EXISTS users (
-    id BIGSERIAL PRIMARY KEY,
-    username VARCHAR(50) UNIQUE NOT NULL,
-    email VARCHAR(100) UNIQUE NOT NULL,
-    password VARCHAR(255) NOT NULL,
-    first_name VARCHAR(50),
-    last_name VARCHAR(50),
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
-
--- Create tasks table
-CREATE TABLE IF NOT EXISTS tasks (
-    id BIGSERIAL PRIMARY KEY,
-    title VARCHAR(255) NOT NULL,
-    description TEXT,
-    status VARCHAR(20) DEFAULT 'PENDING',
-    priority VARCHAR(10) DEFAULT 'MEDIUM',
-    due_date DATE,
-    user_id BIGINT NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-);
-
--- Create indexes for better performance
-CREATE INDEX idx_tasks_user_id ON tasks(user_id);
-CREATE INDEX idx_tasks_status ON tasks(status);
-CREATE INDEX idx_tasks_due_date ON tasks(due_date);
-CREATE INDEX idx_users_username ON users(username);
-CREATE INDEX idx_users_email ON users(email);
-
--- Insert sample data
-INSERT INTO users (username, email, password, first_name, last_name) VALUES
-('admin', 'admin@example.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'Admin', 'User'),
-('ysn_abhir', 'yassine@example.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'yassine', 'Abhir');
-
-INSERT INTO tasks (title, description, status, priority, due_date, user_id) VALUES
-('Complete project documentation', 'Write comprehensive documentation for the CRUD application', 'IN_PROGRESS', 'HIGH', '2025-07-01', 1),
-('Review code changes', 'Review and approve pending pull requests', 'PENDING', 'MEDIUM', '2025-06-25', 1),
-('Setup CI/CD pipeline', 'Configure automated testing and deployment', 'PENDING', 'HIGH', '2025-06-30', 2),
-('Update dependencies', 'Update all project dependencies to latest versions', 'COMPLETED', 'LOW', '2025-06-20', 2);
+-- The schema itself is created and upgraded by the backend on startup from the Flyway migrations in
+-- backend/src/main/resources/db/migration. Sample data for development is in database/sample-data.sql.
 
+-- Databases created by earlier versions of this script are adopted as migration version 1, which is this
+-- script's former schema unchanged, and the later migrations bring them up to date on the next startup.
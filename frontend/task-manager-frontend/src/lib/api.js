@@ -4,6 +4,7 @@ const API_BASE_URL = 'http://localhost:8080/api';
 class ApiService {
   constructor() {
     this.baseURL = API_BASE_URL;
+    this.refreshPromise = null;
   }
 
   // Get auth token from localStorage
@@ -16,9 +17,23 @@ class ApiService {
     localStorage.setItem('token', token);
   }
 
-  // Remove auth token from localStorage
+  // Remove auth and refresh tokens from localStorage
   removeAuthToken() {
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+  }
+
+  // Get refresh token from localStorage
+  getRefreshToken() {
+    return localStorage.getItem('refreshToken');
+  }
+
+  // Store the tokens from a login, registration or refresh response
+  storeTokens(data) {
+    this.setAuthToken(data.token);
+    if (data.refreshToken) {
+      localStorage.setItem('refreshToken', data.refreshToken);
+    }
   }
 
   // Get auth headers
@@ -30,8 +45,8 @@ class ApiService {
     };
   }
 
-  // Generic API request method
-  async request(endpoint, options = {}) {
+  // Generic API request method; an expired access token is refreshed once and the request retried
+  async request(endpoint, options = {}, retried = false) {
     const url = `${this.baseURL}${endpoint}`;
     const config = {
       headers: this.getAuthHeaders(),
@@ -40,6 +55,13 @@ class ApiService {
 
     try {
       const response = await fetch(url, config);
+
+      if (response.status === 401 && !retried && !endpoint.startsWith('/auth/') && this.getRefreshToken()) {
+        if (await this.refreshAccessToken()) {
+          return this.request(endpoint, options, true);
+        }
+      }
+
       const data = await response.json();
 
       if (!response.ok) {
@@ -53,6 +75,31 @@ class ApiService {
     }
   }
 
+  // Exchange the refresh token for a new token pair; concurrent callers share one request
+  refreshAccessToken() {
+    if (!this.refreshPromise) {
+      this.refreshPromise = fetch(`${this.baseURL}/auth/refresh`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken: this.getRefreshToken() })
+      })
+        .then(async (response) => {
+          const data = await response.json();
+          if (!response.ok || !data.success) {
+            this.removeAuthToken();
+            return false;
+          }
+          this.storeTokens(data.data);
+          return true;
+        })
+        .catch(() => false)
+        .finally(() => {
+          this.refreshPromise = null;
+        });
+    }
+    return this.refreshPromise;
+  }
+
   // Authentication methods
   async login(credentials) {
     const response = await this.request('/auth/login', {
@@ -61,7 +108,7 @@ class ApiService {
     });
     
     if (response.success && response.data.token) {
-      this.setAuthToken(response.data.token);
+      this.storeTokens(response.data);
     }
     
     return response;
@@ -74,7 +121,7 @@ class ApiService {
     });
     
     if (response.success && response.data.token) {
-      this.setAuthToken(response.data.token);
+      this.storeTokens(response.data);
     }
     
     return response;
@@ -82,7 +129,10 @@ class ApiService {
 
   async logout() {
     try {
-      await this.request('/auth/logout', { method: 'POST' });
+      await this.request('/auth/logout', {
+        method: 'POST',
+        body: JSON.stringify({ refreshToken: this.getRefreshToken() })
+      });
     } catch (error) {
       console.error('Logout error:', error);
     } finally {
@@ -90,6 +140,13 @@ class ApiService {
     }
   }
 
+  async checkAvailability({ username, email }) {
+    const params = new URLSearchParams();
+    if (username) params.append('username', username);
+    if (email) params.append('email', email);
+    return this.request(`/auth/availability?${params.toString()}`);
+  }
+
   async getCurrentUser() {
     return this.request('/auth/profile');
   }